@@ -0,0 +1,175 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.bench;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Random;
+
+import venn.AllParameters;
+import venn.db.ListReaderModel;
+import venn.db.VennMemDataModel;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennErrorFunction;
+import venn.diagram.VennObjectFactory;
+import venn.geometry.FileFormatException;
+import venn.optim.CMAESOptimizer;
+import venn.optim.EvolutionaryOptimizer;
+import venn.optim.EvolutionaryOptimizerV1;
+import venn.optim.IFunction;
+import venn.optim.IOptimizer;
+import venn.optim.ParallelSwarmOptimizer;
+import venn.optim.SwarmOptimizer;
+
+/**
+ * Builds the inputs of the benchmarks from the example data sets.
+ * 
+ * A data source is a directory below <code>data_examples</code> (set the system property
+ * <code>venn.bench.data</code> to use another location). All .list files of the directory
+ * are merged into one data model, each file contributes its groups and elements with equal
+ * names are identified. The first <code>numSets</code> groups are used.
+ */
+public class BenchmarkData
+{
+    public static final String DATA_DIR = System.getProperty("venn.bench.data","data_examples");
+    
+    /**
+     * 
+     * @param source directory below the data directory, e.g. "random" or "scenarios"
+     * @param numSets number of groups to take
+     * @return A data model with at most numSets groups.
+     */
+    public static VennMemDataModel loadModel( String source, int numSets )
+    throws IOException, FileFormatException
+    {
+        File dir = new File(DATA_DIR,source);
+        File[] files = dir.listFiles(new FilenameFilter() {
+            public boolean accept(File d, String name) {
+                return name.endsWith(".list");
+            }
+        });
+        if( files == null || files.length == 0 )
+            throw new IOException("no .list files in " + dir.getAbsolutePath());
+        Arrays.sort(files);
+        
+        HashMap<String,Integer> elementIds = new HashMap<String,Integer>();
+        BitSet[] groups = new BitSet[numSets];
+        String[] names = new String[numSets];
+        int numGroups = 0;
+        for( int f=0; f<files.length && numGroups<numSets; ++f )
+        {
+            ListReaderModel reader = new ListReaderModel();
+            reader.loadFromFile(files[f].getPath());
+            for( int g=0; g<reader.getNumGroups() && numGroups<numSets; ++g )
+            {
+                BitSet src = reader.getGroupElements(g),
+                       dst = new BitSet();
+                for( int e=src.nextSetBit(0); e>=0; e=src.nextSetBit(e+1) )
+                {
+                    String name = reader.getElementName(e);
+                    Integer id = elementIds.get(name);
+                    if( id == null )
+                    {
+                        id = Integer.valueOf(elementIds.size());
+                        elementIds.put(name,id);
+                    }
+                    dst.set(id.intValue());
+                }
+                groups[numGroups] = dst;
+                names[numGroups] = files[f].getName() + ":" + reader.getGroupName(g);
+                ++numGroups;
+            }
+        }
+        
+        VennMemDataModel model = new VennMemDataModel(numGroups,elementIds.size());
+        for( int g=0; g<numGroups; ++g )
+        {
+            model.setGroupElements(g,groups[g]);
+            model.setGroupName(g,names[g]);
+        }
+        return model;
+    }
+    
+    /**
+     * Creates the polygons the same way the GUI does (see VennPanel).
+     */
+    public static VennArrangement createArrangement( VennMemDataModel model, int numEdges )
+    {
+        AllParameters params = new AllParameters();
+        params.numEdges = numEdges;
+        
+        int maxCard = 0;
+        for( int i=0; i<model.getNumGroups(); ++i )
+        {
+            maxCard = Math.max(maxCard,model.getGroupElements(i).cardinality());
+        }
+        double radius = params.sizeFactor*0.5/Math.max(2.0,Math.sqrt((double)model.getNumGroups()));
+        double factor = 2.0*(double)maxCard /
+                        ((double)numEdges*Math.sin(2.0*Math.PI/(double)numEdges))/(radius*radius);
+        
+        VennObjectFactory factory = new VennObjectFactory( params.view );
+        factory.setPolygonParameters( numEdges, factor );
+        VennArrangement arrangement = new VennArrangement( model, factory );
+        arrangement.setParameters( params );
+        return arrangement;
+    }
+    
+    public static VennErrorFunction createErrorFunction( VennArrangement arrangement, int maxIntersections )
+    {
+        VennErrorFunction.Parameters params = new VennErrorFunction.Parameters();
+        params.maxIntersections = maxIntersections;
+        return new VennErrorFunction( new VennArrangement(arrangement), params );
+    }
+    
+    /**
+     * 
+     * @return num random inputs within the bounds of the function.
+     */
+    public static double[][] randomInputs( IFunction func, int num, long seed )
+    {
+        Random random = new Random(seed);
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+        double[][] inputs = new double[num][func.getNumInput()];
+        for( int k=0; k<num; ++k )
+        {
+            for( int i=0; i<L.length; ++i )
+            {
+                inputs[k][i] = L[i] + random.nextDouble() * (U[i]-L[i]);
+            }
+        }
+        return inputs;
+    }
+    
+    /**
+     * Creates an optimizer like VennArrangementsOptimizer does.
+     * 
+     * @param id optimizer ID (see AllParameters.Optimizers)
+     */
+    public static IOptimizer createOptimizer( int id, IFunction func, long seed )
+    {
+        AllParameters params = new AllParameters();
+        Random random = new Random(seed);
+        switch( id )
+        {
+            case EvolutionaryOptimizerV1.Parameters.ID:
+                return new EvolutionaryOptimizerV1(random,func,params.optEvo);
+            case EvolutionaryOptimizer.Parameters.ID:
+                return new EvolutionaryOptimizer(random,func,params.optEvo2);
+            case SwarmOptimizer.Parameters.ID:
+                return new SwarmOptimizer(random,func,params.optSwarm);
+            case ParallelSwarmOptimizer.Parameters.ID:
+                return new ParallelSwarmOptimizer(random,func,params.optPSwarm);
+            case CMAESOptimizer.Parameters.ID:
+                return new CMAESOptimizer(random,func,params.optCmaes);
+            default:
+                throw new IllegalArgumentException("illegal optimizer " + id);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import venn.diagram.IntersectionTree;
+import venn.diagram.VennErrorFunction;
+
+/**
+ * Intersection tree construction and the error function for random arrangements
+ * of the example data sets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessBenchmark
+{
+    private static final int NUM_INPUTS = 64;
+    
+    @Param({"random", "scenarios"})
+    public String source;
+    
+    @Param({"4", "8", "12"})
+    public int numSets;
+    
+    @Param({"16", "32"})
+    public int numEdges;
+    
+    @Param({"3", "6"})
+    public int maxIntersections;
+    
+    private VennErrorFunction func;
+    private double[][] inputs;
+    private int next;
+    
+    @Setup
+    public void setup() throws Exception
+    {
+        func = BenchmarkData.createErrorFunction(
+                    BenchmarkData.createArrangement(BenchmarkData.loadModel(source,numSets),numEdges),
+                    maxIntersections );
+        inputs = BenchmarkData.randomInputs(func,NUM_INPUTS,1);
+    }
+    
+    /**
+     * Complete rebuild of the tree for a new arrangement.
+     */
+    @Benchmark
+    public IntersectionTree buildTree()
+    {
+        next = (next + 1) % NUM_INPUTS;
+        func.setInput(inputs[next]);
+        IntersectionTree tree = func.getTree();
+        tree.invalidateAll();
+        tree.buildTree();
+        return tree;
+    }
+    
+    /**
+     * Error of a new arrangement (all sets moved).
+     */
+    @Benchmark
+    public double getOutput()
+    {
+        next = (next + 1) % NUM_INPUTS;
+        func.setInput(inputs[next]);
+        return func.getOutput();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import venn.geometry.FPoint;
+import venn.geometry.FPolygon;
+
+/**
+ * Polygon intersection and area of overlapping n-gons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark
+{
+    private static final int NUM_PAIRS = 64;
+    
+    @Param({"16", "32", "64"})
+    public int numEdges;
+    
+    private FPolygon[] first, second;
+    private int next;
+    
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(1);
+        first = new FPolygon[NUM_PAIRS];
+        second = new FPolygon[NUM_PAIRS];
+        for( int k=0; k<NUM_PAIRS; ++k )
+        {
+            // two unit n-gons, most pairs overlap
+            first[k] = FPolygon.createNgon(numEdges,1.0);
+            second[k] = FPolygon.createNgon(numEdges,0.5 + random.nextDouble());
+            second[k].translate(new FPoint(2.0*random.nextDouble()-1.0,2.0*random.nextDouble()-1.0));
+        }
+    }
+    
+    @Benchmark
+    public FPolygon intersect()
+    {
+        next = (next + 1) % NUM_PAIRS;
+        return first[next].intersect(second[next]);
+    }
+    
+    @Benchmark
+    public double area()
+    {
+        next = (next + 1) % NUM_PAIRS;
+        second[next].invalidate(); // drop the cached area
+        return second[next].area();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import venn.optim.IOptimizer;
+
+/**
+ * A single optimization step (one generation) of each optimizer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizerBenchmark
+{
+    // see AllParameters.Optimizers
+    @Param({"0", "1", "2", "3", "4"})
+    public int optimizer;
+    
+    @Param({"random", "scenarios"})
+    public String source;
+    
+    @Param({"4", "8", "12"})
+    public int numSets;
+    
+    @Param({"16"})
+    public int numEdges;
+    
+    @Param({"4"})
+    public int maxIntersections;
+    
+    private IOptimizer opt;
+    
+    @Setup
+    public void setup() throws Exception
+    {
+        opt = BenchmarkData.createOptimizer( optimizer,
+                BenchmarkData.createErrorFunction(
+                    BenchmarkData.createArrangement(BenchmarkData.loadModel(source,numSets),numEdges),
+                    maxIntersections ),
+                1 );
+    }
+    
+    @TearDown
+    public void tearDown()
+    {
+        opt.finished();
+    }
+    
+    @Benchmark
+    public double step()
+    {
+        if( opt.endCondition() )
+            opt.reset();
+        opt.optimize();
+        return opt.getValue();
+    }
+}
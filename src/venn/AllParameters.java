@@ -7,9 +7,13 @@ package venn;
 import java.io.Serializable;
 
 import venn.diagram.VennErrorFunction;
+import venn.diagram.VennObjectFactory;
+import venn.optim.CMAESOptimizer;
+import venn.optim.CoarseToFineOptimizer;
 import venn.optim.EvolutionaryOptimizer;
 import venn.optim.EvolutionaryOptimizerV1;
 import venn.optim.ParallelSwarmOptimizer;
+import venn.optim.PolishOptimizer;
 import venn.optim.SwarmOptimizer;
 import venn.utility.MathUtility;
 import venn.utility.SystemUtility;
@@ -25,7 +29,10 @@ public class AllParameters implements Serializable
     private static final long serialVersionUID = 1L;
 
     // append descriptions of new optimizers here:
-    public static final String[] Optimizers = { "Evolutionary (old)", "Evolutionary (new)", "Particle Swarm", "Parallel Particle Swarm"};
+    public static final String[] Optimizers = { "Evolutionary (old)", "Evolutionary (new)", "Particle Swarm", "Parallel Particle Swarm", "CMA-ES"};
+    
+    // descriptions of the VennObjectFactory.VIEW_xxx constants
+    public static final String[] Views = { "Polygons", "Circles (exact)" };
     
     // global parameters
     public boolean 								colormode; // for categories on panel: coloured or grayscale
@@ -34,15 +41,21 @@ public class AllParameters implements Serializable
     public int                                  optimizer;      // see xxxOptimizerID constants
     public double                               sizeFactor;     // scaling factor for the venn objects
     public int                                  numEdges;
+    public int                                  view;           // see VennObjectFactory.VIEW_xxx
     public long                                 randomSeed;
     public int                                  updateInterval;
     public int                                  maxCategories; // max #filtered categories before a warning is shown
+    public double                               timeLimit;      // seconds for the optimization of all diagrams (0: no limit)
+    public double                               targetCost;     // a diagram is finished if its error is below (0: no target)
     
     public VennErrorFunction.Parameters         errorFunction;
     public EvolutionaryOptimizerV1.Parameters   optEvo;
     public EvolutionaryOptimizer.Parameters     optEvo2;
     public SwarmOptimizer.Parameters            optSwarm;
     public ParallelSwarmOptimizer.Parameters	optPSwarm;
+    public CMAESOptimizer.Parameters            optCmaes;
+    public PolishOptimizer.Parameters           polish;         // local refinement after the optimizer
+    public CoarseToFineOptimizer.Parameters     coarseToFine;   // polygon resolution schedule
 
     public transient boolean svgIds;  // command line option
     
@@ -55,15 +68,21 @@ public class AllParameters implements Serializable
         optimizer = ParallelSwarmOptimizer.Parameters.ID;
         sizeFactor = 1.0;
         numEdges = 16;
+        view = VennObjectFactory.VIEW_POLYGON;
         randomSeed = -1;
         updateInterval = 10;
         maxCategories = Constants.MAX_NUM_GROUPS;
+        timeLimit = 0.0;
+        targetCost = 0.0;
         
         errorFunction = new VennErrorFunction.Parameters();
         optSwarm = new SwarmOptimizer.Parameters();
         optPSwarm = new ParallelSwarmOptimizer.Parameters();
         optEvo = new EvolutionaryOptimizerV1.Parameters();
         optEvo2 = new EvolutionaryOptimizer.Parameters();
+        optCmaes = new CMAESOptimizer.Parameters();
+        polish = new PolishOptimizer.Parameters();
+        coarseToFine = new CoarseToFineOptimizer.Parameters();
     }
     
     /**
@@ -77,7 +96,7 @@ public class AllParameters implements Serializable
     	double olddouble;
 
     	oldint = optimizer;
-    	if (oldint != (optimizer = MathUtility.restrict(optimizer,0,3))) changed = true;
+    	if (oldint != (optimizer = MathUtility.restrict(optimizer,0,Optimizers.length-1))) changed = true;
         
         olddouble = sizeFactor;
         if (olddouble != (sizeFactor = MathUtility.restrict(sizeFactor,0.0001,10.0))) changed = true;
@@ -85,18 +104,45 @@ public class AllParameters implements Serializable
         oldint = numEdges;
         if (oldint != (numEdges = MathUtility.restrict(numEdges,3,128))) changed = true;
         
+        oldint = view;
+        if (oldint != (view = MathUtility.restrict(view,0,Views.length-1))) changed = true;
+        
         oldint = updateInterval;
         if (oldint != (updateInterval = MathUtility.restrict(updateInterval,0,9999999))) changed = true;
         
         oldint = maxCategories;
         if (oldint != (maxCategories = MathUtility.restrict(maxCategories,1,9999999))) changed = true;
         
+        olddouble = timeLimit;
+        if (olddouble != (timeLimit = MathUtility.restrict(timeLimit,0.0,1E6))) changed = true;
+        
+        olddouble = targetCost;
+        if (olddouble != (targetCost = MathUtility.restrict(targetCost,0.0,1E12))) changed = true;
+        
         // check childs
         if (! errorFunction.check()) changed = true;
         if (! optSwarm.check()) changed = true;
         if (! optPSwarm.check()) changed = true;
         if (! optEvo.check()) changed = true;
         if (! optEvo2.check()) changed = true;
+        if (optCmaes == null)
+        {   // parameter files written before CMA-ES was added
+            optCmaes = new CMAESOptimizer.Parameters();
+            changed = true;
+        }
+        if (! optCmaes.check()) changed = true;
+        if (polish == null)
+        {
+            polish = new PolishOptimizer.Parameters();
+            changed = true;
+        }
+        if (! polish.check()) changed = true;
+        if (coarseToFine == null)
+        {
+            coarseToFine = new CoarseToFineOptimizer.Parameters();
+            changed = true;
+        }
+        if (! coarseToFine.check()) changed = true;
         
         assert errorFunction.logCardinalities == logNumElements;
         
@@ -514,14 +514,37 @@ public class LoadFiles {
 	}
 
 	public GoTree loadGoDB() {
-		String name = "data/obo.out";
+		GoTree goTree = new GoTree();
+		
+		// the binary index is compiled at build time (ant goindex)
+		String name = "data/obo.idx";
 		InputStream stream = getClass().getResourceAsStream(name);
+		if (stream != null) {
+			try {
+				goTree.readIndex(stream);
+				System.out.println("goTree loaded from index '" + name + "'");
+				return goTree;
+			} catch (FileFormatException e) {
+				System.err.println("warning: " + e.getMessage());
+			} catch (IOException e) {
+				System.err.println("warning: cannot read GO index: " + e.getMessage());
+			} finally {
+				try {
+					stream.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		// fall back to the text format
+		name = "data/obo.out";
+		stream = getClass().getResourceAsStream(name);
 		/*
 		 * if( stream == null ) { name = "data/seq_gene.md.gz"; stream =
 		 * getClass().getResourceAsStream(name); if( stream != null ) { stream =
 		 * new GZIPInputStream(stream); } }
 		 */
-		GoTree goTree = new GoTree();
 		if (stream != null) {
 			try {
 				goTree.read(new InputStreamReader(stream));
@@ -24,6 +24,8 @@ import venn.db.HTGeneOntologyReaderModel;
 import venn.db.IDataFilter;
 import venn.db.IVennDataModel;
 import venn.db.VennFilteredDataModel;
+import venn.diagram.IntersectionMetrics;
+import venn.diagram.VennPolygonObject;
 import venn.gui.Gui;
 import venn.gui.VennPanel;
 import venn.optim.IOptimizer;
@@ -80,6 +82,8 @@ public class Main {
 				profFile 		= new StringHolder(), 
 				profilingFile 	= new StringHolder(), 
 				cpus			= new StringHolder(), 
+				timeLimit		= new StringHolder(), 
+				targetCost		= new StringHolder(), 
 				profCount 		= new StringHolder();
 
 		// create the parser and specify the allowed options ...
@@ -107,9 +111,26 @@ public class Main {
 		parser.addOption(
 				"--cpus %s #number of threads to use in parallel optimizing. Default is number of detected cores.",
 				cpus);
+		parser.addOption(
+				"--timelimit %s #seconds for the optimization of all diagrams (shared by the diagrams)",
+				timeLimit);
+		parser.addOption(
+				"--targetcost %s #stop the optimization of a diagram if its error is below this value",
+				targetCost);
 
 		parser.matchAllArgs(args);
 
+		// before anything creates the thread pool
+		if (cpus.value!=null){
+			try{
+				int nCpus = Integer.parseInt(cpus.value);
+				ExecutorServiceFactory.setNumberOfThreads(nCpus);
+			}catch(NumberFormatException e){
+				//give warning that we could not parse value
+				System.err.println("Cannot parse value for option --cpus");
+			}
+		}
+
 		System.out.println("VennMaster version " + Constants.VERSION_MAJOR
 				+ "." + Constants.VERSION_MINOR + "." + Constants.VERSION_SUB
 				+ "  (" + Constants.VERSION_DATE + ")");
@@ -132,6 +153,25 @@ public class Main {
 		}
 
 		params.svgIds = svgids;
+		
+		// optimization limits override the configuration file
+		if (timeLimit.value != null) {
+			try {
+				params.timeLimit = Double.parseDouble(timeLimit.value);
+			} catch (NumberFormatException e) {
+				System.err.println("Cannot parse value for option --timelimit");
+			}
+		}
+		if (targetCost.value != null) {
+			try {
+				params.targetCost = Double.parseDouble(targetCost.value);
+			} catch (NumberFormatException e) {
+				System.err.println("Cannot parse value for option --targetcost");
+			}
+		}
+		if (timeLimit.value != null || targetCost.value != null) {
+			params.check();
+		}
 
 		if (outConfigFile.value != null) {
 			SystemUtility.writeXMLObject(params, new File(outConfigFile.value));
@@ -318,16 +358,6 @@ public class Main {
 			}
 		}
 		
-		if (cpus.value!=null){
-			try{
-				int nCpus = Integer.parseInt(cpus.value);
-				ExecutorServiceFactory.setNumberOfThreads(nCpus);
-			}catch(NumberFormatException e){
-				//give warning that we could not parse value
-				System.err.println("Cannot parse value for option --cpus");
-			}
-		}
-		
 		if (profilingFile.value != null) {
 
 			int profilingCount = 100;
@@ -340,6 +370,10 @@ public class Main {
 				}
 			}
 
+			// count the rejected and computed polygon intersections
+			IntersectionMetrics metrics = new IntersectionMetrics();
+			VennPolygonObject.setMetrics(metrics);
+
 			try {
 				Writer profilingWriter = new BufferedWriter(new FileWriter(
 						profilingFile.value));
@@ -373,6 +407,9 @@ public class Main {
 				String summary = getSummary(System.nanoTime() - completeStart,
 						errors);
 				profilingWriter.append(summary);
+				profilingWriter.append(metrics.toString() + "\n");
+				profilingWriter.append("threads: "
+						+ ExecutorServiceFactory.getNumberOfThreads() + "\n");
 
 				profilingWriter.close();
 			} catch (IOException e) {
@@ -18,18 +18,22 @@ import venn.diagram.VennArrangement;
 import venn.diagram.VennErrorFunction;
 import venn.event.IsSimulatingListener;
 import venn.event.ResultAvailableListener;
+import venn.optim.CMAESOptimizer;
+import venn.optim.CoarseToFineOptimizer;
 import venn.optim.EvolutionaryOptimizer;
 import venn.optim.EvolutionaryOptimizerV1;
 import venn.optim.IOptimizer;
 import venn.optim.IOptimizerObserver;
 import venn.optim.OptimizerWorker;
 import venn.optim.ParallelSwarmOptimizer;
+import venn.optim.PolishOptimizer;
 import venn.optim.SwarmOptimizer;
 
 public class VennArrangementsOptimizer implements IOptimizerObserver, ActionListener {
     private static final Random  random = new Random();
     private VennArrangement[] vennArrangement;
     private VennErrorFunction[] errFunc;
+    private VennArrangement[] current;	// last reported arrangements of the running optimizers
     private IOptimizer[]    optim;
     private OptimizerWorker worker;
 	private AllParameters   params;
@@ -150,34 +154,52 @@ public class VennArrangementsOptimizer implements IOptimizerObserver, ActionList
 		
 		errFunc = new VennErrorFunction[vennArrangement.length];
 		optim = new IOptimizer[vennArrangement.length];
+		current = new VennArrangement[vennArrangement.length];
 		
 		for( int i=0; i<vennArrangement.length; ++i )
 		{
 				// the following might be replaced with a factory method
 		    errFunc[i] = new VennErrorFunction( new VennArrangement(vennArrangement[i]), params.errorFunction );
+		    // the optimizers run concurrently, so each one gets its own random generator
+		    // to keep the results reproducible
+		    Random optRandom = new Random( random.nextLong() );
 		    switch( params.optimizer )
 		    {
 		        case EvolutionaryOptimizerV1.Parameters.ID:
-		            optim[i] = new EvolutionaryOptimizerV1(random,errFunc[i], params.optEvo );                    
+		            optim[i] = new EvolutionaryOptimizerV1(optRandom,errFunc[i], params.optEvo );                    
 		            break;
 		            
 		        case EvolutionaryOptimizer.Parameters.ID:
-		            optim[i] = new EvolutionaryOptimizer(random,errFunc[i], params.optEvo2 );                    
+		            optim[i] = new EvolutionaryOptimizer(optRandom,errFunc[i], params.optEvo2 );                    
 		            break;
 
 		        case SwarmOptimizer.Parameters.ID:
-		            optim[i] = new SwarmOptimizer(random,errFunc[i], params.optSwarm );
+		            optim[i] = new SwarmOptimizer(optRandom,errFunc[i], params.optSwarm );
 		            break;
 
 		        case ParallelSwarmOptimizer.Parameters.ID:
-		            optim[i] = new ParallelSwarmOptimizer(random,errFunc[i], params.optPSwarm);
+		            optim[i] = new ParallelSwarmOptimizer(optRandom,errFunc[i], params.optPSwarm);
+		            break;
+
+		        case CMAESOptimizer.Parameters.ID:
+		            optim[i] = new CMAESOptimizer(optRandom,errFunc[i], params.optCmaes);
 		            break;
 		            
 		        default:
 		            Assert.fail("illegal optimizer");
 		    }
+		    if( params.coarseToFine.enabled )
+		    {
+		        optim[i] = new CoarseToFineOptimizer(optim[i], params.coarseToFine);
+		    }
+		    if( params.polish.enabled )
+		    {
+		        optim[i] = new PolishOptimizer(optim[i], params.polish);
+		    }
 		    
+		    current[i] = new VennArrangement( errFunc[i].getArrangement() );
 		    optim[i].setID( i );
+		    optim[i].setTargetCost( params.targetCost );
 		    optim[i].addObserver( this ); // IOptimizerObserver (notifyOptimization, finished, close)
 		    
 		    Iterator iter = observers.iterator();
@@ -206,6 +228,7 @@ public class VennArrangementsOptimizer implements IOptimizerObserver, ActionList
         // create new worker
         worker = new OptimizerWorker();
         worker.addActionListener( this );
+        worker.setTimeLimit( params.timeLimit );
         
         // attach optimizers
         Assert.assertNotNull( optim );
@@ -244,6 +267,7 @@ public class VennArrangementsOptimizer implements IOptimizerObserver, ActionList
         for( int i=0; i<optim.length; ++i )
         {
             optim[i].reset();
+            current[i] = new VennArrangement( errFunc[i].getArrangement() );
         }
         
         newWorker().start();
@@ -322,6 +346,8 @@ public class VennArrangementsOptimizer implements IOptimizerObserver, ActionList
         {
             int id = source.getID();
             errFunc[id].setInput( source.getOptimum() );
+            // the other optimizers are still running, so the listeners get copies
+            current[id] = new VennArrangement( errFunc[id].getArrangement() );
             notifyResultAvailable(false);
         }
 
@@ -423,6 +449,10 @@ public class VennArrangementsOptimizer implements IOptimizerObserver, ActionList
     
 
 	public synchronized VennArrangement[] getOptArrangements() {
+		if (worker != null && ! worker.optimizersStopped()) {
+			// the error functions are in use by the optimizers
+			return current.clone();
+		}
 		updateErrFuncToOptimum(); // necessary?
 		VennArrangement[] res = new VennArrangement[errFunc.length];
 		for (int i = 0; i < errFunc.length; i++) {
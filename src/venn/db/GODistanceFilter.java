@@ -171,6 +171,14 @@ extends AbstractDataFilter implements Serializable
     private transient GoTree goTree;
     private transient GoDAG goDAG;
     
+    // results of the filter stages, each is computed again only if its inputs changed
+    private transient Parameters passParams;       // criteria of the range/p-value pass (null = invalid)
+    private transient BitSet passed;               // groups which pass the range and p-value/FDR criteria
+    private transient Set<Long> standardFiltered;  // GO IDs of the other groups
+    private transient Set<Long> distanceFiltered;  // result of the DAG filter (null = invalid)
+    private transient int dagMinDistance;          // minDistance of the DAG filter
+    private transient boolean groupsValid;         // groups combines the current stages
+    
     
     private GODistanceFilter()
     {
@@ -197,6 +205,8 @@ extends AbstractDataFilter implements Serializable
         }
 
         if (dataModel != null) {
+        	goDAG = new GoDAG(goTree, getGoIDs());
+        	distanceFiltered = null;
         	validate();
         	notifyUser();
         }
@@ -220,33 +230,46 @@ extends AbstractDataFilter implements Serializable
     	if( groups == null )
     	{
     		groups = new BitSet();
+    		groupsValid = false;
     	}
-    	groups.clear();
     	if( dataModel == null )
     	{
+    		groups.clear();
+    		groupsValid = false;
     		return;
     	}
     	int numGroups = dataModel.getNumGroups();
     	if( numGroups <= 0 )
     	{
+    		groups.clear();
+    		groupsValid = false;
     		return;
     	}
 
     	// update standard filtering criteria
-    	Set<Long> standardFiltered = new TreeSet<Long>(); // for distance filter
-    	for( int i=0; i<numGroups; ++i )
+    	if( passParams == null || ! samePassCriteria(passParams, params) )
     	{
-    		AbstractGOCategoryProperties props = (AbstractGOCategoryProperties)dataModel.getGroupProperties(i);
-    		if( props != null )
+    		BitSet passed = new BitSet();
+    		Set<Long> standardFiltered = new TreeSet<Long>(); // for distance filter
+    		for( int i=0; i<numGroups; ++i )
     		{
-    			props.setMeanDist(-1);
-
-    			if (categoryPassFilter(props)) {
-    				groups.set(i);
-    			} else {
-    				standardFiltered.add(props.getID());
+    			AbstractGOCategoryProperties props = (AbstractGOCategoryProperties)dataModel.getGroupProperties(i);
+    			if( props != null )
+    			{
+    				props.setMeanDist(-1);
+
+    				if (categoryPassFilter(props)) {
+    					passed.set(i);
+    				} else {
+    					standardFiltered.add(props.getID());
+    				}
     			}
     		}
+    		this.passed = passed;
+    		this.standardFiltered = standardFiltered;
+    		passParams = (Parameters) SystemUtility.serialClone(params);
+    		distanceFiltered = null;
+    		groupsValid = false;
     	}
 
     	// distances
@@ -257,16 +280,27 @@ extends AbstractDataFilter implements Serializable
 //    		return;
     	}
     	
-    	goDAG.filter(standardFiltered, params.minDistance);
-    	Set<Long> filtered = goDAG.getDistanceFiltered();
-    	for( int i=0; i<numGroups; ++i ) {
+    	if( distanceFiltered == null || dagMinDistance != params.minDistance )
+    	{
+    		goDAG.filter(standardFiltered, params.minDistance);
+    		distanceFiltered = goDAG.getDistanceFiltered();
+    		dagMinDistance = params.minDistance;
+    		groupsValid = false;
+    	}
+    	
+    	if( groupsValid )
+    	{
+    		return;
+    	}
+    	groups.clear();
+    	groups.or(passed);
+    	for( int i = groups.nextSetBit(0); i >= 0; i = groups.nextSetBit(i+1) ) {
     		AbstractGOCategoryProperties props = (AbstractGOCategoryProperties)dataModel.getGroupProperties(i);
-    		if (props != null) {
-    			if (filtered.contains(props.getID())) {
-    				groups.clear(i);
-    			}
+    		if (distanceFiltered.contains(props.getID())) {
+    			groups.clear(i);
     		}
     	}
+    	groupsValid = true;
 
 
     	// update minDist
@@ -293,6 +327,17 @@ extends AbstractDataFilter implements Serializable
 //    	}
     }
     
+    /**
+     * 
+     * @return true if the parameters select the same groups before the distance filter
+     */
+    private static boolean samePassCriteria(Parameters p1, Parameters p2) {
+    	return p1.minTotal == p2.minTotal
+    		&& p1.maxTotal == p2.maxTotal
+    		&& p1.maxPFDR == p2.maxPFDR
+    		&& p1.filterBy == p2.filterBy;
+    }
+    
     private boolean categoryPassFilter(AbstractGOCategoryProperties cat) {
     	cat.setFilterBy(params.filterBy);
 
@@ -624,6 +669,14 @@ extends AbstractDataFilter implements Serializable
     public void setDataModel(IVennDataModel model) {
     	dataModel = model;
 
+    	goDAG = new GoDAG(goTree, getGoIDs());
+    	passParams = null;
+
+    	validate();
+    	notifyUser();
+    }
+    
+    private Set<Long> getGoIDs() {
     	final int numGroups = dataModel.getNumGroups();
     	Set<Long> goIDs = new HashSet<Long>();
     	for (int i = 0; i < numGroups; i++) {
@@ -631,10 +684,7 @@ extends AbstractDataFilter implements Serializable
     		assert ! goIDs.contains(id);
 			goIDs.add(id);
     	}
-    	goDAG = new GoDAG(goTree, goIDs);
-
-    	validate();
-    	notifyUser();
+    	return goIDs;
     }
     
     @Override
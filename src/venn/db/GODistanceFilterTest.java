@@ -0,0 +1,263 @@
+/**
+ *
+ */
+package venn.db;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.BitSet;
+
+import junit.framework.TestCase;
+import venn.db.GODistanceFilter.Parameters;
+import venn.db.GODistanceFilter.Parameters.FilterBy;
+import venn.geometry.FileFormatException;
+import venn.utility.SystemUtility;
+
+/**
+ * The filter recomputes only the stages whose inputs changed; after each change
+ * it must accept the same groups as a newly built filter.
+ */
+public class GODistanceFilterTest extends TestCase {
+	// 3 is not a category, 4 has two parents
+	private static final String OBO =
+		"GO:0000002\tGO:0000001\n" +
+		"GO:0000003\tGO:0000001\n" +
+		"GO:0000004\tGO:0000002\tGO:0000003\n" +
+		"GO:0000005\tGO:0000004\n" +
+		"GO:0000006\tGO:0000005\n" +
+		"GO:0000007\tGO:0000002\n" +
+		"GO:0000008\tGO:0000007\n" +
+		"GO:0000009\tGO:0000008\n" +
+		"GO:0000010\tGO:0000009\n";
+
+	// all terms are children of 1
+	private static final String FLAT_OBO =
+		"GO:0000002\tGO:0000001\n" +
+		"GO:0000003\tGO:0000001\n" +
+		"GO:0000004\tGO:0000001\n" +
+		"GO:0000005\tGO:0000001\n" +
+		"GO:0000006\tGO:0000001\n" +
+		"GO:0000007\tGO:0000001\n" +
+		"GO:0000008\tGO:0000001\n" +
+		"GO:0000009\tGO:0000001\n" +
+		"GO:0000010\tGO:0000001\n";
+
+	// ID, nTotal, p-value, FDR
+	private static final double[][] CATEGORIES = {
+		{ 1, 100, 0.010, 0.020 },
+		{ 2,  50, 0.030, 0.080 },
+		{ 4,  60, 0.001, 0.010 },
+		{ 5,  70, 0.020, 0.040 },
+		{ 6,  30, 0.010, 0.010 },	// nTotal below the default range
+		{ 7,  80, 0.040, 0.200 },
+		{ 8,  90, 0.010, 0.030 },
+		{ 9,  45, 0.200, 0.300 },
+		{ 10, 120, 0.005, 0.060 },
+	};
+
+	private GoTree tree,
+				   flatTree;
+	private VennMemDataModel model;
+
+	/**
+	 * @param name
+	 */
+	public GODistanceFilterTest(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		tree = makeGoTree(OBO);
+		flatTree = makeGoTree(FLAT_OBO);
+		model = makeModel();
+	}
+
+	private static GoTree makeGoTree(String obo) throws FileFormatException, IOException {
+		GoTree goTree = new GoTree();
+		goTree.read(new StringReader(obo));
+		return goTree;
+	}
+
+	private static VennMemDataModel makeModel() {
+		VennMemDataModel model = new VennMemDataModel(CATEGORIES.length, 10);
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			setCategory(model, i, (int) CATEGORIES[i][1], 1.0);
+		}
+		return model;
+	}
+
+	/**
+	 * @param pScale factor of the p-value and FDR
+	 */
+	private static void setCategory(VennMemDataModel model, int i, int nTotal, double pScale) {
+		final double[] c = CATEGORIES[i];
+		model.setGroupProperties(i, new GOCategoryProperties1p1fdr((long) c[0], nTotal, 5,
+				pScale * c[2], pScale * c[3]));
+		model.setGroupName(i, "" + (long) c[0]);
+	}
+
+	private static Parameters makeParameters(int minDistance) {
+		Parameters params = new Parameters();
+		params.filterBy = FilterBy.P_VALUE;
+		params.minDistance = minDistance;
+		return params;
+	}
+
+	private static Parameters copy(Parameters params) {
+		return (Parameters) SystemUtility.serialClone(params);
+	}
+
+	private static GODistanceFilter makeFilter(GoTree goTree, IVennDataModel dataModel, Parameters params) {
+		GODistanceFilter filter = new GODistanceFilter(goTree);
+		filter.setParameters(copy(params));
+		filter.setDataModel(dataModel);
+		return filter;
+	}
+
+	private static BitSet accepted(GODistanceFilter filter, IVennDataModel dataModel) {
+		BitSet res = new BitSet();
+		for (int i = 0; i < dataModel.getNumGroups(); i++) {
+			if (filter.accept(i)) {
+				res.set(i);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Compares the filter with a new one for the given tree and data model.
+	 *
+	 * @return The accepted groups.
+	 */
+	private static BitSet assertSameAsNew(GODistanceFilter filter, GoTree goTree, IVennDataModel dataModel) {
+		BitSet expected = accepted(makeFilter(goTree, dataModel, filter.getParameters()), dataModel);
+		BitSet actual = accepted(filter, dataModel);
+		assertEquals(expected, actual);
+		return actual;
+	}
+
+	private BitSet assertSameAsNew(GODistanceFilter filter) {
+		return assertSameAsNew(filter, tree, model);
+	}
+
+	public void testMinDistance() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(1));
+		BitSet before = assertSameAsNew(filter);
+
+		filter.setParameters(makeParameters(3));
+		BitSet after = assertSameAsNew(filter);
+		assertFalse(before.equals(after));
+
+		filter.setParameters(makeParameters(2));
+		assertSameAsNew(filter);
+
+		filter.setParameters(makeParameters(1));
+		assertEquals(before, assertSameAsNew(filter));
+	}
+
+	/**
+	 * The groups which fail the range or p-value criteria are the previously
+	 * filtered nodes of the distance filter.
+	 */
+	public void testPassCriteria() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(3));
+		BitSet before = assertSameAsNew(filter);
+
+		Parameters params = makeParameters(3);
+		params.maxPFDR = 0.015;
+		filter.setParameters(params);
+		BitSet after = assertSameAsNew(filter);
+		assertFalse(before.equals(after));
+
+		params = copy(params);
+		params.filterBy = FilterBy.FDR;
+		filter.setParameters(params);
+		BitSet fdr = assertSameAsNew(filter);
+		assertFalse(after.equals(fdr));
+
+		params = copy(params);
+		params.minTotal = 20;
+		filter.setParameters(params);
+		assertSameAsNew(filter);
+	}
+
+	public void testSameParameters() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(3));
+		BitSet before = assertSameAsNew(filter);
+
+		// the same object changed in place
+		filter.getParameters().maxPFDR = 0.015;
+		filter.setParameters(filter.getParameters());
+		BitSet after = assertSameAsNew(filter);
+		assertFalse(before.equals(after));
+
+		filter.setParameters(filter.getParameters());
+		assertEquals(after, assertSameAsNew(filter));
+		filter.setParameters(makeParameters(3));
+		assertEquals(before, assertSameAsNew(filter));
+		filter.setParameters(makeParameters(3));
+		assertEquals(before, assertSameAsNew(filter));
+	}
+
+	public void testSetDataModel() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(3));
+		BitSet before = assertSameAsNew(filter);
+
+		// 6 within the range
+		VennMemDataModel other = makeModel();
+		setCategory(other, 4, 60, 1.0);
+		filter.setDataModel(other);
+		assertFalse(before.equals(assertSameAsNew(filter, tree, other)));
+
+		// the same model, 10 fails the p-value
+		setCategory(model, 8, 120, 20.0);
+		filter.setDataModel(model);
+		assertFalse(before.equals(assertSameAsNew(filter)));
+	}
+
+	public void testSetGoTree() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(3));
+		BitSet before = assertSameAsNew(filter);
+
+		filter.setGoTree(flatTree);
+		assertFalse(before.equals(assertSameAsNew(filter, flatTree, model)));
+
+		filter.setGoTree(tree);
+		assertEquals(before, assertSameAsNew(filter));
+	}
+
+	/**
+	 * A clone shares the cached stages until it is changed; the original is
+	 * not affected by the changes.
+	 */
+	public void testClone() {
+		GODistanceFilter filter = makeFilter(tree, model, makeParameters(3));
+		BitSet before = assertSameAsNew(filter);
+
+		GODistanceFilter clone = (GODistanceFilter) filter.clone();
+		assertEquals(before, assertSameAsNew(clone));
+
+		clone.setParameters(makeParameters(1));
+		assertFalse(before.equals(assertSameAsNew(clone)));
+		assertEquals(before, assertSameAsNew(filter));
+
+		Parameters params = makeParameters(3);
+		params.maxPFDR = 0.015;
+		clone.setParameters(params);
+		assertFalse(before.equals(assertSameAsNew(clone)));
+		assertEquals(before, assertSameAsNew(filter));
+
+		clone.setGoTree(flatTree);
+		assertSameAsNew(clone, flatTree, model);
+		assertEquals(before, assertSameAsNew(filter));
+
+		filter.setParameters(makeParameters(2));
+		assertSameAsNew(filter);
+		assertSameAsNew(clone, flatTree, model);
+	}
+}
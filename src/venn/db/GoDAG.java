@@ -3,118 +3,33 @@
  */
 package venn.db;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeSet;
 
 
+/**
+ * The sub-DAG of the GO tree induced by a set of GO terms: a term has an edge
+ * to each term of the set which is reachable by paths whose inner terms are not
+ * in the set. The edges to the parents hold the lengths of all these paths, the
+ * edges to the children the shortest length.
+ *
+ * The nodes are numbered in the order of their GO IDs, the edges are stored as
+ * rows of node indices with the distances as bitsets (bit d for distance d).
+ */
 public class GoDAG {
+	/**
+	 * Maximum length of a path (the distances are stored as bits of a long).
+	 */
+	public static final int MAX_DISTANCE = 63;
+
 	public static class Node implements Comparable<Node> {
 		public Long val;
-		private Set<Edge> parents = new TreeSet<Edge>();
-		private Set<Edge> children = new TreeSet<Edge>();
-		private boolean visited;
-		private int cachedDistance = -1;
-		private Set<Edge> cachedChildren;
-		private boolean previousFiltered;
-		private boolean distanceFiltered;
-		
+
 		public Node(Long val) {
 			this.val = val;
 		}
-		
-		public void reset() {
-			visited = false;
-			cachedDistance = -1;
-			previousFiltered = false;
-			distanceFiltered = false;
-			cachedChildren = null;
-		}
-
-		public Set<Edge> getChildren() {
-			if (cachedChildren != null) {
-				return cachedChildren;
-			}
-			if (children.isEmpty()) {
-				cachedChildren = Collections.emptySet();
-				return cachedChildren;
-			}
 
-			
-			boolean f = false;
-			for (Edge edgeToChild : children) {
-				if (edgeToChild.otherNode.previousFiltered) {
-					f = true;
-					break;
-				}
-			}
-			if (! f) {
-				cachedChildren = children;
-				return children;
-			}
-			
-			Set<Edge> res = new TreeSet<Edge>();
-			
-			for (Edge edgeToChild : children) {
-				if (edgeToChild.otherNode.previousFiltered) {
-					Set<Edge> children2 = edgeToChild.otherNode.getChildren();
-					
-					for (Edge edgeToChild2 : children2) {
-						Set<Integer> newDistances = new TreeSet<Integer>();
-						for (Integer child2dist : edgeToChild2.distanceToOtherNode) {
-							for (Integer childdist : edgeToChild.distanceToOtherNode) {
-								newDistances.add(child2dist + childdist); 
-							}
-						}
-						boolean found = false;
-						for (Edge r : res) {
-							if (r.otherNode.equals(edgeToChild2.otherNode)) {
-								assert ! found;
-								r.distanceToOtherNode.addAll(newDistances);
-								found = true;
-								break;
-							}
-						}
-						if (! found) {
-							Edge combinedEdge = new Edge(edgeToChild2.otherNode, newDistances);
-							assert ! res.contains(combinedEdge);
-							res.add(combinedEdge);
-						}
-					}
-				} else {
-					boolean found = false;
-					for (Edge r : res) {
-						if (r.otherNode.equals(edgeToChild.otherNode)) {
-							assert ! found;
-							r.distanceToOtherNode.addAll(edgeToChild.distanceToOtherNode);
-							found = true;
-							break;
-						}
-					}
-					if (! found) {
-						assert ! res.contains(edgeToChild);
-						Set<Integer> distances = new TreeSet<Integer>();
-						distances.addAll(edgeToChild.distanceToOtherNode);
-						Edge edge = new Edge(edgeToChild.otherNode, distances);
-						res.add(edge);
-					}
-				}
-			}
-			
-//			for (DAG.Edge e1 : children) {
-//				for (DAG.Edge e2 : res) {
-//					if (e1 == e2) throw new RuntimeException();
-//					if (e1.distanceToOtherNode == e2.distanceToOtherNode) throw new RuntimeException();
-//				}
-//			}
-
-			cachedChildren = res;
-			return res;
-		}
-		
 		/* (non-Javadoc)
 		 * @see java.lang.Object#equals(java.lang.Object)
 		 */
@@ -128,7 +43,7 @@ public class GoDAG {
 			}
 			return val.equals(((Node)obj).val);
 		}
-		
+
 		/* (non-Javadoc)
 		 * @see java.lang.Object#hashCode()
 		 */
@@ -136,7 +51,7 @@ public class GoDAG {
 		public int hashCode() {
 			return val.hashCode();
 		}
-		
+
 		/* (non-Javadoc)
 		 * @see java.lang.Comparable#compareTo(java.lang.Object)
 		 */
@@ -149,44 +64,38 @@ public class GoDAG {
 		 */
 		@Override
 		public String toString() {
-			return "val: " + val + " #parents: " + parents.size() + " #children: " + children.size() + " visited: "
-			+ visited + " cachedDistance: " + cachedDistance + " previousFiltered: " + previousFiltered
-			+ " distanceFiltered: " + distanceFiltered;
+			return "val: " + val;
 		}
 
 	}
-	
+
 	public static class Edge implements Comparable<Edge> {
 		public Node otherNode;
 		public Set<Integer> distanceToOtherNode;
-		
+
 		public Edge(Node otherNode, int distanceToOtherNode) {
 			assert otherNode != null;
-			
+
 			this.otherNode = otherNode;
 			this.distanceToOtherNode = new TreeSet<Integer>();
 			this.distanceToOtherNode.add(distanceToOtherNode);
 		}
-	
+
 		public Edge(Node otherNode, Set<Integer> distancesToOtherNodes) {
 			assert otherNode != null;
-			
+
 			this.otherNode = otherNode;
 			this.distanceToOtherNode = distancesToOtherNodes;
 		}
-	
+
 		/* (non-Javadoc)
 		 * @see java.lang.Object#equals(java.lang.Object)
 		 */
 		@Override
 		public boolean equals(Object obj) {
-//			if (obj == null || ! getClass().equals(obj.getClass())) {
-//				return false;
-//			}
-//			return otherNode.equals(((Edge) obj).otherNode);
 			return otherNode.val.equals(((Edge) obj).otherNode.val);
 		}
-		
+
 		/* (non-Javadoc)
 		 * @see java.lang.Object#hashCode()
 		 */
@@ -194,14 +103,14 @@ public class GoDAG {
 		public int hashCode() {
 			return otherNode.hashCode();
 		}
-		
+
 		/* (non-Javadoc)
 		 * @see java.lang.Comparable#compareTo(java.lang.Object)
 		 */
 		public int compareTo(Edge o) {
 			return otherNode.compareTo(o.otherNode);
 		}
-		
+
 		/* (non-Javadoc)
 		 * @see java.lang.Object#toString()
 		 */
@@ -212,292 +121,345 @@ public class GoDAG {
 
 	}
 
-	private Set<Long> vals = new HashSet<Long>();
-	private Set<Node> nodes = new HashSet<Node>();
-	private Map<Long, Node> valsToNodes = new HashMap<Long, Node>();
-	private Set<Node> roots;
-	private GoTree goTree;
-	
-	
+	private long[] vals;		// GO IDs of the nodes (ascending)
+	private Node[] nodes;
+	private int[] parentStart,	// edges to the parents of node i: parentStart[i]..parentStart[i+1]-1
+				  parentNode,
+				  childStart,	// edges to the children of node i: childStart[i]..childStart[i+1]-1
+				  childNode;
+	private long[] parentDist,	// bitsets of the distances
+				   childDist;
+	private int[] order;		// the children before their parents
+
+	// filter state
+	private boolean[] previousFiltered,
+					  distanceFiltered;
+	private int[] cachedDistance;
+	private int[][] passNode,	// shortest distances of a filtered node to its unfiltered descendants
+					passDist;
+	private int[] effNode,		// scratch: unfiltered descendants of the current node
+				  effDist;		// scratch: their shortest distances (-1 if not reached)
+
+
 	public GoDAG(GoTree goTree, Set<Long> vals) {
-		this.goTree = goTree;
+		final int n = vals.size();
+		this.vals = new long[n];
+		int k = 0;
 		for (Long val : vals) {
-			this.vals.add(val);
-			Node newNode = new Node(val);
-			this.nodes.add(newNode);
-			this.valsToNodes.put(val, newNode);
+			this.vals[k++] = val.longValue();
 		}
-		makeDAG(vals);
-	}
-	
-	private void makeDAG(Set<Long> GoIds) {
-		for (Long node : GoIds) {
-			_makeDAG(node, GoIds);
+		Arrays.sort(this.vals);
+		nodes = new Node[n];
+		for (int i = 0; i < n; i++) {
+			nodes[i] = new Node(Long.valueOf(this.vals[i]));
 		}
-		
-		makeRoots();
+		makeDAG(goTree);
+
+		previousFiltered = new boolean[n];
+		distanceFiltered = new boolean[n];
+		cachedDistance = new int[n];
+		passNode = new int[n][];
+		passDist = new int[n][];
+		effNode = new int[n];
+		effDist = new int[n];
+		Arrays.fill(effDist, -1);
 	}
-	
-	private void _makeDAG(Long GoID, Set<Long> GoIDs) {
-		Set<Long> valsOnActLevel = new HashSet<Long>();
-		valsOnActLevel.add(GoID);
-		Node node = valsToNodes.get(GoID);
-		assert node.val.equals(GoID);
-		
-		int distance = 0;
-		while (true) {
-			distance++;
-			Set<Long> parentVals = getParentNodes(valsOnActLevel);
-			if (parentVals.isEmpty()) {
-				return;
+
+	/**
+	 * Collects the edges of all nodes in one sweep over the ancestors of the
+	 * nodes in the GO tree (parents before children).
+	 */
+	private void makeDAG(GoTree goTree) {
+		final int n = vals.length;
+		final int size = goTree.size();
+
+		// GO tree node -> DAG node
+		int[] dagNode = new int[size];
+		Arrays.fill(dagNode, -1);
+		int[] treeNode = new int[n];
+		for (int i = 0; i < n; i++) {
+			treeNode[i] = goTree.indexOf(vals[i]);
+			if (treeNode[i] >= 0) {
+				dagNode[treeNode[i]] = i;
 			}
-			Set<Long> destVals = getSetIntersection(parentVals, GoIDs);
-			for (Long destVal : destVals) {
-				Node destNode = valsToNodes.get(destVal);
-				assert ! GoID.equals(destNode.val);
-
-				{
-					Set<Edge> edgesToParents = node.parents;
-					Edge edgeToDestNode = null;
-					for (Edge edgeToParent : edgesToParents) {
-						if (edgeToParent.otherNode.val.equals(destNode.val)) {
-							assert edgeToDestNode == null;
-							edgeToDestNode = edgeToParent;
-						}
-					}
-					if (edgeToDestNode == null) {
-						edgeToDestNode = new Edge(destNode, distance);
-						node.parents.add(edgeToDestNode);
-					} else {
-						for (Integer dist : edgeToDestNode.distanceToOtherNode) {
-							assert dist < distance;
-						}
-						edgeToDestNode.distanceToOtherNode.add(distance);
-					}
+		}
+
+		// ancestors of the nodes
+		boolean[] induced = new boolean[size];
+		int[] stack = new int[size];
+		int top = 0;
+		for (int i = 0; i < n; i++) {
+			if (treeNode[i] >= 0 && ! induced[treeNode[i]]) {
+				induced[treeNode[i]] = true;
+				stack[top++] = treeNode[i];
+			}
+		}
+		int numInduced = top;
+		while (top > 0) {
+			final int t = stack[--top];
+			for (int k = 0; k < goTree.getNumParents(t); k++) {
+				final int p = goTree.getParent(t, k);
+				if (! induced[p]) {
+					induced[p] = true;
+					stack[top++] = p;
+					numInduced++;
 				}
-//				DAG.Edge edgeToParent = new DAG.Edge(destNode, distance);
-//				boolean otherEdgeFound = false;
-//				for (DAG.Edge e : node.parents) {
-//					if (e.otherNode.equals(edgeToParent.otherNode)) {
-//						assert e.distanceToOtherNode < edgeToParent.distanceToOtherNode;
-//						otherEdgeFound = true;
-//					}
-//				}
-//				if (! otherEdgeFound) {
-//					// only use edge with lowest distance
-//					node.parents.add(edgeToParent);
-//				}
-
-				{
-					Set<Edge> edgesFromParents = node.parents;
-					Edge edgeFromDestNode = null;
-					for (Edge edgeFromParent : edgesFromParents) {
-						if (edgeFromParent.otherNode.val.equals(node.val)) {
-							assert edgeFromDestNode == null;
-							edgeFromDestNode = edgeFromParent;
-						}
+			}
+		}
+
+		// topological order of the ancestors, parents first
+		int[] sweep = new int[numInduced],
+			  numOpen = new int[size];
+		int num = 0;
+		for (int t = 0; t < size; t++) {
+			if (induced[t]) {
+				numOpen[t] = goTree.getNumParents(t);
+				if (numOpen[t] == 0) {
+					sweep[num++] = t;
+				}
+			}
+		}
+		for (int s = 0; s < num; s++) {
+			final int t = sweep[s];
+			for (int k = 0; k < goTree.getNumChildren(t); k++) {
+				final int c = goTree.getChild(t, k);
+				if (induced[c] && --numOpen[c] == 0) {
+					sweep[num++] = c;
+				}
+			}
+		}
+		assert num == numInduced;
+
+		// reached DAG nodes of each ancestor: paths over terms not in the DAG
+		int[][] reachNode = new int[size][];
+		long[][] reachDist = new long[size][];
+		long[] mask = new long[n];
+		int[] touched = new int[n];
+		for (int s = 0; s < num; s++) {
+			final int t = sweep[s];
+			int numTouched = 0;
+			for (int k = 0; k < goTree.getNumParents(t); k++) {
+				final int p = goTree.getParent(t, k);
+				if (dagNode[p] >= 0) {
+					if (mask[dagNode[p]] == 0) {
+						touched[numTouched++] = dagNode[p];
 					}
-					if (edgeFromDestNode == null) {
-						edgeFromDestNode = new Edge(node, distance);
-						destNode.children.add(edgeFromDestNode);
-					} else {
-						for (Integer dist : edgeFromDestNode.distanceToOtherNode) {
-							assert dist < distance;
+					mask[dagNode[p]] |= 1L << 1;
+				} else {
+					for (int e = 0; e < reachNode[p].length; e++) {
+						final int a = reachNode[p][e];
+						if (reachDist[p][e] < 0) {
+							throw new IllegalStateException("GO path longer than " + MAX_DISTANCE);
 						}
-						edgeFromDestNode.distanceToOtherNode.add(distance);
+						if (mask[a] == 0) {
+							touched[numTouched++] = a;
+						}
+						mask[a] |= reachDist[p][e] << 1;
 					}
 				}
+			}
+			Arrays.sort(touched, 0, numTouched);
+			reachNode[t] = Arrays.copyOf(touched, numTouched);
+			reachDist[t] = new long[numTouched];
+			for (int e = 0; e < numTouched; e++) {
+				reachDist[t][e] = mask[touched[e]];
+				mask[touched[e]] = 0;
+			}
+		}
 
-//				otherEdgeFound = false;
-//				DAG.Edge edgeFromParent = new DAG.Edge(node, distance);
-//				for (DAG.Edge e : destNode.children) {
-//					if (e.otherNode.equals(edgeFromParent.otherNode)) {
-//						assert e.distanceToOtherNode < edgeFromParent.distanceToOtherNode;
-//						otherEdgeFound = true;
-//					}
-//				}
-//				if (! otherEdgeFound) {
-//					destNode.children.add(edgeFromParent);
-//				}
+		// edges to the parents
+		parentStart = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			parentStart[i + 1] = parentStart[i] + (treeNode[i] >= 0 ? reachNode[treeNode[i]].length : 0);
+		}
+		parentNode = new int[parentStart[n]];
+		parentDist = new long[parentStart[n]];
+		childStart = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			if (treeNode[i] >= 0) {
+				System.arraycopy(reachNode[treeNode[i]], 0, parentNode, parentStart[i], reachNode[treeNode[i]].length);
+				System.arraycopy(reachDist[treeNode[i]], 0, parentDist, parentStart[i], reachDist[treeNode[i]].length);
+			}
+			for (int e = parentStart[i]; e < parentStart[i + 1]; e++) {
+				childStart[parentNode[e] + 1]++;
 			}
-			parentVals.removeAll(destVals);
-			valsOnActLevel = parentVals;
 		}
-		
-	}
 
-	private Set<Long> getParentNodes(Set<Long> vals) {
-		Set<Long> res = new TreeSet<Long>();
-		
-		for (Long node : vals) {
-			Set<Long> parents = goTree.getParentsOf(node);
-			if (parents != null) {
-				res.addAll(parents);
+		// edges to the children with the shortest distance
+		for (int i = 0; i < n; i++) {
+			childStart[i + 1] += childStart[i];
+		}
+		childNode = new int[childStart[n]];
+		childDist = new long[childStart[n]];
+		int[] pos = Arrays.copyOf(childStart, n);
+		for (int i = 0; i < n; i++) {
+			for (int e = parentStart[i]; e < parentStart[i + 1]; e++) {
+				final int c = pos[parentNode[e]]++;
+				childNode[c] = i;
+				childDist[c] = Long.lowestOneBit(parentDist[e]);
 			}
 		}
-		
-		return res;
-	}
-	
-	private Set<Long> getSetIntersection(Set<Long> set1, Set<Long> set2) {
-		Set<Long> res = new TreeSet<Long>();
-		
-		for (Long el : set1) {
-			if (set2.contains(el)) {
-				res.add(el);
+
+		// the sweep visits the nodes in the GO tree, the others have no edges
+		order = new int[n];
+		int o = n;
+		for (int s = 0; s < num; s++) {
+			if (dagNode[sweep[s]] >= 0) {
+				order[--o] = dagNode[sweep[s]];
 			}
 		}
-		
-		return res;
+		for (int i = 0; i < n; i++) {
+			if (treeNode[i] < 0) {
+				order[--o] = i;
+			}
+		}
+		assert o == 0;
 	}
-	
+
+	/**
+	 * Marks the nodes which have a path of length &lt; minDistance to all their
+	 * leaves (only nodes not filtered before).
+	 *
+	 * @param previousFilteredVals nodes filtered before, the paths lead through them
+	 * @param minDistance
+	 */
 	public void filter(Set<Long> previousFilteredVals, int minDistance) {
 		setFiltered(previousFilteredVals);
-		Set<Node> roots = getRoots();
-		
-		for (Node node : roots) {
-			_filter(node, minDistance);
-		}
-	}
-	
-	private int _filter(Node node, final int minDistance) {
-		assert ! (node.previousFiltered && node.parents.size() > 0);
 
-		if (node.visited) {
-			return node.cachedDistance;
+		// the children are visited before their parents
+		for (int k = 0; k < order.length; k++) {
+			_filter(order[k], minDistance);
 		}
+	}
 
-		
-		Set<Edge> edgesToChildren = node.getChildren();
-		for (Edge e : edgesToChildren) {
-			assert ! (e.otherNode.previousFiltered);
-		}
-		
-		if (edgesToChildren.isEmpty()) {
-			// node is a leaf
-			node.visited = true;
-			node.cachedDistance = 0;
-			return node.cachedDistance;
-		}
-		
-		if (edgesToChildren.size() == 1) {
-			final Edge edgeToChild = edgesToChildren.iterator().next();
-			final int distance = _filter(edgeToChild.otherNode, minDistance);
-			assert distance >= 0;
-			node.visited = true;
-			final int complDistance = Collections.min(edgeToChild.distanceToOtherNode) + distance;
-
-			if (complDistance < minDistance) {
-				if (! node.previousFiltered) node.distanceFiltered = true;
-				node.cachedDistance = complDistance;
+	private void _filter(int node, final int minDistance) {
+		// shortest distances to the unfiltered descendants (paths over filtered ones)
+		int num = 0;
+		for (int e = childStart[node]; e < childStart[node + 1]; e++) {
+			final int c = childNode[e];
+			final int d = Long.numberOfTrailingZeros(childDist[e]);
+			if (! previousFiltered[c]) {
+				num = relax(num, c, d);
 			} else {
-				node.cachedDistance = 0;
+				for (int k = 0; k < passNode[c].length; k++) {
+					num = relax(num, passNode[c][k], d + passDist[c][k]);
+				}
 			}
-
-			return node.cachedDistance;
 		}
-		
-		assert edgesToChildren.size() > 1;
+
 		int maxDist = -1;
-//		int minDist = -1;
-		for (Edge edgeToChild : edgesToChildren) {
-			final int distance = _filter(edgeToChild.otherNode, minDistance);
-			assert distance >= 0;
-			final int complDistance = Collections.min(edgeToChild.distanceToOtherNode) + distance;
-			if (maxDist == -1 || complDistance > maxDist) {
-				maxDist = complDistance;
+		for (int k = 0; k < num; k++) {
+			final int c = effNode[k];
+			maxDist = Math.max(maxDist, effDist[c] + cachedDistance[c]);
+		}
+
+		if (previousFiltered[node] && parentStart[node] < parentStart[node + 1]) {
+			passNode[node] = Arrays.copyOf(effNode, num);
+			passDist[node] = new int[num];
+			for (int k = 0; k < num; k++) {
+				passDist[node][k] = effDist[effNode[k]];
 			}
-//			if (minDist == -1 || complDistance < minDist) {
-//				minDist = complDistance;
-//			}
-		}
-		node.visited = true;
-		assert maxDist > 0;
-//		assert minDist > 0;
-		if (maxDist < minDistance) {
-			if (! node.previousFiltered) node.distanceFiltered = true;
-			node.cachedDistance = maxDist;
+		}
+		for (int k = 0; k < num; k++) {
+			effDist[effNode[k]] = -1;
+		}
+
+		if (num == 0) {
+			// node is a leaf
+			cachedDistance[node] = 0;
+		} else if (maxDist < minDistance) {
+			assert maxDist > 0;
+			if (! previousFiltered[node]) distanceFiltered[node] = true;
+			cachedDistance[node] = maxDist;
 		} else {
-			node.cachedDistance = 0;
+			cachedDistance[node] = 0;
 		}
+	}
 
-		return node.cachedDistance;
+	private int relax(int num, int node, int dist) {
+		if (effDist[node] < 0) {
+			effNode[num++] = node;
+			effDist[node] = dist;
+		} else if (dist < effDist[node]) {
+			effDist[node] = dist;
+		}
+		return num;
 	}
-	
+
 	public void reset() {
-		assert nodes.size() == vals.size();
+		Arrays.fill(previousFiltered, false);
+		Arrays.fill(distanceFiltered, false);
+		Arrays.fill(cachedDistance, 0);
+		Arrays.fill(passNode, null);
+		Arrays.fill(passDist, null);
+	}
 
-		for (Node n : nodes) {
-			n.reset();
-		}
+	private int getNode(Long val) {
+		final int i = Arrays.binarySearch(vals, val.longValue());
+		return i >= 0 ? i : -1;
 	}
 
-	private Node getNode(Long val) {
-		return valsToNodes.get(val);
+	private static Set<Integer> distances(long bits) {
+		Set<Integer> res = new TreeSet<Integer>();
+		for (; bits != 0; bits &= bits - 1) {
+			res.add(Long.numberOfTrailingZeros(bits));
+		}
+		return res;
 	}
-	
+
 	public Set<Edge> getEdgesToParents(Long val) {
-		assert vals.contains(val);
-		Node n = valsToNodes.get(val);
-		return n.parents;
+		final int n = getNode(val);
+		assert n >= 0;
+		Set<Edge> res = new TreeSet<Edge>();
+		for (int e = parentStart[n]; e < parentStart[n + 1]; e++) {
+			res.add(new Edge(nodes[parentNode[e]], distances(parentDist[e])));
+		}
+		return res;
 	}
-	
+
 	public  Set<Edge> getEdgesToChildren(Long val) {
-		assert vals.contains(val);
-		Node n = valsToNodes.get(val);
-		return n.children;
+		final int n = getNode(val);
+		assert n >= 0;
+		Set<Edge> res = new TreeSet<Edge>();
+		for (int e = childStart[n]; e < childStart[n + 1]; e++) {
+			res.add(new Edge(nodes[childNode[e]], distances(childDist[e])));
+		}
+		return res;
 	}
-	
+
 	private void setFiltered(Set<Long> prevFilteredVals) {
 		reset();
 
-		for (Long val : prevFilteredVals) {
-			if (! vals.contains(val)) {
-				System.err.println("warning: goID " + val + " not in obo.out");
-			}
-		}
-		
-		for (Node node : this.nodes) {
-			assert ! node.previousFiltered;
-			assert ! node.distanceFiltered;
-		}
-
 		for (Long prevFilteredNode : prevFilteredVals) {
-			Node node = valsToNodes.get(prevFilteredNode);
-			if (node != null) {
-				node.previousFiltered = true;
+			final int node = getNode(prevFilteredNode);
+			if (node >= 0) {
+				previousFiltered[node] = true;
+			} else {
+				System.err.println("warning: goID " + prevFilteredNode + " not in obo.out");
 			}
 		}
 	}
 
-	private void makeRoots() {
-		assert nodes.size() == vals.size();
-		assert roots == null;
-		
-		roots = new TreeSet<Node>();
-
-		for (Node n: nodes) {
-			if (n.parents == null || n.parents.isEmpty()) {
-				roots.add(n);
+	public Set<Node> getRoots() {
+		Set<Node> roots = new TreeSet<Node>();
+		for (int i = 0; i < vals.length; i++) {
+			if (parentStart[i] == parentStart[i + 1]) {
+				roots.add(nodes[i]);
 			}
 		}
-	}
-
-	public Set<Node> getRoots() {
-		assert roots != null;
 		return roots;
 	}
-	
+
 	public Set<Long> getDistanceFiltered() {
 		Set<Long> res = new TreeSet<Long>();
-		
-		for (Node node : nodes) {
-			assert ! (node.previousFiltered && node.distanceFiltered);
-			if (node.distanceFiltered) {
-				res.add(node.val);
+
+		for (int i = 0; i < vals.length; i++) {
+			assert ! (previousFiltered[i] && distanceFiltered[i]);
+			if (distanceFiltered[i]) {
+				res.add(nodes[i].val);
 			}
 		}
-		
+
 		return res;
 	}
 
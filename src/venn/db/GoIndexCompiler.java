@@ -0,0 +1,48 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.db;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import venn.geometry.FileFormatException;
+
+/**
+ * Compiles the GO parent relation (obo.out) into the binary index which is 
+ * loaded at startup (see {@link GoTree#readIndex(java.io.InputStream)}).
+ * 
+ * Usage: GoIndexCompiler obo.out obo.idx
+ */
+public class GoIndexCompiler
+{
+	public static void main(String argv[])
+	{
+		if( argv.length != 2 )
+		{
+			System.err.println("usage: GoIndexCompiler <obo.out> <obo.idx>");
+			System.exit(1);
+		}
+		
+		GoTree tree = new GoTree();
+		try {
+			tree.loadFromFile(argv[0]);
+			OutputStream out = new FileOutputStream(argv[1]);
+			try {
+				tree.writeIndex(out);
+			}
+			finally {
+				out.close();
+			}
+		} catch (FileFormatException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+		System.out.println(tree.size()+" GO terms written to "+argv[1]);
+	}
+}
@@ -1,18 +1,38 @@
 package venn.db;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.LineNumberReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import venn.geometry.FileFormatException;
 
+/**
+ * The parent relation of the GO terms.
+ * 
+ * The terms are stored as compressed sparse rows: the nodes are numbered in the 
+ * order of their GO IDs, the parents of node i are 
+ * parents[parentStart[i]..parentStart[i+1]) and the children of node i are
+ * children[childStart[i]..childStart[i+1]) (both sorted by GO ID).
+ * 
+ * The tree is either read from the text format (one line per term: the term
+ * followed by its parents, separated by tabs) or from the binary index which
+ * is compiled from the text format at build time (see {@link #writeIndex(OutputStream)}).
+ */
 public class GoTree
 {
 	
@@ -36,28 +56,117 @@ public class GoTree
 		NONE, NODE1, NODE2
 	}
 	
-	private Map<Long, Set<Long>> parentOf;
+	// magic number ("GOIX") and version of the binary index
+	private static final int INDEX_MAGIC = 0x474F4958,
+							 INDEX_VERSION = 1;
 	
+	private long[]	ids;			// GO ID of each node (ascending)
+	private int[]	parentStart,	// parents of node i: parents[parentStart[i]..parentStart[i+1])
+					parents,
+					childStart,		// children of node i: children[childStart[i]..childStart[i+1])
+					children;
 	
 
 	public void clear()
 	{
-		if( parentOf != null )
-		{
-			parentOf.clear();
-		}
+		ids = new long[0];
+		parentStart = new int[1];
+		parents = new int[0];
+		childStart = new int[1];
+		children = new int[0];
+		ancestorIndex = null;
 	}
 	
 	public GoTree()
 	{
-		parentOf = new TreeMap<Long,Set<Long> >();
+		clear();
 	}
 	
 
+	/**
+	 * 
+	 * @param goID
+	 * @return The parents of the term (sorted) or null if the term has no parents.
+	 * The set is a read-only view of the tree.
+	 */
 	public Set<Long> getParentsOf(Long goID) {
-		return parentOf.get(goID);
+		int node = indexOf(goID.longValue());
+		if( node < 0 || parentStart[node] == parentStart[node+1] )
+		{
+			return null;
+		}
+		return new NodeSet(parents,parentStart[node],parentStart[node+1]);
+	}
+	
+	/**
+	 * 
+	 * @return The number of terms (terms with parents and parents without own parents).
+	 */
+	public int size()
+	{
+		return ids.length;
+	}
+	
+	/**
+	 * 
+	 * @param goID
+	 * @return The index of the node of the term or -1.
+	 */
+	public int indexOf(long goID)
+	{
+		int node = Arrays.binarySearch(ids,goID);
+		return node >= 0 ? node : -1;
+	}
+	
+	/**
+	 * 
+	 * @param node index of a node
+	 * @return The GO ID of the node.
+	 */
+	public long getID(int node)
+	{
+		return ids[node];
+	}
+	
+	public int getNumParents(int node)
+	{
+		return parentStart[node+1] - parentStart[node];
+	}
+	
+	/**
+	 * 
+	 * @param node
+	 * @param k
+	 * @return The index of the k-th parent of the node.
+	 */
+	public int getParent(int node, int k)
+	{
+		return parents[parentStart[node] + k];
+	}
+	
+	public int getNumChildren(int node)
+	{
+		return childStart[node+1] - childStart[node];
 	}
 	
+	/**
+	 * 
+	 * @param node
+	 * @param k
+	 * @return The index of the k-th child of the node.
+	 */
+	public int getChild(int node, int k)
+	{
+		return children[childStart[node] + k];
+	}
+	
+	/**
+	 * Reads the text format.
+	 * 
+	 * @param reader
+	 * @throws IOException
+	 * @throws FileFormatException
+	 */
 	public void read(Reader reader)
 	throws IOException, FileFormatException
 	{
@@ -65,52 +174,134 @@ public class GoTree
 
 		LineNumberReader in = new LineNumberReader(reader);
 
+		// (child, parent) pairs
+		long[] child = new long[1024],
+			   parent = new long[1024];
+		int num = 0;
+		
+		long[] L = new long[16];
 		String line;
 		while( (line = in.readLine()) != null )
 		{
 			line = line.trim();
 
-			if( line.length() > 0 )
+			// split at tabs
+			int n = 0;
+			for( int start=0; start<line.length(); )
 			{
-				String[] L = line.split("\t");
+				int end = line.indexOf('\t',start);
+				if( end < 0 )
+					end = line.length();
+				
+				if( n == L.length )
+					L = Arrays.copyOf(L,2*n);
+				L[n++] = parseID(line,start,end);
+				start = end + 1;
+			}
 
-				if( L.length > 1 )
+			if( n > 1 )
+			{
+				if( num + n > child.length )
 				{
-					long[] ids = new long[L.length];
-					for( int i=0; i<L.length; ++i )
-					{
-						if( L[i].startsWith("GO:") )
-						{
-							L[i] = L[i].substring(3);
-						}
-						ids[i] = Long.parseLong(L[i]);
-					}
-					insertNode(ids);
+					child = Arrays.copyOf(child,2*(num+n));
+					parent = Arrays.copyOf(parent,2*(num+n));
+				}
+				for( int i=1; i<n; ++i )
+				{
+					child[num] = L[0];
+					parent[num] = L[i];
+					++num;
 				}
 			}
 		}
+		build(child,parent,num);
 	}
-
-	private void insertNode( long[] ids ) 
+	
+	/**
+	 * 
+	 * @return The number in line[start..end) without the prefix "GO:".
+	 */
+	private static long parseID(String line, int start, int end)
 	{
-		if( ids.length > 0 )
+		if( line.startsWith("GO:",start) )
 		{
-			Set<Long> L = null;
-			final Long key = new Long(ids[0]);
-			if( parentOf.containsKey( key ) )
-			{
-				L = parentOf.get( key );
-			}
-			else
+			start += 3;
+		}
+		return Long.parseLong(line.substring(start,end));
+	}
+	
+	/**
+	 * Creates the node arrays from (child, parent) pairs.
+	 */
+	private void build(long[] child, long[] parent, int num)
+	{
+		// all terms
+		long[] all = new long[2*num];
+		System.arraycopy(child,0,all,0,num);
+		System.arraycopy(parent,0,all,num,num);
+		Arrays.sort(all);
+		int n = 0;
+		for( int i=0; i<all.length; ++i )
+		{
+			if( n == 0 || all[i] != all[n-1] )
+				all[n++] = all[i];
+		}
+		ids = Arrays.copyOf(all,n);
+		
+		// edges as node indices, sorted by child and parent (removes duplicate lines)
+		long[] edges = new long[num];
+		for( int k=0; k<num; ++k )
+		{
+			edges[k] = ((long)indexOf(child[k]) << 32) | indexOf(parent[k]);
+		}
+		Arrays.sort(edges);
+		int m = 0;
+		for( int k=0; k<num; ++k )
+		{
+			if( m == 0 || edges[k] != edges[m-1] )
+				edges[m++] = edges[k];
+		}
+		
+		parentStart = new int[n+1];
+		parents = new int[m];
+		for( int k=0; k<m; ++k )
+		{
+			++parentStart[(int)(edges[k] >>> 32) + 1];
+			parents[k] = (int)edges[k];
+		}
+		for( int i=0; i<n; ++i )
+		{
+			parentStart[i+1] += parentStart[i];
+		}
+		buildChildren();
+	}
+	
+	/**
+	 * Inverts the parent relation.
+	 */
+	private void buildChildren()
+	{
+		int n = ids.length;
+		childStart = new int[n+1];
+		children = new int[parents.length];
+		for( int k=0; k<parents.length; ++k )
+		{
+			++childStart[parents[k] + 1];
+		}
+		for( int i=0; i<n; ++i )
+		{
+			childStart[i+1] += childStart[i];
+		}
+		// the children of each node are sorted because the nodes are visited in order
+		int[] pos = Arrays.copyOf(childStart,n);
+		for( int i=0; i<n; ++i )
+		{
+			for( int k=parentStart[i]; k<parentStart[i+1]; ++k )
 			{
-				L = new TreeSet<Long>();
+				children[pos[parents[k]]++] = i;
 			}
-			for( int i=1; i<ids.length; ++i )
-			{
-				L.add( new Long(ids[i]) );
-			}			
-			parentOf.put( key, L );
 		}
+		ancestorIndex = null;
 	}
 
 	public void loadFromFile(String fileName)
@@ -119,9 +310,84 @@ public class GoTree
 		read(new FileReader(fileName));
 	}
 	
+	/**
+	 * Writes the binary index of the tree (GO IDs and parent rows).
+	 * 
+	 * @param stream
+	 * @throws IOException
+	 */
+	public void writeIndex(OutputStream stream)
+	throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(INDEX_MAGIC);
+		out.writeInt(INDEX_VERSION);
+		out.writeInt(ids.length);
+		for( int i=0; i<ids.length; ++i )
+		{
+			out.writeLong(ids[i]);
+		}
+		out.writeInt(parents.length);
+		for( int i=1; i<parentStart.length; ++i )
+		{
+			out.writeInt(parentStart[i]);
+		}
+		for( int k=0; k<parents.length; ++k )
+		{
+			out.writeInt(parents[k]);
+		}
+		out.flush();
+	}
+	
+	/**
+	 * Reads the binary index (see {@link #writeIndex(OutputStream)}).
+	 * 
+	 * @param stream
+	 * @throws IOException
+	 * @throws FileFormatException if the stream is no index
+	 */
+	public void readIndex(InputStream stream)
+	throws IOException, FileFormatException
+	{
+		clear();
+		
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		if( in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION )
+		{
+			throw new FileFormatException("unknown GO index format");
+		}
+		int n = in.readInt();
+		long[] ids = new long[n];
+		for( int i=0; i<n; ++i )
+		{
+			ids[i] = in.readLong();
+		}
+		int m = in.readInt();
+		int[] parentStart = new int[n+1];
+		for( int i=1; i<=n; ++i )
+		{
+			parentStart[i] = in.readInt();
+		}
+		int[] parents = new int[m];
+		for( int k=0; k<m; ++k )
+		{
+			parents[k] = in.readInt();
+		}
+		if( parentStart[n] != m )
+		{
+			throw new FileFormatException("corrupt GO index");
+		}
+		
+		this.ids = ids;
+		this.parentStart = parentStart;
+		this.parents = parents;
+		buildChildren();
+	}
+	
 	private boolean nodeExists( Long node )
 	{
-		return parentOf.containsKey(node);
+		int idx = indexOf(node.longValue());
+		return idx >= 0 && getNumParents(idx) > 0;
 	}
 	
 	private List< Set<Long> > getPathTo( Long node )
@@ -141,7 +407,7 @@ public class GoTree
 			Set<Long> parents = new TreeSet<Long>();
 			for( Long P : cutLine )
 			{
-				Set<Long> par = parentOf.get(P);
+				Set<Long> par = getParentsOf(P);
 				if( par != null )
 				{
 					parents.addAll( par );
@@ -161,77 +427,212 @@ public class GoTree
 		return L;
 	}
 	
-	private boolean setIntersects( Set<Long> S1, Set<Long> S2 )
+	/**
+	 * The ancestors of all nodes with their distances, built on the first distance query.
+	 * 
+	 * The path to a node (see getPathTo) contains an ancestor in every level which is
+	 * reachable by a path of this length and ends with the artificial root 0 after the
+	 * longest path. So a shared parent is first seen in the levels of its minimum distances
+	 * and the artificial root is shared at the levels after the longest paths.
+	 */
+	private static final class AncestorIndex
 	{
-		for( Long x : S1 )
+		final int[]	start,		// ancestors of node i: node[start[i]..start[i+1]) (ascending, including i)
+					node,
+					dist,		// minimum distance to the ancestor
+					rootLevel;	// level of the artificial root (longest path to a root + 1)
+		
+		AncestorIndex(int[] start, int[] node, int[] dist, int[] rootLevel)
 		{
-			if( S2.contains( x ) )
+			this.start = start;
+			this.node = node;
+			this.dist = dist;
+			this.rootLevel = rootLevel;
+		}
+	}
+	
+	private volatile AncestorIndex ancestorIndex;
+	
+	private AncestorIndex getAncestorIndex()
+	{
+		AncestorIndex index = ancestorIndex;
+		if( index == null )
+		{
+			synchronized( this )
 			{
-				return true;
+				index = ancestorIndex;
+				if( index == null )
+				{
+					index = ancestorIndex = buildAncestorIndex();
+				}
 			}
 		}
-		return false;
+		return index;
 	}
 	
-	private int findMinDistanceToSharedParent( long goID1, long goID2 )
+	/**
+	 * Merges the ancestors of the parents of each node (the parents are visited 
+	 * before their children).
+	 */
+	private AncestorIndex buildAncestorIndex()
 	{
-		int d = Integer.MAX_VALUE;
+		final int n = ids.length;
 		
-		List<Set<Long>> path1 = getPathTo( goID1 );
-		List<Set<Long>> path2 = getPathTo( goID2 );
-		
-		if( (path1==null) || (path2==null) )
+		// topological order from the roots
+		int[] order = new int[n],
+			  numOpen = new int[n];
+		int num = 0;
+		for( int i=0; i<n; ++i )
 		{
-			return -1;
+			numOpen[i] = getNumParents(i);
+			if( numOpen[i] == 0 )
+				order[num++] = i;
+		}
+		for( int k=0; k<num; ++k )
+		{
+			for( int c=childStart[order[k]]; c<childStart[order[k]+1]; ++c )
+			{
+				if( --numOpen[children[c]] == 0 )
+					order[num++] = children[c];
+			}
+		}
+		if( num < n )
+		{
+			throw new IllegalStateException("GO tree contains a cycle");
 		}
 		
-		// find shared parent with minimum distance
-		for( int i=0; i<path1.size(); ++i )
+		int[][] anc = new int[n][],
+				dist = new int[n][];
+		int[] rootLevel = new int[n],
+			  minDist = new int[n],
+			  mark = new int[n],
+			  found = new int[16];
+		Arrays.fill(mark,-1);
+		int total = 0;
+		for( int k=0; k<n; ++k )
 		{
-			for( int j=0; j<path2.size(); ++j )
+			final int x = order[k];
+			int numFound = 0;
+			found[numFound++] = x;
+			mark[x] = x;
+			minDist[x] = 0;
+			int longest = -1;
+			for( int q=parentStart[x]; q<parentStart[x+1]; ++q )
 			{
-				if( setIntersects(path1.get(i),path2.get(j)) )
+				final int p = parents[q];
+				longest = Math.max(longest,rootLevel[p] - 1);
+				for( int m=0; m<anc[p].length; ++m )
 				{
-					int dd = Math.min(i,j);
-					if( dd < d )
+					final int a = anc[p][m],
+							  d = dist[p][m] + 1;
+					if( mark[a] != x )
 					{
-						d = dd;
+						mark[a] = x;
+						minDist[a] = d;
+						if( numFound == found.length )
+							found = Arrays.copyOf(found,2*numFound);
+						found[numFound++] = a;
+					}
+					else if( d < minDist[a] )
+					{
+						minDist[a] = d;
 					}
 				}
 			}
+			rootLevel[x] = longest + 2;
+			
+			anc[x] = Arrays.copyOf(found,numFound);
+			Arrays.sort(anc[x]);
+			dist[x] = new int[numFound];
+			for( int m=0; m<numFound; ++m )
+			{
+				dist[x][m] = minDist[anc[x][m]];
+			}
+			total += numFound;
+		}
+		
+		int[] start = new int[n+1],
+			  node = new int[total],
+			  depth = new int[total];
+		for( int i=0; i<n; ++i )
+		{
+			start[i+1] = start[i] + anc[i].length;
+			System.arraycopy(anc[i],0,node,start[i],anc[i].length);
+			System.arraycopy(dist[i],0,depth,start[i],anc[i].length);
+		}
+		return new AncestorIndex(start,node,depth,rootLevel);
+	}
+	
+	/**
+	 * 
+	 * @param goID
+	 * @return The node index or -1 if the term has no parents (no path).
+	 */
+	private int pathNode( long goID )
+	{
+		int node = indexOf(goID);
+		return (node >= 0 && getNumParents(node) > 0) ? node : -1;
+	}
+	
+	private int findMinDistanceToSharedParent( long goID1, long goID2 )
+	{
+		int x = pathNode(goID1),
+			y = pathNode(goID2);
+		
+		if( (x < 0) || (y < 0) )
+		{
+			return -1;
 		}
 		
+		// find shared parent with minimum distance
+		AncestorIndex index = getAncestorIndex();
+		int d = Math.min(index.rootLevel[x],index.rootLevel[y]);
+		int i = index.start[x], ie = index.start[x+1],
+			j = index.start[y], je = index.start[y+1];
+		while( i < ie && j < je )
+		{
+			if( index.node[i] < index.node[j] )
+				++i;
+			else if( index.node[i] > index.node[j] )
+				++j;
+			else
+			{
+				d = Math.min(d,Math.min(index.dist[i],index.dist[j]));
+				++i;
+				++j;
+			}
+		}
 		return d;
 	}
 
 	public int findDistanceBetweenNodes( long goID1, long goID2 )
 	{
-		int d = Integer.MAX_VALUE;
+		int x = pathNode(goID1),
+			y = pathNode(goID2);
 		
-		List<Set<Long>> path1 = getPathTo( goID1 );
-		List<Set<Long>> path2 = getPathTo( goID2 );
-		
-		if( (path1==null) || (path2==null) )
+		if( (x < 0) || (y < 0) )
 		{
 			return -1;
 		}
 		
 		// find shared parent and add distances
-		for( int i=0; i<path1.size(); ++i )
+		AncestorIndex index = getAncestorIndex();
+		int d = index.rootLevel[x] + index.rootLevel[y];
+		int i = index.start[x], ie = index.start[x+1],
+			j = index.start[y], je = index.start[y+1];
+		while( i < ie && j < je )
 		{
-			for( int j=0; j<path2.size(); ++j )
+			if( index.node[i] < index.node[j] )
+				++i;
+			else if( index.node[i] > index.node[j] )
+				++j;
+			else
 			{
-				if( setIntersects(path1.get(i),path2.get(j)) )
-				{
-					int dd = i+j;
-					if( dd < d )
-					{
-						d = dd;
-					}
-				}
+				d = Math.min(d,index.dist[i] + index.dist[j]);
+				++i;
+				++j;
 			}
 		}
-		
 		return d;
 	}
 	
@@ -245,39 +646,98 @@ public class GoTree
 	 */
 	public WhichNode findLessDistantNodeToSharedParent( long goID1, long goID2 )
 	{
-		int d = Integer.MAX_VALUE;
-		WhichNode didx = WhichNode.NODE1;
-		List<Set<Long>> path1 = getPathTo( goID1 );
-		List<Set<Long>> path2 = getPathTo( goID2 );
+		int x = pathNode(goID1),
+			y = pathNode(goID2);
 		
-		if( (path1==null) || (path2==null) )
+		if( (x < 0) || (y < 0) )
 		{
 			return WhichNode.NONE;
 		}
 		
-		// find shared parent with minimum distance
-		for( int i=0; i<path1.size(); ++i )
+		// minimum distances of the nodes to any shared parent
+		AncestorIndex index = getAncestorIndex();
+		int d1 = index.rootLevel[x],
+			d2 = index.rootLevel[y];
+		int i = index.start[x], ie = index.start[x+1],
+			j = index.start[y], je = index.start[y+1];
+		while( i < ie && j < je )
 		{
-			for( int j=0; j<path2.size(); ++j )
+			if( index.node[i] < index.node[j] )
+				++i;
+			else if( index.node[i] > index.node[j] )
+				++j;
+			else
 			{
-				if( setIntersects(path1.get(i),path2.get(j)) )
-				{
-					int dd = Math.min(i,j);
-					if( dd < d )
-					{
-						d = dd;
-						if(i<=j)
-							didx=WhichNode.NODE1;
-						else
-							didx=WhichNode.NODE2;
-					}
-				}
+				d1 = Math.min(d1,index.dist[i]);
+				d2 = Math.min(d2,index.dist[j]);
+				++i;
+				++j;
 			}
 		}
-		return didx;
+		return (d1 <= d2) ? WhichNode.NODE1 : WhichNode.NODE2;
 	}		
 
 	
+	/**
+	 * Read-only view of a row of node indices as a sorted set of GO IDs.
+	 */
+	private class NodeSet extends AbstractSet<Long>
+	{
+		private final int[]	nodes;
+		private final int	start,
+							end;
+		
+		NodeSet(int[] nodes, int start, int end)
+		{
+			this.nodes = nodes;
+			this.start = start;
+			this.end = end;
+		}
+		
+		public int size()
+		{
+			return end - start;
+		}
+		
+		public boolean contains(Object obj)
+		{
+			if( !(obj instanceof Long) )
+				return false;
+			int node = indexOf(((Long)obj).longValue());
+			for( int k=start; k<end; ++k )
+			{
+				if( nodes[k] == node )
+					return true;
+			}
+			return false;
+		}
+		
+		public Iterator<Long> iterator()
+		{
+			return new Iterator<Long>()
+			{
+				private int k = start;
+				
+				public boolean hasNext()
+				{
+					return k < end;
+				}
+				
+				public Long next()
+				{
+					if( k >= end )
+						throw new NoSuchElementException();
+					return Long.valueOf(ids[nodes[k++]]);
+				}
+				
+				public void remove()
+				{
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+	
 	
 	public static void main(String argv[])
 	{
@@ -27,7 +27,9 @@ implements IVennObject
 {
     private LinkedList      listeners;
     
-    private final BitSet    elements;
+    private BitSet          elements;
+    private IVennObject     operandA,       // operands of a lazy element intersection
+                            operandB;
     private final int       card;
     private FPoint 	        center;
     private double          scale;
@@ -40,10 +42,30 @@ implements IVennObject
      * 
      */
     public AbstractVennObject( BitSet elements ) 
+    {
+        this( elements, elements.cardinality() );
+    }
+    
+    /**
+     * The element set is the intersection of the elements of <code>a</code> and <code>b</code>
+     * and will be computed on the first call of {@link #getElements()}.
+     * 
+     * @param a
+     * @param b
+     * @param card cardinality of the intersection
+     */
+    public AbstractVennObject( IVennObject a, IVennObject b, int card )
+    {
+        this( null, card );
+        this.operandA = a;
+        this.operandB = b;
+    }
+    
+    private AbstractVennObject( BitSet elements, int card )
     {
         this.properties = null;
         this.elements = elements;
-        this.card = elements.cardinality();
+        this.card = card;
         this.fillColor = Color.BLUE;
         this.borderColor = Color.BLACK;
         center = new FPoint(0.5,0.5);
@@ -117,8 +139,15 @@ implements IVennObject
     /* (non-Javadoc)
      * @see venn.IVennObject#getElements()
      */
-    public BitSet getElements() 
+    public synchronized BitSet getElements() 
     {
+        if( elements == null )
+        {
+            elements = (BitSet)operandA.getElements().clone();
+            elements.and( operandB.getElements() );
+            operandA = null;
+            operandB = null;
+        }
         return elements;
     }
         
@@ -183,7 +212,7 @@ implements IVennObject
         StringBuffer buf = new StringBuffer();
         
         buf.append("ELEMENTS ");
-        buf.append( elements.toString() );
+        buf.append( getElements().toString() );
         buf.append("\n");
         
         buf.append("CARD ");
@@ -203,6 +232,22 @@ implements IVennObject
         return buf.toString();
     }
 
+    /**
+     * Sets the fill color to the mean of the fill colors of both objects.
+     */
+    protected void interpolateFillColor(IVennObject obj1, IVennObject obj2)
+    {
+        // interpolate colors
+        float[] a = new float[4], 
+                b = new float[4];
+        
+        obj1.getFillColor().getRGBComponents(a);
+        obj2.getFillColor().getRGBComponents(b);
+        
+        setFillColor( new Color( 0.5f*(a[0]+b[0]),0.5f*(a[1]+b[1]),
+                                 0.5f*(a[2]+b[2]),0.5f*(a[3]+b[3]) ) );
+    }
+    
     /**
      * Assigns all positions and scales of the source object to this object.
      */
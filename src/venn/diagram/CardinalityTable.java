@@ -0,0 +1,173 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import venn.parallel.ExecutorServiceFactory;
+
+/**
+ * Cardinalities of all intersections of the sets of a Venn arrangement.
+ * The table is a flat array indexed by the subset bitmask: bit i of the index
+ * corresponds to set i. The entry for the index 0 is the cardinality of the union.
+ *
+ * The element sets never change during an optimization, so the table is
+ * computed once per data model and shared by all copies of an arrangement.
+ */
+public class CardinalityTable
+{
+    /**
+     * Maximum number of sets a table is built for (the table has 2^n entries).
+     */
+    public static final int MAX_SETS = 20;
+
+    // below this number of sets the table is filled by the calling thread
+    private static final int MIN_PARALLEL_SETS = 14;
+
+    private final int   numSets;
+    private final int[] card;
+
+    /**
+     *
+     * @param sets element sets (at most {@link #MAX_SETS})
+     */
+    public CardinalityTable( BitSet[] sets )
+    {
+        if( sets == null )
+            throw new IllegalArgumentException("sets must not be null");
+        if( sets.length > MAX_SETS )
+            throw new IllegalArgumentException("too many sets for a cardinality table");
+
+        numSets = sets.length;
+        card = new int[1 << numSets];
+
+        // membership signature of each element
+        int numElements = 0;
+        for( int i=0; i<sets.length; ++i )
+        {
+            numElements = Math.max(numElements,sets[i].length());
+        }
+        int[] member = new int[numElements];
+        for( int i=0; i<sets.length; ++i )
+        {
+            for( int e=sets[i].nextSetBit(0); e>=0; e=sets[i].nextSetBit(e+1) )
+            {
+                member[e] |= 1 << i;
+            }
+        }
+
+        // number of elements with exactly this signature
+        for( int e=0; e<numElements; ++e )
+        {
+            if( member[e] != 0 )
+                ++card[member[e]];
+        }
+
+        // superset sums: card[m] = number of elements contained in all sets of m
+        if( numSets < MIN_PARALLEL_SETS )
+        {
+            for( int bit=0; bit<numSets; ++bit )
+            {
+                supersetSum(bit,0,card.length);
+            }
+        }
+        else
+        {
+            parallelSupersetSum();
+        }
+    }
+
+    /**
+     * Adds for each mask m in [from,to) without the given bit the entry of m|bit.
+     */
+    private void supersetSum( int bit, int from, int to )
+    {
+        int b = 1 << bit;
+        for( int m=from; m<to; ++m )
+        {
+            if( (m & b) == 0 )
+                card[m] += card[m | b];
+        }
+    }
+
+    /**
+     * Each bit pass is split into blocks which are processed on the shared executor.
+     */
+    private void parallelSupersetSum()
+    {
+        ExecutorService executor = ExecutorServiceFactory.getExecutorService();
+        int numBlocks = Runtime.getRuntime().availableProcessors();
+        int blockSize = (card.length + numBlocks - 1) / numBlocks;
+
+        ArrayList<Future<?>> futures = new ArrayList<Future<?>>(numBlocks);
+        for( int bit=0; bit<numSets; ++bit )
+        {
+            futures.clear();
+            for( int from=blockSize; from<card.length; from+=blockSize )
+            {
+                final int   b = bit,
+                            f = from,
+                            t = Math.min(from+blockSize,card.length);
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        supersetSum(b,f,t);
+                    }
+                }));
+            }
+            // the first block is done by the calling thread
+            supersetSum(bit,0,Math.min(blockSize,card.length));
+
+            for( Future<?> future : futures )
+            {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while building the cardinality table");
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @param objs
+     * @return A cardinality table for the elements of the given Venn objects or null
+     * if there are too many objects.
+     */
+    public static CardinalityTable create( IVennObject[] objs )
+    {
+        if( objs == null || objs.length > MAX_SETS )
+            return null;
+
+        BitSet[] sets = new BitSet[objs.length];
+        for( int i=0; i<objs.length; ++i )
+        {
+            sets[i] = objs[i].getElements();
+        }
+        return new CardinalityTable(sets);
+    }
+
+    public int getNumOfSets()
+    {
+        return numSets;
+    }
+
+    /**
+     *
+     * @param mask subset bitmask (bit i set for set i)
+     * @return The number of elements contained in all sets of the mask.
+     */
+    public int get( long mask )
+    {
+        return card[(int)mask];
+    }
+}
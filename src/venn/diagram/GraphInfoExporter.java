@@ -34,7 +34,7 @@ public class GraphInfoExporter implements IIntersectionTreeVisitor {
 	public void visit(int depth, IntersectionTreeNode node) {
 		if (node.card > 0 && !node.copy) {
 
-			intersections.add(getIntersectionName(node.path));
+			intersections.add(getIntersectionName(node.getPath()));
 			elements.add(getNodeElementsList(node));
 		}
 	}
@@ -0,0 +1,22 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+/**
+ * Hook for counting the pairwise intersections of Venn objects.
+ * Implementations are called concurrently by the optimizer threads.
+ */
+public interface IIntersectionMetrics
+{
+    /**
+     * The objects were found to be disjoint by a cheap separation test.
+     */
+    public void rejected();
+
+    /**
+     * The intersection had to be computed.
+     */
+    public void computed();
+}
@@ -91,6 +91,16 @@ public interface IVennObject extends Cloneable, Serializable
 	 * intersection.
 	 */
 	public IVennObject intersect(IVennObject obj);
+	
+	/**
+	 * Same as {@link #intersect(IVennObject)} for an already known cardinality.
+	 * The element set of the result is only computed if it is requested.
+	 * 
+	 * @param obj
+	 * @param card cardinality of the element intersection
+	 * @return The graphical intersection of obj with this.
+	 */
+	public IVennObject intersect(IVennObject obj, int card);
     
     
     
@@ -0,0 +1,48 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the rejected and computed intersections.
+ */
+public class IntersectionMetrics
+implements IIntersectionMetrics
+{
+    private final AtomicLong numRejected = new AtomicLong();
+    private final AtomicLong numComputed = new AtomicLong();
+
+    public void rejected()
+    {
+        numRejected.incrementAndGet();
+    }
+
+    public void computed()
+    {
+        numComputed.incrementAndGet();
+    }
+
+    public long getRejected()
+    {
+        return numRejected.get();
+    }
+
+    public long getComputed()
+    {
+        return numComputed.get();
+    }
+
+    public void reset()
+    {
+        numRejected.set(0);
+        numComputed.set(0);
+    }
+
+    public String toString()
+    {
+        return "intersections rejected: " + getRejected() + " computed: " + getComputed();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+/**
+ * Maps the subset bitmask of an intersection (bit i corresponds to set i) to its
+ * node in the intersection tree. The map uses open addressing with linear probing
+ * on flat arrays, so lookups do not allocate and do not walk the tree.
+ */
+public class IntersectionNodeIndex
+{
+    private static final int MIN_CAPACITY = 64;
+
+    private long[]                  keys;
+    private IntersectionTreeNode[]  nodes;  // null marks a free slot
+    private int                     size;
+
+
+    public IntersectionNodeIndex()
+    {
+        keys = new long[MIN_CAPACITY];
+        nodes = new IntersectionTreeNode[MIN_CAPACITY];
+        size = 0;
+    }
+
+    private static int hash( long mask )
+    {
+        // finalizer of MurmurHash3
+        mask ^= mask >>> 33;
+        mask *= 0xff51afd7ed558ccdL;
+        mask ^= mask >>> 33;
+        mask *= 0xc4ceb9fe1a85ec53L;
+        mask ^= mask >>> 33;
+        return (int)mask;
+    }
+
+    /**
+     *
+     * @param mask
+     * @return The node of the intersection or null.
+     */
+    public IntersectionTreeNode get( long mask )
+    {
+        int m = keys.length - 1;
+        for( int i=hash(mask) & m; nodes[i] != null; i=(i+1) & m )
+        {
+            if( keys[i] == mask )
+                return nodes[i];
+        }
+        return null;
+    }
+
+    /**
+     * Adds or replaces the node of an intersection.
+     *
+     * @param mask
+     * @param node
+     */
+    public void put( long mask, IntersectionTreeNode node )
+    {
+        if( node == null )
+            throw new IllegalArgumentException("node must not be null");
+
+        if( 2*(size+1) > keys.length )
+            rehash(2*keys.length);
+
+        int m = keys.length - 1;
+        int i = hash(mask) & m;
+        for( ; nodes[i] != null; i=(i+1) & m )
+        {
+            if( keys[i] == mask )
+            {
+                nodes[i] = node;
+                return;
+            }
+        }
+        keys[i] = mask;
+        nodes[i] = node;
+        ++size;
+    }
+
+    /**
+     * Removes an intersection (the following entries of its cluster are shifted back,
+     * so no deleted markers are needed).
+     *
+     * @param mask
+     */
+    public void remove( long mask )
+    {
+        int m = keys.length - 1;
+        int i = hash(mask) & m;
+        for( ; nodes[i] != null; i=(i+1) & m )
+        {
+            if( keys[i] == mask )
+                break;
+        }
+        if( nodes[i] == null )
+            return;
+
+        --size;
+        for( int j=(i+1) & m; nodes[j] != null; j=(j+1) & m )
+        {
+            int home = hash(keys[j]) & m;
+            // move j to the gap at i if its home slot is not in (i,j]
+            if( (j > i) ? (home <= i || home > j) : (home <= i && home > j) )
+            {
+                keys[i] = keys[j];
+                nodes[i] = nodes[j];
+                i = j;
+            }
+        }
+        nodes[i] = null;
+    }
+
+    public void clear()
+    {
+        if( size > 0 )
+        {
+            for( int i=0; i<nodes.length; ++i )
+            {
+                nodes[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     *
+     * @return The number of intersections in the index.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    private void rehash( int capacity )
+    {
+        long[] oldKeys = keys;
+        IntersectionTreeNode[] oldNodes = nodes;
+
+        keys = new long[capacity];
+        nodes = new IntersectionTreeNode[capacity];
+        size = 0;
+        for( int i=0; i<oldNodes.length; ++i )
+        {
+            if( oldNodes[i] != null )
+                put(oldKeys[i],oldNodes[i]);
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package venn.diagram;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.LinkedList;
 
@@ -15,6 +16,7 @@ import javax.swing.event.ChangeListener;
 import junit.framework.Assert;
 import venn.db.AbstractGOCategoryProperties;
 import venn.geometry.FPoint;
+import venn.geometry.FRectangle;
 
 /**
  * 
@@ -30,12 +32,27 @@ implements ChangeListener
 	private IntersectionTreeNode root;
  
 	private boolean valid;				// tree is in a valid state
+	private boolean structureValid;		// false forces a rebuild from scratch
 	private int maxIntersections;
 	private boolean memoryCheck;
 
     private VennArrangement arrangement;
     
     private boolean logCardinalities;
+    
+    // sparse mode: only non-empty intersections are stored
+    private boolean sparse;
+    private long[]  overlaps;       // bit j of overlaps[i]: the bounding boxes of set i and j meet
+    
+    // nodes by subset bitmask (only for at most 64 sets, otherwise the paths are BitSets)
+    private IntersectionNodeIndex index;
+    // nodes of the pairwise intersections {i,j}, i<j, row by row (see pairIndex())
+    private IntersectionTreeNode[] pairs;
+    
+    // state of the venn objects at the last build (used for incremental updates)
+    private IVennObject[] lastObjects;
+    private FPoint[]      lastOffsets;
+    private double[]      lastScales;
 	
 	public static class MemoryLowException extends RuntimeException 
 	{
@@ -98,6 +115,7 @@ implements ChangeListener
 				
 		this.root = null;
 		this.valid = false;
+		this.structureValid = false;
 		this.maxIntersections = maxLevel;
 //		this.memoryCheck = true;
 		this.memoryCheck = false;
@@ -105,6 +123,73 @@ implements ChangeListener
         this.logCardinalities = logCardinalities;
 	}
     	
+	/**
+	 * In the sparse mode the tree only contains intersections which are either
+	 * non-empty in the data or non-empty in the plane. The non-empty intersections
+	 * of the data follow from the membership signatures of the elements (see
+	 * MembershipSignatures), geometrical intersections are only computed for sets
+	 * whose bounding boxes meet pairwise. Both kinds of empty nodes do not contribute
+	 * to the error function, so the error is the same as for the full tree.
+	 * getByPath() returns null for the omitted intersections.
+	 * 
+	 * The mode needs at most {@link MembershipSignatures#MAX_SETS} sets, for more
+	 * sets the full tree is built.
+	 * 
+	 * @param sparse
+	 */
+	public void setSparse(boolean sparse)
+	{
+		if( this.sparse != sparse )
+		{
+			this.sparse = sparse;
+			invalidateAll();
+		}
+	}
+	
+	public boolean isSparse()
+	{
+		return sparse;
+	}
+	
+	/**
+	 * 
+	 * @return True if the current build omits empty intersections.
+	 */
+	private boolean sparseBuild()
+	{
+		return sparse && arrangement.getMembershipSignatures() != null;
+	}
+	
+	/**
+	 * Computes which pairs of sets have meeting bounding boxes.
+	 */
+	private void updateOverlaps(IVennObject[] vennObjects)
+	{
+		int n = vennObjects.length;
+		if( overlaps == null || overlaps.length != n )
+			overlaps = new long[n];
+		
+		FRectangle[] box = new FRectangle[n];
+		for( int i=0; i<n; ++i )
+		{
+			box[i] = vennObjects[i].getBoundingBox();
+			overlaps[i] = 0L;
+		}
+		for( int i=0; i<n; ++i )
+		{
+			if( box[i] == null )
+				continue;
+			for( int j=0; j<i; ++j )
+			{
+				if( box[j] != null && box[i].intersects(box[j]) )
+				{
+					overlaps[i] |= 1L << j;
+					overlaps[j] |= 1L << i;
+				}
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param idx
@@ -131,18 +216,162 @@ implements ChangeListener
 	
 	/**
 	 * Updates the tree.
+	 * Only nodes whose path contains a set of <code>changed</code> are recomputed,
+	 * all other nodes keep their cached venn objects and areas.
+	 * 
 	 * @param level
 	 * @param node
+	 * @param changed the moved sets or null if all nodes have to be recomputed
+	 * @param changedMask bitmask of changed (if the tree is indexed)
 	 */
-	private void internalBuildTree(int level, IntersectionTreeNode node)
+	private void internalBuildTree(int level, IntersectionTreeNode node, BitSet changed, long changedMask)
 	{
 		if( node == null || level >= getNumOfSets() )
 			return;
+		
+		if( changed != null && !touches(node,changed,changedMask) && changed.nextSetBit(level) < 0 )
+		{ // neither this node nor any of its descendants touch a moved set
+			return;
+		}
 		checkMemory();
         
         Assert.assertNotNull( node.vennObject );
-
+		
+        // the right child has to be recomputed if one of its sets has moved
+        if( (changed == null) || changed.get(level) || touches(node,changed,changedMask) )
+        {
+            if( sparseBuild() )
+                updateSparseRightChild(level,node);
+            else
+                updateRightChild(level,node);
+        }
+        
+		if( node.rightChild != null )
+		{ // descend
+			internalBuildTree(level+1,node.rightChild,changed,changedMask);
+		}
+		
+		// left child: WITHOUT polygon[level]
+		if( level+1 >= getNumOfSets() )
+		{
+			node.leftChild = null;
+		}
+		else
+		{
+			if( node.leftChild == null )
+				node.leftChild  = new IntersectionTreeNode();
+				
+			node.leftChild.vennObject = node.vennObject; 	// link to parent polygon
+			node.leftChild.area = node.area;
+			node.leftChild.card = node.card;
+			node.leftChild.copy = true; // mark this polygon as copy
+			node.leftChild.parent = node;
+			node.leftChild.nLeft = node.nLeft+1;
+			node.leftChild.nRight = node.nRight;
+			node.leftChild.mask = node.mask;
+			node.leftChild.path = node.path;
+			node.leftChild.setIndex = node.setIndex;	
+			node.leftChild.signatures = node.signatures;
+			
+			internalBuildTree(level+1,node.leftChild,changed,changedMask);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return True if one of the sets of the node is in changed.
+	 */
+	private static boolean touches(IntersectionTreeNode node, BitSet changed, long changedMask)
+	{
+		if( node.path != null )
+			return node.path.intersects(changed);
+		
+		return (node.mask & changedMask) != 0L;
+	}
+	
+	/**
+	 * 
+	 * @return The position of the intersection {i,j} (i&lt;j) in the pair array.
+	 */
+	private static int pairIndex(int i, int j, int numSets)
+	{
+		return i*(2*numSets-i-1)/2 + (j-i-1);
+	}
+	
+	/**
+	 * Appends a new right child to <code>node</code> and adds it to the index.
+	 * Pairwise intersections are also registered in the pair array.
+	 * 
+	 * @param level
+	 * @param node
+	 * @return The new child
+	 */
+	private IntersectionTreeNode appendRightChild(int level, IntersectionTreeNode node)
+	{
+		IntersectionTreeNode child = new IntersectionTreeNode();
+		child.setIndex = -1;
+		child.copy = false;
+		child.parent = node;
+		child.nLeft = node.nLeft;
+		child.nRight = node.nRight+1;
+		if( index != null )
+		{
+			child.mask = node.mask | (1L << level);
+			index.put(child.mask,child);
+		}
+		else
+		{
+			child.path = (BitSet)node.path.clone();
+			child.path.set(level);
+		}
+		if( child.nRight == 2 )
+			pairs[pairIndex(node.nextSetIndex(0),level,getNumOfSets())] = child;
+		node.rightChild = child;
+		return child;
+	}
+	
+	/**
+	 * Cuts off the right child of <code>node</code> and removes its subtree from the index
+	 * and from the pair array.
+	 * 
+	 * @param node
+	 */
+	private void removeRightChild(IntersectionTreeNode node)
+	{
+		removeFromIndex(node.rightChild);
+		node.rightChild = null;
+	}
+	
+	private void removeFromIndex(IntersectionTreeNode node)
+	{
+		if( node == null )
+			return;
+		
+		if( !node.copy )
+		{
+			if( index != null )
+				index.remove(node.mask);
+			if( node.nRight == 2 )
+			{
+				int i = node.nextSetIndex(0);
+				pairs[pairIndex(i,node.nextSetIndex(i+1),getNumOfSets())] = null;
+			}
+		}
+		removeFromIndex(node.leftChild);
+		removeFromIndex(node.rightChild);
+	}
+		
+	/**
+	 * Recomputes the polygonal intersection of the right child of <code>node</code>
+	 * (appends or removes the right child if necessary).
+	 * 
+	 * @param level
+	 * @param node
+	 */
+	private void updateRightChild(int level, IntersectionTreeNode node)
+	{
         IVennObject[] vennObjects = arrangement.getVennObjects();
+        CardinalityTable table = arrangement.getCardinalityTable();
 		
 		IVennObject p = null;
         if( node.nRight == 0 )
@@ -152,7 +381,13 @@ implements ChangeListener
         } else
         {
 			// intersect vennObjects
-			p = node.vennObject.intersect( vennObjects[level] );            
+            if( table != null )
+            {   // the cardinality is already known, no need to intersect the elements
+                p = node.vennObject.intersect( vennObjects[level], table.get(node.mask | (1L << level)) );
+            } else
+            {
+                p = node.vennObject.intersect( vennObjects[level] );
+            }
 		}
 			
 		// append right child if there is a nonempty polygonal intersection
@@ -161,107 +396,161 @@ implements ChangeListener
 		{
 			if( node.nRight < maxIntersections )
 			{
-                /*
-				BitSet s = (BitSet)node.set.clone();
-				s.and(sets[level]);
-				int card = s.cardinality();
-                */
-                
-                IVennObject is = vennObjects[level].intersect( node.vennObject );
-                int card = is.cardinality();
+                int card = p.cardinality();
 	
 				if( (p!=null) || (getCard(card)>0) )
 				{
-					node.rightChild  = new IntersectionTreeNode();
-					node.rightChild.setIndex = -1;
-					node.rightChild.copy = false;
-					node.rightChild.parent = node;
-					node.rightChild.vennObject = is;
-					node.rightChild.card = card;
-					node.rightChild.nLeft = node.nLeft;
-					node.rightChild.nRight = node.nRight+1;
-					node.rightChild.path = (BitSet)node.path.clone();
-					node.rightChild.path.set(level);
+					appendRightChild(level,node).card = card;
 				}
 			}
 		}
 		else
 		{	
-			if( (node.nRight>=maxIntersections) || (getCard(node.rightChild.card) == 0 && p.isEmpty()) )
+			// same condition as for appending a new child (keeps the tree identical to a full rebuild)
+			if( (node.nRight>=maxIntersections) || (p == null && getCard(node.rightChild.card) == 0) )
 			{ // cutoff 
-				node.rightChild = null;
+				removeRightChild(node);
 			}
 		}
 
 		if( node.rightChild != null )
-		{ // assign polygonal intersection and descend
-			node.rightChild.copy = false;
-			node.rightChild.setIndex = -1;
-			node.rightChild.vennObject = p;
-			if( p != null )
-			{
-				node.rightChild.area = p.area();
-				if( p.equals(vennObjects[level]) )
-				{ // this node is a new level or is identically to the level
-					// so its only an alias if nRight > 1
-					node.rightChild.setIndex = level;
-				}
-				else
-				{
-					if( p.equals(node.vennObject) )
-					{ // this node is fully contained in its parent node					
-						node.rightChild.setIndex = node.setIndex;
-					}
-				}
+		{ // assign polygonal intersection
+			assignRightChild(level,node,p);
+		}
+	}
+	
+	/**
+	 * Like updateRightChild() but the right child only exists if its intersection
+	 * contains elements or if its polygonal intersection is not empty. The polygons 
+	 * are only intersected if the child has elements or if all of its sets overlap
+	 * pairwise.
+	 * 
+	 * @param level
+	 * @param node
+	 */
+	private void updateSparseRightChild(int level, IntersectionTreeNode node)
+	{
+		long mask = node.mask;
+		IVennObject[] vennObjects = arrangement.getVennObjects();
+		CardinalityTable table = arrangement.getCardinalityTable();
+		MembershipSignatures signatures = arrangement.getMembershipSignatures();
+		
+		if( node.nRight >= maxIntersections )
+		{
+			removeRightChild(node);
+			return;
+		}
+		
+		// the cardinality does not depend on the arrangement, so it is kept by an existing child
+		int card;
+		int[] sigs = null;
+		if( node.rightChild != null )
+		{
+			card = node.rightChild.card;
+		}
+		else if( table != null )
+		{
+			card = table.get(mask | (1L << level));
+		}
+		else
+		{
+			sigs = signatures.select(node.signatures,level);
+			card = signatures.cardinality(sigs);
+		}
+		
+		IVennObject p = null;
+		if( node.nRight == 0 )
+		{
+			p = vennObjects[level];
+		}
+		else if( card > 0 || (overlaps[level] & mask) == mask )
+		{
+			p = node.vennObject.intersect( vennObjects[level], card );
+		}
+		
+		if( p == null || (node.nRight > 0 && card == 0 && p.isEmpty()) )
+		{ // empty in the data and in the plane (as are all descendants)
+			removeRightChild(node);
+			return;
+		}
+		
+		if( node.rightChild == null )
+		{
+			IntersectionTreeNode child = appendRightChild(level,node);
+			child.card = card;
+			child.signatures = sigs;
+		}
+		assignRightChild(level,node,p);
+	}
+	
+	private void assignRightChild(int level, IntersectionTreeNode node, IVennObject p)
+	{
+		IVennObject[] vennObjects = arrangement.getVennObjects();
+		
+		node.rightChild.copy = false;
+		node.rightChild.setIndex = -1;
+		node.rightChild.vennObject = p;
+		if( p != null )
+		{
+			node.rightChild.area = p.area();
+			if( p.equals(vennObjects[level]) )
+			{ // this node is a new level or is identically to the level
+				// so its only an alias if nRight > 1
+				node.rightChild.setIndex = level;
 			}
 			else
 			{
-				node.rightChild.area = 0.0;
+				if( p.equals(node.vennObject) )
+				{ // this node is fully contained in its parent node					
+					node.rightChild.setIndex = node.setIndex;
+				}
 			}
-			internalBuildTree(level+1,node.rightChild);
-		}
-		
-		// left child: WITHOUT polygon[level]
-		if( level+1 >= getNumOfSets() )
-		{
-			node.leftChild = null;
 		}
 		else
 		{
-			if( node.leftChild == null )
-				node.leftChild  = new IntersectionTreeNode();
-				
-			node.leftChild.vennObject = node.vennObject; 	// link to parent polygon
-			node.leftChild.area = node.area;
-			node.leftChild.card = node.card;
-			node.leftChild.copy = true; // mark this polygon as copy
-			node.leftChild.parent = node;
-			node.leftChild.nLeft = node.nLeft+1;
-			node.leftChild.nRight = node.nRight;
-			node.leftChild.path = node.path;
-			node.leftChild.setIndex = node.setIndex;	
-			
-			internalBuildTree(level+1,node.leftChild);
+			node.rightChild.area = 0.0;
 		}
 	}
 		
 	/**
 	 * Rebuilds/updates the whole tree.
+	 * If only some sets were moved since the last build, only the nodes
+	 * containing these sets are recomputed.
 	 *
 	 */
 	public synchronized void  buildTree()
 	{
-		root = null;  // TODO: remove this??
         if( arrangement == null || arrangement.getNumOfSets() == 0 )
+        {
+            root = null;
+            lastObjects = null;
             return;
+        }
         
         IVennObject[] vennObjects = arrangement.getVennObjects();
         
-		if( root == null )
+		if( root == null || !structureValid || vennObjects != lastObjects 
+		        || lastOffsets.length != vennObjects.length )
 		{
 			root = new IntersectionTreeNode();
 			//root.contains = new BitSet(vennObjects.length);
-			root.path = new BitSet(vennObjects.length);
+			if( vennObjects.length <= 64 )
+			{
+				if( index == null )
+					index = new IntersectionNodeIndex();
+				index.clear();
+				root.mask = 0L;
+			}
+			else
+			{
+				index = null;
+				root.path = new BitSet(vennObjects.length);
+			}
+			int numPairs = vennObjects.length*(vennObjects.length-1)/2;
+			if( pairs == null || pairs.length != numPairs )
+				pairs = new IntersectionTreeNode[numPairs];
+			else
+				Arrays.fill(pairs,null);
 			root.parent = null;
 			root.nLeft = 0;
 			root.nRight = 0;
@@ -274,12 +563,63 @@ implements ChangeListener
             }
             root.vennObject = new VennPolygonObject(null,set,0.0,false); 
 			root.card = root.vennObject.cardinality();
+			
+			if( sparseBuild() )
+				updateOverlaps(vennObjects);
+			internalBuildTree(0,root,null,0L);
+			structureValid = true;
 		}
 		else
 		{
-			root.invalidate();
+			BitSet changed = getChangedSets(vennObjects);
+			if( !changed.isEmpty() )
+			{
+				long changedMask = 0L;
+				if( index != null )
+				{
+					for( int i=changed.nextSetBit(0); i>=0; i=changed.nextSetBit(i+1) )
+					{
+						changedMask |= 1L << i;
+					}
+				}
+				if( sparseBuild() )
+					updateOverlaps(vennObjects);
+				internalBuildTree(0,root,changed,changedMask);
+			}
+		}
+		
+		// remember the current state
+		lastObjects = vennObjects;
+		if( lastOffsets == null || lastOffsets.length != vennObjects.length )
+		{
+			lastOffsets = new FPoint[vennObjects.length];
+			lastScales = new double[vennObjects.length];
+		}
+		for( int i=0; i<vennObjects.length; ++i )
+		{
+			lastOffsets[i] = vennObjects[i].getOffset();
+			lastScales[i] = vennObjects[i].getScale();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param vennObjects
+	 * @return The indices of all venn objects which changed their offset or scale since
+	 * the last build.
+	 */
+	private BitSet getChangedSets(IVennObject[] vennObjects)
+	{
+		BitSet changed = new BitSet(vennObjects.length);
+		for( int i=0; i<vennObjects.length; ++i )
+		{
+			if( !vennObjects[i].getOffset().equals(lastOffsets[i]) 
+					|| vennObjects[i].getScale() != lastScales[i] )
+			{
+				changed.set(i);
+			}
 		}
-		internalBuildTree(0,root);
+		return changed;
 	}
 	
 	/**
@@ -332,6 +672,19 @@ implements ChangeListener
 		if( path == null )
 			throw new IllegalArgumentException("path must not be null");
 		
+		if( index != null )
+		{
+			if( path.length() > 64 )
+				return null;
+			
+			long mask = 0L;
+			for( int i=path.nextSetBit(0); i>=0; i=path.nextSetBit(i+1) )
+			{
+				mask |= 1L << i;
+			}
+			return getByMask(mask);
+		}
+		
 		IntersectionTreeNode node = root;
 		
 		int len = path.length();
@@ -349,6 +702,65 @@ implements ChangeListener
 		return node;
 	}
 
+	/**
+	 * Like getByPath() but without a BitSet (only for at most 64 sets).
+	 * 
+	 * @param mask bit i is set for the i-th group
+	 * @return The intersection tree node or null
+	 */
+	public IntersectionTreeNode getByMask(long mask)
+	{
+		validate();
+		if( root == null )
+			return null;
+		if( index == null )
+			throw new IllegalStateException("the tree has more than 64 sets");
+		
+		if( mask == 0L )
+			return root;
+		return index.get(mask);
+	}
+	
+	/**
+	 * The pairwise intersections are kept in a flat array, so this needs
+	 * neither a path nor a lookup.
+	 * 
+	 * @param i index of a set
+	 * @param j index of another set
+	 * @return The node of the intersection of the sets i and j or null.
+	 */
+	public IntersectionTreeNode getPair(int i, int j)
+	{
+		validate();
+		if( root == null || i == j )
+			return null;
+		
+		return i < j ? pairs[pairIndex(i,j,getNumOfSets())] : pairs[pairIndex(j,i,getNumOfSets())];
+	}
+	
+	/**
+	 * 
+	 * @return The nodes of the pairwise intersections {i,j} row by row: {0,1},{0,2},...,{0,n-1},{1,2},...
+	 * (null for omitted intersections). The array must not be modified.
+	 */
+	public IntersectionTreeNode[] getPairs()
+	{
+		validate();
+		if( root == null )
+			return new IntersectionTreeNode[0];
+		return pairs;
+	}
+	
+	/**
+	 * 
+	 * @return True if getByMask() can be used (at most 64 sets).
+	 */
+	public boolean isIndexed()
+	{
+		validate();
+		return index != null;
+	}
+	
 	/**
 	 * @return the root node
 	 */
@@ -388,15 +800,28 @@ implements ChangeListener
        // System.out.println("IntersectionTree.stateChanged()");
         if( e.getSource() == arrangement )
         {
-            invalidate();
+            invalidateAll();
         }
     }    
     
+    /**
+     * Marks the tree as invalid. The next access only recomputes
+     * the nodes of the sets which have been moved or scaled.
+     */
     public void invalidate()
     {
         valid = false;
     }
     
+    /**
+     * Marks the tree as invalid. The next access rebuilds the whole tree.
+     */
+    public void invalidateAll()
+    {
+        structureValid = false;
+        valid = false;
+    }
+    
     public synchronized void validate()
     {
         if( ! valid )
@@ -415,7 +840,7 @@ implements ChangeListener
         if( arrangement != null )
             arrangement.addChangeListener(this);
         
-        invalidate();
+        invalidateAll();
     }
     
     public VennArrangement getArrangement()
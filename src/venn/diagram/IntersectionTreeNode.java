@@ -14,7 +14,8 @@ import java.util.BitSet;
 public class IntersectionTreeNode
 {
 	public IVennObject vennObject;    //!< null means: the whole plane (Omega)
-	public BitSet   path;		//!< which path leads to this subset (contains a one for each involved source set = right turn)
+	public long     mask;		//!< which path leads to this subset (bit i set for each involved source set = right turn)
+	BitSet          path;		//!< the same as mask, only used for more than 64 sets
 	public int      card,
                     setIndex;	//!< < 0 if this is an intersection set, otherwise it is a pointer to the original sets
     public double   area;
@@ -24,6 +25,7 @@ public class IntersectionTreeNode
 								rightChild; // contains a child intersecting a polygon
 								
 	public boolean copy;	// set true if this polygon is only copied (happens for the left nodes)
+	public int[]	signatures;	// membership signatures containing the path (sparse trees without cardinality table)
 	public int 	nLeft, 		// number of left turns to this node 
 				nRight; 	// number of right turns to this node (== number of merged polygons)
 	
@@ -39,6 +41,39 @@ public class IntersectionTreeNode
 		vennObject = null;
 	}
 	
+	/**
+	 * 
+	 * @return The sets of this intersection (contains a one for each involved source set = right turn).
+	 */
+	public BitSet getPath()
+	{
+		if( path != null )
+			return (BitSet)path.clone();
+		
+		BitSet result = new BitSet();
+		for( int i=nextSetIndex(0); i>=0; i=nextSetIndex(i+1) )
+		{
+			result.set(i);
+		}
+		return result;
+	}
+	
+	/**
+	 * 
+	 * @param from
+	 * @return The index of the first set of this intersection which is &gt;= from or -1.
+	 */
+	public int nextSetIndex(int from)
+	{
+		if( path != null )
+			return path.nextSetBit(from);
+		
+		if( from >= 64 )
+			return -1;
+		long m = mask & (-1L << from);
+		return m != 0L ? Long.numberOfTrailingZeros(m) : -1;
+	}
+	
 	public void invalidate()
 	{
 		if( leftChild != null )
@@ -95,9 +130,10 @@ public class IntersectionTreeNode
 	public String pathToString()
 	{
 		int level = nLeft + nRight;
-		if( level <= 0 || path == null )
+		if( level <= 0 )
 			return "/";
 		
+		BitSet path = getPath();
 		StringBuffer buf = new StringBuffer();
 		buf.append("/");
 		for( int i=0; i < level; ++i )
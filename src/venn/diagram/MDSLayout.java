@@ -0,0 +1,273 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+import java.util.BitSet;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import venn.geometry.FRectangle;
+
+/**
+ * Places the centers of the sets of an arrangement in the plane so that the pairwise
+ * distances reproduce the overlaps of the data.
+ *
+ * Each set is treated as a circle with the size of its Venn object. The target distance
+ * of two sets is the center distance at which the lens of the two circles covers the
+ * fraction of the circles given by the size of their intersection. The distances are
+ * embedded with classical multidimensional scaling and refined by stress majorization
+ * (SMACOF).
+ */
+public class MDSLayout
+{
+    private static final int    BISECTION_STEPS = 50,
+                                MAX_SMACOF_STEPS = 200;
+    private static final double DISJOINT_GAP = 1.05,    // distance of disjoint sets relative to r1+r2
+                                SMACOF_TOLERANCE = 1E-9;
+
+    private final double[]      radius;
+    private final double[][]    target,     // target distances
+                                centers;    // centered at the origin
+
+
+    public MDSLayout( VennArrangement arrangement )
+    {
+        IVennObject[] sets = arrangement.getVennObjects();
+        int n = sets.length;
+
+        radius = new double[n];
+        for( int i=0; i<n; ++i )
+        {
+            FRectangle bbox = sets[i].getBoundingBox();
+            double scale = sets[i].getScale() > 0.0 ? sets[i].getScale() : 1.0;
+            radius[i] = Math.max(bbox.getWidth(),bbox.getHeight()) / (2.0 * scale);
+        }
+
+        CardinalityTable table = arrangement.getCardinalityTable();
+        target = new double[n][n];
+        for( int i=0; i<n; ++i )
+        {
+            for( int j=0; j<i; ++j )
+            {
+                int inter;
+                if( table != null )
+                {
+                    inter = table.get((1L << i) | (1L << j));
+                }
+                else
+                {
+                    BitSet elem = (BitSet)sets[i].getElements().clone();
+                    elem.and(sets[j].getElements());
+                    inter = elem.cardinality();
+                }
+                target[i][j] = target[j][i] = targetDistance(radius[i], radius[j],
+                        sets[i].cardinality(), sets[j].cardinality(), inter);
+            }
+        }
+
+        centers = new double[n][];
+        embed();
+        majorize();
+    }
+
+    /**
+     *
+     * @return The center of each set (the mean of all centers is the origin).
+     */
+    public double[][] getCenters()
+    {
+        return centers;
+    }
+
+    /**
+     *
+     * @return The radius of the circle which approximates each set.
+     */
+    public double[] getRadius()
+    {
+        return radius;
+    }
+
+    /**
+     *
+     * @return The distance at which the circles overlap like the sets.
+     */
+    public static double targetDistance( double r1, double r2, int card1, int card2, int inter )
+    {
+        if( inter <= 0 || card1 <= 0 || card2 <= 0 )
+            return DISJOINT_GAP * (r1 + r2);
+
+        // the lens should cover inter/card of each circle
+        double area = 0.5 * Math.PI * (r1 * r1 * inter / card1 + r2 * r2 * inter / card2);
+        double minArea = Math.PI * Math.min(r1,r2) * Math.min(r1,r2);
+        if( area >= minArea )
+            return Math.abs(r1 - r2);
+
+        // the lens area decreases with the distance
+        double lo = Math.abs(r1 - r2),
+               hi = r1 + r2;
+        for( int k=0; k<BISECTION_STEPS; ++k )
+        {
+            double d = 0.5 * (lo + hi);
+            if( lensArea(r1,r2,d) > area )
+                lo = d;
+            else
+                hi = d;
+        }
+        return 0.5 * (lo + hi);
+    }
+
+    /**
+     *
+     * @return The area of the intersection of two circles with center distance d.
+     */
+    public static double lensArea( double r1, double r2, double d )
+    {
+        if( d >= r1 + r2 )
+            return 0.0;
+        if( d <= Math.abs(r1 - r2) )
+            return Math.PI * Math.min(r1,r2) * Math.min(r1,r2);
+
+        double a1 = Math.acos(Math.max(-1.0,Math.min(1.0,(d*d + r1*r1 - r2*r2) / (2.0*d*r1)))),
+               a2 = Math.acos(Math.max(-1.0,Math.min(1.0,(d*d + r2*r2 - r1*r1) / (2.0*d*r2))));
+        double k = (-d + r1 + r2) * (d + r1 - r2) * (d - r1 + r2) * (d + r1 + r2);
+        return r1*r1*a1 + r2*r2*a2 - 0.5*Math.sqrt(Math.max(0.0,k));
+    }
+
+    /**
+     * Classical MDS: the two main axes of the double centered squared distances.
+     */
+    private void embed()
+    {
+        int n = radius.length;
+        if( n == 1 )
+        {
+            centers[0] = new double[2];
+            return;
+        }
+
+        double[][] b = new double[n][n];
+        double[] row = new double[n];
+        double all = 0.0;
+        for( int i=0; i<n; ++i )
+        {
+            for( int j=0; j<n; ++j )
+            {
+                b[i][j] = target[i][j] * target[i][j];
+                row[i] += b[i][j] / n;
+            }
+            all += row[i] / n;
+        }
+        for( int i=0; i<n; ++i )
+        {
+            for( int j=0; j<n; ++j )
+            {
+                b[i][j] = -0.5 * (b[i][j] - row[i] - row[j] + all);
+            }
+        }
+
+        EigenDecomposition eigen = new EigenDecomposition(new Array2DRowRealMatrix(b,false));
+        double[] ev = eigen.getRealEigenvalues();
+        RealMatrix V = eigen.getV();
+
+        // indices of the two largest eigenvalues
+        int first = 0, second = -1;
+        for( int k=1; k<n; ++k )
+        {
+            if( ev[k] > ev[first] )
+                first = k;
+        }
+        for( int k=0; k<n; ++k )
+        {
+            if( k != first && (second < 0 || ev[k] > ev[second]) )
+                second = k;
+        }
+
+        double s1 = Math.sqrt(Math.max(0.0,ev[first])),
+               s2 = Math.sqrt(Math.max(0.0,ev[second]));
+        for( int i=0; i<n; ++i )
+        {
+            centers[i] = new double[]{ s1 * V.getEntry(i,first), s2 * V.getEntry(i,second) };
+        }
+    }
+
+    /**
+     * Guttman transform with unit weights until the stress stops decreasing.
+     */
+    private void majorize()
+    {
+        int n = radius.length;
+        if( n <= 2 )
+            return;
+
+        double lastStress = stress();
+        double[][] next = new double[n][2];
+        for( int step=0; step<MAX_SMACOF_STEPS; ++step )
+        {
+            for( int i=0; i<n; ++i )
+            {
+                double x = 0.0, y = 0.0;
+                for( int j=0; j<n; ++j )
+                {
+                    if( i == j )
+                        continue;
+                    double dx = centers[i][0] - centers[j][0],
+                           dy = centers[i][1] - centers[j][1],
+                           d = Math.sqrt(dx*dx + dy*dy);
+                    double f = d > 0.0 ? target[i][j] / d : 0.0;
+                    x += f * dx;
+                    y += f * dy;
+                }
+                next[i][0] = x / n;
+                next[i][1] = y / n;
+            }
+            for( int i=0; i<n; ++i )
+            {
+                centers[i][0] = next[i][0];
+                centers[i][1] = next[i][1];
+            }
+
+            double s = stress();
+            if( lastStress - s <= SMACOF_TOLERANCE * lastStress )
+                break;
+            lastStress = s;
+        }
+
+        // move the mean to the origin
+        double mx = 0.0, my = 0.0;
+        for( int i=0; i<n; ++i )
+        {
+            mx += centers[i][0] / n;
+            my += centers[i][1] / n;
+        }
+        for( int i=0; i<n; ++i )
+        {
+            centers[i][0] -= mx;
+            centers[i][1] -= my;
+        }
+    }
+
+    /**
+     *
+     * @return The sum of the squared deviations from the target distances.
+     */
+    public double stress()
+    {
+        double sum = 0.0;
+        for( int i=0; i<centers.length; ++i )
+        {
+            for( int j=0; j<i; ++j )
+            {
+                double dx = centers[i][0] - centers[j][0],
+                       dy = centers[i][1] - centers[j][1],
+                       e = Math.sqrt(dx*dx + dy*dy) - target[i][j];
+                sum += e * e;
+            }
+        }
+        return sum;
+    }
+}
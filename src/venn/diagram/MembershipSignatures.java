@@ -0,0 +1,181 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * The distinct membership signatures of the elements of a Venn arrangement.
+ * The signature of an element is the bitmask of the sets containing it (bit i
+ * corresponds to set i). An intersection of sets is non-empty if and only if its
+ * mask is contained in the signature of at least one element, so the signatures
+ * describe all non-empty intersections without enumerating the subsets.
+ *
+ * Like the CardinalityTable the signatures are computed once per data model and
+ * shared by all copies of an arrangement.
+ */
+public class MembershipSignatures
+{
+    /**
+     * Maximum number of sets (the signatures are stored as longs).
+     */
+    public static final int MAX_SETS = 64;
+
+    private final int       numSets;
+    private final long[]    signature;  // distinct signatures
+    private final int[]     count;      // number of elements with this signature
+
+    /**
+     *
+     * @param sets element sets (at most {@link #MAX_SETS})
+     */
+    public MembershipSignatures( BitSet[] sets )
+    {
+        if( sets == null )
+            throw new IllegalArgumentException("sets must not be null");
+        if( sets.length > MAX_SETS )
+            throw new IllegalArgumentException("too many sets for membership signatures");
+
+        numSets = sets.length;
+
+        int numElements = 0;
+        for( int i=0; i<sets.length; ++i )
+        {
+            numElements = Math.max(numElements,sets[i].length());
+        }
+        long[] member = new long[numElements];
+        for( int i=0; i<sets.length; ++i )
+        {
+            for( int e=sets[i].nextSetBit(0); e>=0; e=sets[i].nextSetBit(e+1) )
+            {
+                member[e] |= 1L << i;
+            }
+        }
+
+        // count the elements of each distinct signature
+        HashMap<Long,int[]> counts = new HashMap<Long,int[]>();
+        for( int e=0; e<numElements; ++e )
+        {
+            if( member[e] == 0L )
+                continue;
+            Long key = Long.valueOf(member[e]);
+            int[] c = counts.get(key);
+            if( c == null )
+                counts.put(key, c = new int[1]);
+            ++c[0];
+        }
+
+        // sorted, so the result does not depend on the hashing
+        signature = new long[counts.size()];
+        int k = 0;
+        for( Long key : counts.keySet() )
+        {
+            signature[k++] = key.longValue();
+        }
+        Arrays.sort(signature);
+        count = new int[signature.length];
+        for( k=0; k<signature.length; ++k )
+        {
+            count[k] = counts.get(Long.valueOf(signature[k]))[0];
+        }
+    }
+
+    /**
+     *
+     * @param objs
+     * @return The signatures of the elements of the given Venn objects or null
+     * if there are too many objects.
+     */
+    public static MembershipSignatures create( IVennObject[] objs )
+    {
+        if( objs == null || objs.length > MAX_SETS )
+            return null;
+
+        BitSet[] sets = new BitSet[objs.length];
+        for( int i=0; i<objs.length; ++i )
+        {
+            sets[i] = objs[i].getElements();
+        }
+        return new MembershipSignatures(sets);
+    }
+
+    public int getNumOfSets()
+    {
+        return numSets;
+    }
+
+    /**
+     *
+     * @return The number of distinct signatures.
+     */
+    public int size()
+    {
+        return signature.length;
+    }
+
+    public long getSignature( int k )
+    {
+        return signature[k];
+    }
+
+    public int getCount( int k )
+    {
+        return count[k];
+    }
+
+    /**
+     *
+     * @param mask subset bitmask (bit i set for set i)
+     * @return The number of elements contained in all sets of the mask.
+     */
+    public int cardinality( long mask )
+    {
+        int card = 0;
+        for( int k=0; k<signature.length; ++k )
+        {
+            if( (signature[k] & mask) == mask )
+                card += count[k];
+        }
+        return card;
+    }
+
+    /**
+     *
+     * @param candidates indices of signatures or null for all signatures
+     * @param set index of a set
+     * @return The candidates whose signatures contain the given set.
+     */
+    public int[] select( int[] candidates, int set )
+    {
+        long bit = 1L << set;
+        int n = candidates != null ? candidates.length : signature.length;
+        int[] result = new int[n];
+        int num = 0;
+        for( int i=0; i<n; ++i )
+        {
+            int k = candidates != null ? candidates[i] : i;
+            if( (signature[k] & bit) != 0L )
+                result[num++] = k;
+        }
+        return num == n ? result : Arrays.copyOf(result,num);
+    }
+
+    /**
+     *
+     * @param candidates indices of signatures
+     * @return The number of elements of the given signatures.
+     */
+    public int cardinality( int[] candidates )
+    {
+        int card = 0;
+        for( int i=0; i<candidates.length; ++i )
+        {
+            card += count[candidates[i]];
+        }
+        return card;
+    }
+}
@@ -22,7 +22,7 @@ public class OutputStreamVisitor
         buf.append("area = "+node.area+"\n");
 
         buf.append( node.pathToString() + "\n" );
-        buf.append( "GROUPS " + node.path + "\n" );
+        buf.append( "GROUPS " + node.getPath() + "\n" );
       
 		if( node.vennObject != null )
 		{
@@ -38,6 +38,8 @@ implements Cloneable, Serializable, IFilterChainSucc
     private transient LinkedList          listeners; 
     private transient IVennDataModel      model;
     private transient IVennObjectFactory  vennObjectFactory;
+    private transient CardinalityTable    cardinalityTable;
+    private transient MembershipSignatures signatures;
 
     private AllParameters params;
     
@@ -65,6 +67,9 @@ implements Cloneable, Serializable, IFilterChainSucc
         {
             vennObjects[i] = t[i].duplicate();
         }
+        // the element sets are the same, so the table can be shared
+        cardinalityTable = source.getCardinalityTable();
+        signatures = source.getMembershipSignatures();
         valid = true;
         //observe();
         params = source.params;
@@ -119,6 +124,8 @@ implements Cloneable, Serializable, IFilterChainSucc
         if( model == null )
         {
             vennObjects = null;
+            cardinalityTable = null;
+            signatures = null;
             valid = true;
             return;
         }
@@ -137,6 +144,8 @@ implements Cloneable, Serializable, IFilterChainSucc
             }
             vennObjects[gid] = vennObjectFactory.create( Lgid, model.getGroupElements(gid), model.getNumGroups(), params );
         }
+        cardinalityTable = CardinalityTable.create( vennObjects );
+        signatures = MembershipSignatures.create( vennObjects );
         
         //observe();
         
@@ -166,6 +175,28 @@ implements Cloneable, Serializable, IFilterChainSucc
         return vennObjects;
     }
     
+    /**
+     * 
+     * @return The intersection cardinalities of all sets or null if there are
+     * too many sets (see {@link CardinalityTable#MAX_SETS}).
+     */
+    public CardinalityTable getCardinalityTable()
+    {
+        validate();
+        return cardinalityTable;
+    }
+    
+    /**
+     * 
+     * @return The membership signatures of the elements or null if there are
+     * too many sets (see {@link MembershipSignatures#MAX_SETS}).
+     */
+    public MembershipSignatures getMembershipSignatures()
+    {
+        validate();
+        return signatures;
+    }
+    
     /**
      * 
      * @param model
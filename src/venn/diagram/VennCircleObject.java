@@ -0,0 +1,504 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.diagram;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.util.BitSet;
+
+import junit.framework.Assert;
+import venn.db.AbstractGOCategoryProperties;
+import venn.geometry.FPoint;
+import venn.geometry.FRectangle;
+import venn.geometry.ITransformer;
+
+/**
+ * A circular representation of a single set.
+ *
+ * An intersection is represented by the circles it is bounded by. Its area and
+ * center of gravity are computed exactly: the boundary of the intersection of
+ * discs consists of circular arcs, and the area integral is evaluated along these
+ * arcs (Green's theorem).
+ */
+public class VennCircleObject
+extends AbstractVennObject
+{
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    private final double    areaFactor;
+    private final double    origRadius;     // radius of the set for scale 1
+    private final boolean   isIntersection;
+
+    // circles bounding this object (absolute coordinates)
+    private double[]        cx, cy, r;
+    private int             numCircles;
+    private boolean         empty;
+    private boolean         valid;
+
+    private double          cachedArea;     // area of the plane region
+    private FPoint          cachedCenter;
+
+
+    public VennCircleObject( double areaFactor, BitSet elements, boolean logCardinalities )
+    {
+        super( elements );
+        this.areaFactor = areaFactor;
+        this.isIntersection = false;
+
+        int card = elements.cardinality();
+        if (logCardinalities) card = AbstractGOCategoryProperties.log(card);
+        origRadius = Math.sqrt((double)card/(areaFactor*Math.PI));
+
+        cx = new double[1];
+        cy = new double[1];
+        r = new double[1];
+        invalidate();
+    }
+
+    /**
+     * Creates a copy of a set.
+     */
+    private VennCircleObject( double areaFactor, double origRadius, BitSet elements )
+    {
+        super( elements );
+        this.areaFactor = areaFactor;
+        this.origRadius = origRadius;
+        this.isIntersection = false;
+
+        cx = new double[1];
+        cy = new double[1];
+        r = new double[1];
+        invalidate();
+    }
+
+    /**
+     * Creates the intersection of a and b.
+     */
+    private VennCircleObject( BitSet elements, VennCircleObject a, VennCircleObject b, double areaFactor )
+    {
+        super( elements );
+        this.areaFactor = areaFactor;
+        this.origRadius = 0.0;
+        this.isIntersection = true;
+        intersectCircles( a, b );
+    }
+
+    /**
+     * Creates the intersection of a and b with a lazily computed element set.
+     */
+    private VennCircleObject( VennCircleObject a, VennCircleObject b, int card, double areaFactor )
+    {
+        super( a, b, card );
+        this.areaFactor = areaFactor;
+        this.origRadius = 0.0;
+        this.isIntersection = true;
+        intersectCircles( a, b );
+    }
+
+    /**
+     * Creates a copy of an intersection.
+     */
+    private VennCircleObject( VennCircleObject source, BitSet elements )
+    {
+        super( elements );
+        this.areaFactor = source.areaFactor;
+        this.origRadius = 0.0;
+        this.isIntersection = true;
+
+        // the circles of an intersection never change
+        cx = source.cx;
+        cy = source.cy;
+        r = source.r;
+        numCircles = source.numCircles;
+        empty = source.empty;
+        cachedArea = source.cachedArea;
+        cachedCenter = source.cachedCenter;
+        valid = true;
+    }
+
+
+    public double getAreaFactor()
+    {
+        return areaFactor;
+    }
+
+    public void invalidate()
+    {
+        if( ! isIntersection )
+            valid = false;
+    }
+
+    private void validate()
+    {
+        if( ! valid )
+        {   // the single circle of a set is placed by offset and scale
+            numCircles = 1;
+            cx[0] = getOffset().x;
+            cy[0] = getOffset().y;
+            r[0] = origRadius * Math.abs(getScale());
+            empty = false;
+            cachedArea = Math.PI * r[0] * r[0];
+            cachedCenter = getOffset();
+            valid = true;
+        }
+    }
+
+    /**
+     * Collects the circles of a and b. Circles containing another circle are redundant
+     * and are dropped.
+     */
+    private void intersectCircles( VennCircleObject a, VennCircleObject b )
+    {
+        a.validate();
+        b.validate();
+
+        valid = true;
+        if( a.empty || b.empty )
+        {
+            setEmpty();
+            return;
+        }
+
+        int n = a.numCircles + b.numCircles;
+        cx = new double[n];
+        cy = new double[n];
+        r = new double[n];
+        numCircles = 0;
+        for( int i=0; i<a.numCircles && !empty; ++i )
+        {
+            addCircle( a.cx[i], a.cy[i], a.r[i] );
+        }
+        for( int i=0; i<b.numCircles && !empty; ++i )
+        {
+            addCircle( b.cx[i], b.cy[i], b.r[i] );
+        }
+
+        if( ! empty )
+            computeArea();
+    }
+
+    private void addCircle( double x, double y, double radius )
+    {
+        for( int i=0; i<numCircles; ++i )
+        {
+            double d = Math.sqrt( (x-cx[i])*(x-cx[i]) + (y-cy[i])*(y-cy[i]) );
+            if( d >= radius + r[i] )
+            {   // disjoint discs
+                setEmpty();
+                return;
+            }
+            if( d + r[i] <= radius )
+            {   // the new circle contains circle i
+                return;
+            }
+        }
+
+        // remove all circles containing the new one
+        int k = 0;
+        for( int i=0; i<numCircles; ++i )
+        {
+            double d = Math.sqrt( (x-cx[i])*(x-cx[i]) + (y-cy[i])*(y-cy[i]) );
+            if( d + radius > r[i] )
+            {
+                cx[k] = cx[i];
+                cy[k] = cy[i];
+                r[k] = r[i];
+                ++k;
+            }
+        }
+        cx[k] = x;
+        cy[k] = y;
+        r[k] = radius;
+        numCircles = k+1;
+    }
+
+    private void setEmpty()
+    {
+        empty = true;
+        numCircles = 0;
+        cachedArea = 0.0;
+        cachedCenter = null;
+    }
+
+    /**
+     * Computes the area and the center of gravity of the intersection of the discs.
+     * The boundary is the union of the arcs of each circle which lie inside all
+     * other discs. For each arc the integrals 1/2*(x dy - y dx), x^2 dy and y^2 dx
+     * are evaluated analytically.
+     */
+    private void computeArea()
+    {
+        double  area = 0.0,
+                mx = 0.0,       // integral of x^2 dy (= 2 * first moment in x)
+                my = 0.0;       // integral of y^2 dx (= -2 * first moment in y)
+
+        // intervals of angles (start, end) on the current circle, double buffered
+        double[] from = new double[2*numCircles+2], to = new double[2*numCircles+2],
+                 from2 = new double[2*numCircles+2], to2 = new double[2*numCircles+2];
+
+        for( int i=0; i<numCircles; ++i )
+        {
+            int num = 1;
+            double s = 0.0;     // start of the reference interval [s,s+2pi)
+            boolean restricted = false;
+            from[0] = 0.0;
+            to[0] = 2.0*Math.PI;
+
+            for( int j=0; j<numCircles && num > 0; ++j )
+            {
+                if( j == i )
+                    continue;
+
+                double  dx = cx[j]-cx[i],
+                        dy = cy[j]-cy[i],
+                        d = Math.sqrt( dx*dx + dy*dy );
+
+                // arc of circle i inside disc j: [phi-alpha,phi+alpha]
+                double cosAlpha = (d*d + r[i]*r[i] - r[j]*r[j]) / (2.0*d*r[i]);
+                if( cosAlpha >= 1.0 )
+                {   // tangential (or rounding errors)
+                    num = 0;
+                    break;
+                }
+                if( cosAlpha <= -1.0 )
+                    continue;
+
+                double  alpha = Math.acos(cosAlpha),
+                        phi = Math.atan2(dy,dx),
+                        a = phi - alpha,
+                        b;
+
+                if( ! restricted )
+                {   // first restriction: use it as reference interval
+                    restricted = true;
+                    s = a;
+                    from[0] = a;
+                    to[0] = a + 2.0*alpha;
+                    continue;
+                }
+
+                // normalize to [s,s+2pi)
+                a = s + mod2pi( a - s );
+                b = a + 2.0*alpha;
+
+                int num2 = 0;
+                for( int k=0; k<num; ++k )
+                {
+                    // [a, min(b,s+2pi)]
+                    double lo = Math.max(from[k],a),
+                           hi = Math.min(to[k],Math.min(b,s + 2.0*Math.PI));
+                    if( hi > lo )
+                    {
+                        from2[num2] = lo;
+                        to2[num2] = hi;
+                        ++num2;
+                    }
+                    // the part wrapping around: [s, b-2pi]
+                    if( b > s + 2.0*Math.PI )
+                    {
+                        lo = Math.max(from[k],s);
+                        hi = Math.min(to[k],b - 2.0*Math.PI);
+                        if( hi > lo )
+                        {
+                            from2[num2] = lo;
+                            to2[num2] = hi;
+                            ++num2;
+                        }
+                    }
+                }
+
+                double[] tmp;
+                tmp = from; from = from2; from2 = tmp;
+                tmp = to; to = to2; to2 = tmp;
+                num = num2;
+            }
+
+            double  x = cx[i], y = cy[i], rad = r[i];
+            for( int k=0; k<num; ++k )
+            {
+                double  t1 = from[k], t2 = to[k],
+                        s1 = Math.sin(t1), s2 = Math.sin(t2),
+                        c1 = Math.cos(t1), c2 = Math.cos(t2);
+
+                area += 0.5*( rad*rad*(t2-t1) + rad*x*(s2-s1) - rad*y*(c2-c1) );
+
+                mx += x*x*rad*(s2-s1)
+                      + 2.0*x*rad*rad*( 0.5*(t2-t1) + 0.25*(Math.sin(2.0*t2)-Math.sin(2.0*t1)) )
+                      + rad*rad*rad*( (s2 - s2*s2*s2/3.0) - (s1 - s1*s1*s1/3.0) );
+
+                my -= y*y*rad*(c1-c2)
+                      + 2.0*y*rad*rad*( 0.5*(t2-t1) - 0.25*(Math.sin(2.0*t2)-Math.sin(2.0*t1)) )
+                      + rad*rad*rad*( (c1 - c1*c1*c1/3.0) - (c2 - c2*c2*c2/3.0) );
+            }
+        }
+
+        if( area <= 0.0 )
+        {
+            setEmpty();
+            return;
+        }
+        cachedArea = area;
+        cachedCenter = new FPoint( mx/(2.0*area), -my/(2.0*area) );
+    }
+
+    private static double mod2pi( double x )
+    {
+        double y = x % (2.0*Math.PI);
+        if( y < 0.0 )
+            y += 2.0*Math.PI;
+        return y;
+    }
+
+    /* (non-Javadoc)
+     * @see venn.IVennObject#contains(venn.geometry.FPoint)
+     */
+    public boolean contains(FPoint p)
+    {
+        validate();
+        if( empty )
+            return false;
+
+        for( int i=0; i<numCircles; ++i )
+        {
+            double  dx = p.x - cx[i],
+                    dy = p.y - cy[i];
+            if( dx*dx + dy*dy > r[i]*r[i] )
+                return false;
+        }
+        return true;
+    }
+
+    /* (non-Javadoc)
+     * @see venn.IVennObject#directPaint(java.awt.Graphics, venn.geometry.ITransformer)
+     */
+    public void directPaint(Graphics g, ITransformer t)
+    {
+        if( isEmpty() || t == null )
+            return;
+
+        Area shape = null;
+        for( int i=0; i<numCircles; ++i )
+        {
+            Point   a = t.transform(new FPoint(cx[i]-r[i],cy[i]-r[i])),
+                    b = t.transform(new FPoint(cx[i]+r[i],cy[i]+r[i]));
+            Area circle = new Area( new Ellipse2D.Float( Math.min(a.x,b.x), Math.min(a.y,b.y),
+                                                         Math.abs(a.x-b.x), Math.abs(a.y-b.y) ) );
+            if( shape == null )
+                shape = circle;
+            else
+                shape.intersect(circle);
+        }
+
+        Graphics2D ga = (Graphics2D)g;
+        ga.setPaint( getFillColor() );
+        ga.fill( shape );
+        if( isIntersection )
+            ga.setPaint( getBorderColor() );
+        ga.draw( shape );
+    }
+
+    /* (non-Javadoc)
+     * @see venn.IVennObject#intersect(venn.IVennObject)
+     */
+    public IVennObject intersect(IVennObject obj)
+    {
+        Assert.assertNotNull( obj );
+
+        // intersect elements
+        BitSet            elem = (BitSet)getElements().clone();
+        elem.and( obj.getElements() );
+
+        VennCircleObject newObj = new VennCircleObject( elem, this, (VennCircleObject)obj, areaFactor );
+        newObj.interpolateFillColor( this, obj );
+
+        return newObj;
+    }
+
+    /* (non-Javadoc)
+     * @see venn.diagram.IVennObject#intersect(venn.diagram.IVennObject, int)
+     */
+    public IVennObject intersect(IVennObject obj, int card)
+    {
+        Assert.assertNotNull( obj );
+
+        VennCircleObject newObj = new VennCircleObject( this, (VennCircleObject)obj, card, areaFactor );
+        newObj.interpolateFillColor( this, obj );
+
+        return newObj;
+    }
+
+    /* (non-Javadoc)
+     * @see venn.IVennObject#area()
+     */
+    public double area()
+    {
+        validate();
+        return areaFactor * cachedArea;
+    }
+
+    public String toString()
+    {
+        StringBuffer buf = new StringBuffer();
+        buf.append( super.toString() );
+        buf.append( "\n" );
+
+        return buf.toString();
+    }
+
+    public boolean isEmpty()
+    {
+        validate();
+        return empty;
+    }
+
+    /**
+     *
+     * @return The bounding box of the set or a box around the intersection.
+     */
+    public FRectangle getBoundingBox()
+    {
+        validate();
+        if( empty )
+            return null;
+
+        double  minX = Double.NEGATIVE_INFINITY, minY = Double.NEGATIVE_INFINITY,
+                maxX = Double.POSITIVE_INFINITY, maxY = Double.POSITIVE_INFINITY;
+        for( int i=0; i<numCircles; ++i )
+        {
+            minX = Math.max(minX,cx[i]-r[i]);
+            minY = Math.max(minY,cy[i]-r[i]);
+            maxX = Math.min(maxX,cx[i]+r[i]);
+            maxY = Math.min(maxY,cy[i]+r[i]);
+        }
+        return new FRectangle(minX,minY,maxX,maxY);
+    }
+
+    public IVennObject duplicate()
+    {
+        IVennObject dup;
+        if( ! isIntersection )
+            dup = new VennCircleObject( areaFactor, origRadius, getElements() );
+        else
+            dup = new VennCircleObject( this, getElements() );
+
+        dup.setLock( getLock() );
+
+        return dup;
+    }
+
+    public FPoint getCenter()
+    {
+        validate();
+        if( empty )
+            throw new IllegalStateException("object is empty");
+        return cachedCenter;
+    }
+}
@@ -108,6 +108,8 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 		this.arrangement = null;
 		transformer = new AffineTransformer();
 		tree = new IntersectionTree(maxLevel, logCardinalities);
+		if (arrangement != null && arrangement.getParameters() != null)
+			tree.setSparse(arrangement.getParameters().errorFunction.sparseTree);
 
 		selectedNodes = new ArrayList();
 		currentNode = null;
@@ -166,7 +168,9 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 		for (Map.Entry<BitSet, Color> entr : pathColors.entrySet()) {
 			BitSet path = entr.getKey();
 			Color color = entr.getValue();
-			tree.getByPath(path).vennObject.setFillColor(color);
+			IntersectionTreeNode node = tree.getByPath(path);
+			if (node != null) // empty intersections are omitted by sparse trees
+				node.vennObject.setFillColor(color);
 		}
 	}
 
@@ -318,7 +322,10 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 			BitSet path = entr.getKey();
 			if (path.cardinality() < 2)
 				continue;
-			IVennObject vo = tree.getByPath(path).vennObject;
+			IntersectionTreeNode node = tree.getByPath(path);
+			if (node == null)
+				continue;
+			IVennObject vo = node.vennObject;
 			vo.setFillColor(entr.getValue());
 			vennobjs.add(vo);
 		}
@@ -444,8 +451,12 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 
 						// Polygon intersection point
 						FPoint a, b;
-						a = ((VennPolygonObject) node.vennObject).getPolygon()
-								.intersect(seg);
+						if (node.vennObject instanceof VennPolygonObject) {
+							a = ((VennPolygonObject) node.vennObject).getPolygon()
+									.intersect(seg);
+						} else {
+							a = node.vennObject.getCenter();
+						}
 						b = rect.toPolygon().intersect(seg);
 
 						if ((a != null) && (b != null)) {
@@ -590,10 +601,10 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 		Iterator iter = selectedNodes.iterator();
 		while (iter.hasNext()) {
 			IntersectionTreeNode node = (IntersectionTreeNode) iter.next();
-			groups.or(node.path);
+			groups.or(node.getPath());
 		}
 		if (currentNode != null)
-			groups.or(currentNode.path);
+			groups.or(currentNode.getPath());
 
 		return groups;
 	}
@@ -1045,7 +1056,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 	}
 
 	private String getNodeInfo(IntersectionTreeNode node) {
-		return mapGroupSet(node.path) + " : " + getCardString(node);
+		return mapGroupSet(node.getPath()) + " : " + getCardString(node);
 
 	}
 
@@ -1084,7 +1095,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 		if (node == null)
 			return null;
 
-		// return mapGroupSet(node.path) + " : "+getCardString(node)+" : " +
+		// return mapGroupSet(node.getPath()) + " : "+getCardString(node)+" : " +
 		// nf.format(node.area);
 		String str = getNodeInfo(node) + " : " + nf.format(node.area);
 		return str;
@@ -1097,7 +1108,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 			BitSet el = currentNode.vennObject.getElements();
 
 			buf.append("#groups=");
-			buf.append(currentNode.path.cardinality());
+			buf.append(currentNode.getPath().cardinality());
 			buf.append("  ");
 
 			buf.append("#elements=");
@@ -1105,7 +1116,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 			buf.append(getCardString(currentNode));
 			buf.append("\n");
 
-			buf.append(mapGroupSet(currentNode.path));
+			buf.append(mapGroupSet(currentNode.getPath()));
 			buf.append("\n");
 
 			for (int i = el.nextSetBit(0); i >= 0; i = el.nextSetBit(i + 1)) {
@@ -1251,7 +1262,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 			if (currentNode == null)
 				return;
 
-			String text = mapGroupSet(currentNode.path) + " : "
+			String text = mapGroupSet(currentNode.getPath()) + " : "
 					+ getSelectedNodeElementsString();
 			makeLabel(text);
 
@@ -1265,13 +1276,13 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 					currentNode.vennObject.getFillColor());
 			if (newColor != null) {
 				float alpha;
-				if (currentNode.path.cardinality() == 1) {
+				if (currentNode.getPath().cardinality() == 1) {
 					alpha = 0.6f;
 				} else {
 					alpha = 0.8f;
 				}
 				float[] colComps = newColor.getColorComponents(null);
-				pathColors.put(currentNode.path, new Color(colComps[0],
+				pathColors.put(currentNode.getPath(), new Color(colComps[0],
 						colComps[1], colComps[2], alpha));
 			}
 			updateManuallySetColors();
@@ -1308,7 +1319,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 		if (currentNode == null) {
 			return;
 		}
-		String text = mapGroupSet(currentNode.path) + " : "
+		String text = mapGroupSet(currentNode.getPath()) + " : "
 				+ getSelectedNodeElementsString();
 
 		Writer os = Gui.getExportFileWriter(this);
@@ -1333,7 +1344,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 	 */
 	private void makeLabel(String text) {
 		if (text != null) {
-			DragLabel label = new DragLabel(transformer, text, currentNode.path);
+			DragLabel label = new DragLabel(transformer, text, currentNode.getPath());
 			if (popupPosition != null) {
 				label.setLocation(popupPosition.x, popupPosition.y);
 			} else {
@@ -1363,7 +1374,7 @@ public class VennDiagramView extends JPanel implements IVennDiagramView,
 	private void makeMultilineLabel(String text) {
 		if (text != null) {
 			DragLabel label = new MultilineDragLabel(transformer, text,
-					currentNode.path);
+					currentNode.getPath());
 			if (popupPosition != null) {
 				label.setLocation(popupPosition.x, popupPosition.y);
 			} else {
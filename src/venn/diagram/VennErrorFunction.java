@@ -10,7 +10,12 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.io.Writer;
-import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -20,7 +25,11 @@ import venn.Constants;
 import venn.db.AbstractGOCategoryProperties;
 import venn.geometry.FPoint;
 import venn.geometry.FRectangle;
+import venn.optim.FitnessCache;
 import venn.optim.IFunction;
+import venn.optim.IResolutionFunction;
+import venn.optim.ISeedFunction;
+import venn.parallel.ExecutorServiceFactory;
 import venn.utility.MathUtility;
 import venn.utility.SystemUtility;
 
@@ -30,7 +39,7 @@ import venn.utility.SystemUtility;
  * @author muellera
  */
 public class VennErrorFunction
-implements IFunction, ChangeListener
+implements ISeedFunction, IResolutionFunction, ChangeListener
 {
 	private Parameters             params;
 	private IntersectionTree       tree;			// the intersection tree
@@ -42,6 +51,18 @@ implements IFunction, ChangeListener
     private double                  cacheErrorFunction,     // partial cost cache
                                     cachePressureCost,
                                     cost;
+    // copies of this function for getOutputs(), each one is used by one thread at a time
+    private ConcurrentLinkedQueue<VennErrorFunction> scratch;
+    private MDSLayout               layout;         // seed layout (created on demand)
+    // number of polygon edges (0: as created), shared by all copies
+    private AtomicInteger           resolution;
+    private int                     appliedResolution;  // number of edges of the sets of this copy
+    // values of recent inputs (null if disabled), shared by all copies and replaced by setParameters()
+    private AtomicReference<FitnessCache> cache;
+    private double[]                input;          // the last input (only with a cache)
+    private boolean                 inputValid;     // the sets are placed as given by input
+    
+    private static final double     SEED_NOISE = 0.02;  // relative to the bounds
 
     
     public VennErrorFunction( IntersectionTree tree, Parameters params )
@@ -62,6 +83,7 @@ implements IFunction, ChangeListener
 	{
 		this.params = params;
 		tree = new IntersectionTree( params.maxIntersections, params.logCardinalities );
+		tree.setSparse( params.sparseTree );
 		tree.setArrangement( arrangement );
         
         initializeTransient();
@@ -71,13 +93,23 @@ implements IFunction, ChangeListener
     @Override
 	public IFunction copy() {
     	
-    	return new VennErrorFunction(new VennArrangement(this.getArrangement()),params);
+    	VennErrorFunction func = new VennErrorFunction(new VennArrangement(this.getArrangement()),params);
+    	func.layout = getLayout();	// the copies share the seed layout
+    	func.resolution = resolution;
+    	func.cache = cache;
+    	return func;
 	}
 
 	private void initializeTransient()
     {
         valid = false;  
         visitor = new ErrorFunctionVisitor();
+        resolution = new AtomicInteger(0);
+        appliedResolution = -1;    // the sets may be copies of coarser sets
+        scratch = new ConcurrentLinkedQueue<VennErrorFunction>();
+        cache = new AtomicReference<FitnessCache>(
+                params.cacheSize > 0 ? new FitnessCache(params.cacheSize) : null);
+        inputValid = false;
         
         lowerBounds = new double[getNumInput()];
         upperBounds = new double[getNumInput()];
@@ -144,7 +176,18 @@ implements IFunction, ChangeListener
 	public void setParameters(Parameters params)
 	{
 	    this.params = params;
+	    scratch.clear();
+
+        // the cached values belong to the old parameters
+        FitnessCache old = cache.get();
+        if( params.cacheSize <= 0 )
+            cache.set(null);
+        else if( old != null && old.getCapacity() == params.cacheSize )
+            old.clear();
+        else
+            cache.set(new FitnessCache(params.cacheSize));
 
+        tree.setSparse( params.sparseTree );
         invalidate();
 	}
 	
@@ -158,6 +201,108 @@ implements IFunction, ChangeListener
 	{
 		return tree;
 	}
+	
+	public int getMaxResolution()
+	{
+		int max = 0;
+		IVennObject[] sets = getArrangement().getVennObjects();
+		for( int i=0; i<sets.length; ++i )
+		{
+			if( sets[i] instanceof VennPolygonObject )
+				max = Math.max(max, ((VennPolygonObject)sets[i]).getMaxEdges());
+		}
+		return max;
+	}
+	
+	/**
+	 * Sets the number of edges of the polygons (n-gons) of this function and all its copies.
+	 */
+	public void setResolution(int resolution)
+	{
+		this.resolution.set(Math.max(0,resolution));
+		FitnessCache cache = this.cache.get();
+		if( cache != null )
+			cache.clear();
+	}
+	
+	public int getResolution()
+	{
+		return resolution.get();
+	}
+	
+	/**
+	 * Regenerates the polygons if the resolution has been changed.
+	 */
+	private void applyResolution()
+	{
+		int res = resolution.get();
+		if( res == appliedResolution )
+			return;
+		
+		IVennObject[] sets = getArrangement().getVennObjects();
+		for( int i=0; i<sets.length; ++i )
+		{
+			if( sets[i] instanceof VennPolygonObject )
+				((VennPolygonObject)sets[i]).setNumEdges(res);
+		}
+		appliedResolution = res;
+		
+		// all intersections have to be computed again
+		tree.invalidateAll();
+		valid = false;
+	}
+	
+	/**
+	 * 
+	 * @return The layout of the sets derived from their pairwise overlaps.
+	 */
+	private synchronized MDSLayout getLayout()
+	{
+		if( layout == null )
+			layout = new MDSLayout(getArrangement());
+		return layout;
+	}
+	
+	/**
+	 * The MDS layout of the sets (see MDSLayout), randomly rotated and mirrored,
+	 * shrunk to fit the bounds and slightly perturbed.
+	 * The scales are set to 1 (if allowed).
+	 */
+	public double[] getSeed(Random random)
+	{
+		int N = getNumOfSets();
+		double[][] c = getLayout().getCenters();
+		double angle = 2.0 * Math.PI * random.nextDouble(),
+		       cos = Math.cos(angle),
+		       sin = Math.sin(angle),
+		       mirror = random.nextBoolean() ? -1.0 : 1.0;
+		
+		double[] seed = new double[getNumInput()];
+		double shrink = 1.0;
+		for( int i=0; i<N; ++i )
+		{
+			seed[2*i] = cos * c[i][0] - sin * mirror * c[i][1];
+			seed[2*i+1] = sin * c[i][0] + cos * mirror * c[i][1];
+			for( int k=2*i; k<2*i+2; ++k )
+			{
+				double half = 0.5 * (upperBounds[k] - lowerBounds[k]);
+				if( Math.abs(seed[k]) > half )
+					shrink = Math.min(shrink, half / Math.abs(seed[k]));
+			}
+		}
+		for( int k=0; k<2*N; ++k )
+		{
+			double mid = 0.5 * (lowerBounds[k] + upperBounds[k]);
+			seed[k] = MathUtility.restrict(mid + shrink * seed[k]
+					+ SEED_NOISE * (upperBounds[k] - lowerBounds[k]) * random.nextGaussian(),
+					lowerBounds[k], upperBounds[k]);
+		}
+		for( int k=2*N; k<seed.length; ++k )
+		{
+			seed[k] = MathUtility.restrict(1.0, lowerBounds[k], upperBounds[k]);
+		}
+		return seed;
+	}
     	
     /**
      * An IIntersectionTreeVisitor which summarizes an error value.
@@ -278,16 +423,13 @@ implements IFunction, ChangeListener
             min_card = -1;
             
             IVennObject[] objs = tree.getArrangement().getVennObjects();
-            for(int i=0; i<node.path.length();++i)
+            for(int i=node.nextSetIndex(0); i>=0; i=node.nextSetIndex(i+1))
             {
-                if( node.path.get(i) )
+                int card = objs[i].cardinality();
+                if (params.logCardinalities) card = AbstractGOCategoryProperties.log(card);
+                if( min_card < 0 ||  card < min_card )
                 {
-                    int card = objs[i].cardinality();
-                    if (params.logCardinalities) card = AbstractGOCategoryProperties.log(card);
-                    if( min_card < 0 ||  card < min_card )
-                    {
-                        min_card = card;
-                    }
+                    min_card = card;
                 }
             }
             
@@ -342,7 +484,7 @@ implements IFunction, ChangeListener
                 if( os != null )
                 {
                     StringBuffer buf = new StringBuffer();
-                    buf.append(node.path.toString());
+                    buf.append(node.getPath().toString());
                     buf.append("\t");
                     buf.append(node.nRight);
                     buf.append("\t");
@@ -377,7 +519,6 @@ implements IFunction, ChangeListener
      */
     public void getDeviations(double[][] d)
     {        
-        BitSet path = new BitSet();
         Assert.assertEquals(d.length,getNumOfSets());
 
         // set diagonal to zero
@@ -391,16 +532,10 @@ implements IFunction, ChangeListener
         {
             for( int j=i+1; j<d.length; ++j )
             {
-                path.clear();
-                path.set(i);
-                path.set(j);
-                
-                IntersectionTreeNode node = tree.getByPath(path);
+                IntersectionTreeNode node = tree.getPair(i,j);
                 if( node != null )
                 {
-                	int card = node.card;
-                    if (params.logCardinalities) card = AbstractGOCategoryProperties.log(card);
-                    d[i][j] = (double)card - node.area;
+                    d[i][j] = getDeviation(node);
                     d[j][i] = d[i][j];
                 }
                 else
@@ -412,8 +547,23 @@ implements IFunction, ChangeListener
         }
     }
     
+    /**
+     * 
+     * @param node
+     * @return The difference card-area of the node.
+     */
+    private double getDeviation(IntersectionTreeNode node)
+    {
+        int card = node.card;
+        if (params.logCardinalities) card = AbstractGOCategoryProperties.log(card);
+        return (double)card - node.area;
+    }
+    
     /**
      * A.M.
+     * The deviations are read directly from the pair nodes of the tree
+     * (the same as getDeviations() without the matrix).
+     * 
      * @return pressure cost term (to force sets which are far away)
      */
     public double getPressureCost()
@@ -421,16 +571,21 @@ implements IFunction, ChangeListener
         double cost = 0.0;
 
         int N = getNumOfSets();
-        double[][] d = new double[N][N];
         IVennObject[] sets = tree.getArrangement().getVennObjects();
+        IntersectionTreeNode[] pairs = tree.getPairs();
         
-        getDeviations(d);
-        
+        int k = 0;
         for( int i=0; i<N-1; ++i )
         {
             for( int j=i+1; j<N; ++j )
             {
-                cost += sets[j].getOffset().distance(sets[i].getOffset()) * Math.abs(d[i][j]);
+                IntersectionTreeNode node = pairs[k++];
+                if( node == null )
+                    continue;   // no deviation
+                
+                double d = getDeviation(node);
+                if( d != 0.0 )
+                    cost += sets[j].getOffset().distance(sets[i].getOffset()) * Math.abs(d);
             }
         }        
         return cost;
@@ -486,6 +641,25 @@ implements IFunction, ChangeListener
         tree.invalidate();
         
         valid = false;
+        applyResolution();
+        
+        if( cache.get() != null )
+        {
+            if( this.input == null )
+                this.input = new double[input.length];
+            System.arraycopy(input,0,this.input,0,input.length);
+            inputValid = true;
+        }
+    }
+    
+    /**
+     * 
+     * @return The cache of the function values or null if it is disabled
+     * (see Parameters.cacheSize). The cache is shared by all copies.
+     */
+    public FitnessCache getCache()
+    {
+        return cache.get();
     }
     
     public VennArrangement getArrangement()
@@ -511,6 +685,19 @@ implements IFunction, ChangeListener
 
     public double getOutput()
     {
+        applyResolution();
+        FitnessCache cache = this.cache.get();
+        if( !valid && cache != null && inputValid )
+        {
+            double[] values = cache.get(input);
+            if( values != null && (int)values[3] == appliedResolution )
+            {
+                cost = values[0];
+                cacheErrorFunction = values[1];
+                cachePressureCost = values[2];
+                valid = true;
+            }
+        }
         if( !valid )
         {
             visitor.reset();
@@ -532,10 +719,80 @@ implements IFunction, ChangeListener
             }
             
             valid = true;
+            if( cache != null && inputValid )
+                cache.put(input,new double[]{cost,cacheErrorFunction,cachePressureCost,appliedResolution});
         }
         return -cost;   // an optimizer maximizes a function
     }
     
+    public double[] getOutputs(double[][] inputs)
+    {
+        double[] outputs = new double[inputs.length];
+        ForkJoinPool pool = ExecutorServiceFactory.getForkJoinPool();
+        
+        if( inputs.length <= 1 || pool.getParallelism() <= 1 )
+        {
+            new BatchTask(inputs,outputs,0,inputs.length,inputs.length).compute();
+        }
+        else
+        {
+            // a few chunks per thread balance the different costs of the inputs
+            int chunk = Math.max(1,inputs.length/(4*pool.getParallelism()));
+            pool.invoke(new BatchTask(inputs,outputs,0,inputs.length,chunk));
+        }
+        return outputs;
+    }
+    
+    /**
+     * Evaluates inputs[from..to) on a scratch copy of this function.
+     */
+    private class BatchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private final double[][] inputs;
+        private final double[] outputs;
+        private final int from, to, chunk;
+        
+        BatchTask(double[][] inputs, double[] outputs, int from, int to, int chunk)
+        {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+        
+        protected void compute()
+        {
+            if( to - from > chunk )
+            {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(inputs,outputs,from,mid,chunk),
+                          new BatchTask(inputs,outputs,mid,to,chunk));
+                return;
+            }
+            
+            VennErrorFunction func = scratch.poll();
+            if( func == null )
+            {
+                func = new VennErrorFunction(new VennArrangement(getArrangement()),params);
+                func.resolution = resolution;
+                func.cache = cache;
+            }
+            try {
+                for( int i=from; i<to; ++i )
+                {
+                    func.setInput(inputs[i]);
+                    outputs[i] = func.getOutput();
+                }
+            }
+            finally {
+                scratch.add(func);
+            }
+        }
+    }
+    
     /**
      * 
      * @return Partial costs
@@ -558,6 +815,7 @@ implements IFunction, ChangeListener
     private void invalidate() 
     {
         valid = false;
+        inputValid = false;
         tree.invalidate();
     }
     
@@ -584,6 +842,8 @@ implements IFunction, ChangeListener
         public double   minScale,
                         maxScale;
         public boolean logCardinalities;
+        public boolean sparseTree;      // omit intersections which are empty in the data and in the plane
+        public int cacheSize;           // number of cached function values (0: no cache)
         
         public Parameters()
         {
@@ -597,6 +857,8 @@ implements IFunction, ChangeListener
             delta = 400.0;
             minScale = 1.0;
             maxScale = 1.0;
+            sparseTree = true;
+            cacheSize = 0;
         }
         
         public Object clone()
@@ -640,6 +902,9 @@ implements IFunction, ChangeListener
             olddouble = maxScale;
             if (olddouble != (maxScale = MathUtility.restrict(maxScale,1.0,1.5))) changed = true;
             
+            oldint = cacheSize;
+            if (oldint != (cacheSize = MathUtility.restrict(cacheSize,0,1000000))) changed = true;
+            
             return ! changed;
         }
     }    
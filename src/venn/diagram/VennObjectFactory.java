@@ -21,7 +21,7 @@ import venn.AllParameters;
 public class VennObjectFactory implements IVennObjectFactory 
 {
     public final static int VIEW_POLYGON = 0;
-    // public final static int VIEW_CIRCLE = 1;
+    public final static int VIEW_CIRCLE = 1;
     // public final static int VIEW_RECTANGLE = 2;
     
     private int view;
@@ -106,6 +106,10 @@ public class VennObjectFactory implements IVennObjectFactory
         	case VIEW_POLYGON:
         	    obj = new VennPolygonObject(numEdges,areaFactor,elements, params.logNumElements,false); 
                 break;
+                
+        	case VIEW_CIRCLE:
+        	    obj = new VennCircleObject(areaFactor,elements, params.logNumElements); 
+                break;
         	    
         	default:
         	    throw new IllegalStateException("wrong view type");
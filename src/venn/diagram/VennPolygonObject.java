@@ -4,7 +4,6 @@
  */
 package venn.diagram;
 
-import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
@@ -36,9 +35,10 @@ extends AbstractVennObject
     private static final long serialVersionUID = 1L;
     
     
-    private final FPolygon  origPolygon;
+    private FPolygon        origPolygon;
     private FPolygon        cachedPolygon;
     private boolean         valid;
+    private boolean         placed;     // cachedPolygon is origPolygon scaled and translated
 
 
     private final double areaFactor;
@@ -46,18 +46,87 @@ extends AbstractVennObject
 
 	private boolean isIntersection;
     
+    // circumradius of the n-gon origPolygon (0 if unknown)
+    private double radius;
+    // area of the n-gon, number of edges as created and current number of edges (0 if no n-gon)
+    private final double ngonArea;
+    private final int maxEdges;
+    private int numEdges;
+    // absolute circle around the polygon of an intersection (boundR is 0 if unknown)
+    private final double boundX, boundY, boundR;
+    
+    private static volatile IIntersectionMetrics metrics;
+    
     
     public VennPolygonObject( FPolygon polygon, BitSet elements, double areaFactor, boolean isIntersection )
+    {
+        this( polygon, elements, areaFactor, isIntersection, 0.0, 0.0, 0, 0 );
+    }
+    
+    /**
+     * 
+     * @param radius circumradius of the n-gon polygon or 0 if it is no n-gon
+     */
+    private VennPolygonObject( FPolygon polygon, BitSet elements, double areaFactor, boolean isIntersection, double radius,
+                               double ngonArea, int maxEdges, int numEdges )
     {
         super( elements );
         this.isIntersection =isIntersection;
         this.areaFactor = areaFactor;
+        this.radius = radius;
+        this.ngonArea = ngonArea;
+        this.maxEdges = maxEdges;
+        this.numEdges = numEdges;
+        boundX = boundY = boundR = 0.0;
         
         origPolygon = polygon;
         cachedPolygon = polygon;
         valid = true;
     }
     
+    /**
+     * Creates an intersection object with a lazily computed element set.
+     */
+    private VennPolygonObject( FPolygon polygon, IVennObject a, IVennObject b, int card, double areaFactor )
+    {
+        super( a, b, card );
+        this.isIntersection = true;
+        this.areaFactor = areaFactor;
+        radius = 0.0;
+        ngonArea = 0.0;
+        maxEdges = numEdges = 0;
+        
+        // the intersection lies in the smaller circle of both operands
+        VennPolygonObject   bound = null;
+        double              r = 0.0;
+        if( a instanceof VennPolygonObject && ((VennPolygonObject)a).circleRadius() > 0.0 )
+        {
+            bound = (VennPolygonObject)a;
+            r = bound.circleRadius();
+        }
+        if( b instanceof VennPolygonObject && ((VennPolygonObject)b).circleRadius() > 0.0 )
+        {
+            if( bound == null || ((VennPolygonObject)b).circleRadius() < r )
+            {
+                bound = (VennPolygonObject)b;
+                r = bound.circleRadius();
+            }
+        }
+        if( bound != null )
+        {
+            boundX = bound.circleX();
+            boundY = bound.circleY();
+            boundR = r;
+        }
+        else
+        {
+            boundX = boundY = boundR = 0.0;
+        }
+        
+        origPolygon = polygon;
+        cachedPolygon = polygon;
+        valid = true;
+    }
     
     
     public VennPolygonObject( int numEdges, double areaFactor, BitSet elements, boolean logCardinalities, boolean isIntersection)
@@ -69,11 +138,56 @@ extends AbstractVennObject
 //      double radius = FPolygon.radiusNgon(numEdges,(double)elements.cardinality()/areaFactor);
         int card = elements.cardinality();
         if (logCardinalities) card = AbstractGOCategoryProperties.log(card);
-        double radius = FPolygon.radiusNgon(numEdges,(double)card/areaFactor);
+        ngonArea = (double)card/areaFactor;
+        maxEdges = this.numEdges = numEdges;
+        radius = FPolygon.radiusNgon(numEdges,ngonArea);
         origPolygon = FPolygon.createNgon(numEdges,radius);   
+        boundX = boundY = boundR = 0.0;
 
         invalidate();
     }
+    
+    /**
+     * Replaces the n-gon by an n-gon of the same area with a different number of edges.
+     * Polygons which are no n-gons are not changed.
+     * 
+     * @param n The number of edges, values &lt;= 0 or above the number of edges 
+     * the object was created with restore the original resolution.
+     */
+    public void setNumEdges( int n )
+    {
+        if( maxEdges <= 0 )
+            return;
+        if( n <= 0 || n > maxEdges )
+            n = maxEdges;
+        else
+            n = Math.max(3,n);
+        if( n == numEdges )
+            return;
+        
+        numEdges = n;
+        radius = FPolygon.radiusNgon(numEdges,ngonArea);
+        origPolygon = FPolygon.createNgon(numEdges,radius);
+        invalidate();
+    }
+    
+    /**
+     * 
+     * @return The current number of edges of the n-gon or 0 if it is no n-gon.
+     */
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+    
+    /**
+     * 
+     * @return The number of edges the n-gon was created with or 0 if it is no n-gon.
+     */
+    public int getMaxEdges()
+    {
+        return maxEdges;
+    }
 
     
     public double getAreaFactor()
@@ -107,6 +221,7 @@ extends AbstractVennObject
                 cachedPolygon = (FPolygon)origPolygon.clone();
                 cachedPolygon.scale( getScale() );
                 cachedPolygon.translate( getOffset() );
+                placed = true;
             } else
             {
                 cachedPolygon = null;
@@ -171,34 +286,118 @@ extends AbstractVennObject
     {
         Assert.assertNotNull( obj );
         
-        VennPolygonObject other = (VennPolygonObject)obj;
-        
-        FPolygon    poly = null;
-        
-        if( getPolygon() != null && other.getPolygon() != null )
-        {
-            poly = getPolygon().intersect(other.getPolygon());
-        }
-        
         // intersect elements
         BitSet            elem = (BitSet)getElements().clone();
         elem.and( obj.getElements() );
         
-        VennPolygonObject newObj = new VennPolygonObject( poly, elem, areaFactor,true );
+        VennPolygonObject newObj = new VennPolygonObject( intersectPolygon(obj), elem, areaFactor,true );
+        newObj.interpolateFillColor( this, obj );
         
-        // interpolate colors
-        float[] a = new float[4], 
-                b = new float[4];
-        
-        getFillColor().getRGBComponents(a);
-        obj.getFillColor().getRGBComponents(b);
+        return newObj;
+    }
+    
+    /* (non-Javadoc)
+     * @see venn.diagram.IVennObject#intersect(venn.diagram.IVennObject, int)
+     */
+    public IVennObject intersect(IVennObject obj, int card) 
+    {
+        Assert.assertNotNull( obj );
         
-        newObj.setFillColor( new Color( 0.5f*(a[0]+b[0]),0.5f*(a[1]+b[1]),
-                                        0.5f*(a[2]+b[2]),0.5f*(a[3]+b[3]) ) );
+        VennPolygonObject newObj = new VennPolygonObject( intersectPolygon(obj), this, obj, card, areaFactor );
+        newObj.interpolateFillColor( this, obj );
         
         return newObj;
     }
-
+    
+    private FPolygon intersectPolygon(IVennObject obj)
+    {
+        VennPolygonObject other = (VennPolygonObject)obj;
+        
+        FPolygon    poly = null;
+        
+        if( separated(other) )
+        {   // no need to validate the polygons
+            if( metrics != null )
+                metrics.rejected();
+            return null;
+        }
+        
+        if( getPolygon() != null && other.getPolygon() != null )
+        {
+            if( getPolygon().intersectsBoundingBox(other.getPolygon()) )
+            {
+                if( metrics != null )
+                    metrics.computed();
+                poly = getPolygon().intersect(other.getPolygon());
+            }
+            else
+            {
+                if( metrics != null )
+                    metrics.rejected();
+            }
+        }
+        return poly;
+    }
+    
+    /**
+     * Separation test using the circles around both polygons.
+     * 
+     * @param other
+     * @return True if the polygons are known to be disjoint.
+     */
+    private boolean separated(VennPolygonObject other)
+    {
+        double  r1 = circleRadius(),
+                r2 = other.circleRadius();
+        if( r1 <= 0.0 || r2 <= 0.0 )
+            return false;
+        
+        double  dx = circleX() - other.circleX(),
+                dy = circleY() - other.circleY(),
+                r = (r1 + r2) * (1.0 + 1E-9);  // tolerance for rounding errors of the n-gon points
+        return dx*dx + dy*dy > r*r;
+    }
+    
+    /**
+     * 
+     * @return The radius of a circle containing the polygon or 0 if unknown.
+     */
+    private double circleRadius()
+    {
+        if( radius > 0.0 && (placed || !valid) )
+            return radius * Math.abs(getScale());
+        return boundR;
+    }
+    
+    private double circleX()
+    {
+        if( radius > 0.0 && (placed || !valid) )
+            return getOffset().x;
+        return boundX;
+    }
+    
+    private double circleY()
+    {
+        if( radius > 0.0 && (placed || !valid) )
+            return getOffset().y;
+        return boundY;
+    }
+    
+    /**
+     * Sets the hook which counts the rejected and computed polygon intersections.
+     * 
+     * @param m metrics or null to disable counting
+     */
+    public static void setMetrics(IIntersectionMetrics m)
+    {
+        metrics = m;
+    }
+    
+    public static IIntersectionMetrics getMetrics()
+    {
+        return metrics;
+    }
+    
     /* (non-Javadoc)
      * @see venn.IVennObject#area()
      */
@@ -237,7 +436,8 @@ extends AbstractVennObject
     
     public IVennObject duplicate()
     {
-        IVennObject dup = new VennPolygonObject( origPolygon, getElements(), areaFactor,isIntersection );
+        IVennObject dup = new VennPolygonObject( origPolygon, getElements(), areaFactor,isIntersection, radius,
+                                                 ngonArea, maxEdges, numEdges );
         
         dup.setLock( getLock() );
         
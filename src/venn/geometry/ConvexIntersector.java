@@ -0,0 +1,448 @@
+/*
+ * VennMaster/geometry/ConvexIntersector.java
+ *
+ * Created on 16.10.2026
+ *
+ */
+package venn.geometry;
+
+/**
+ * Intersection of two convex polygons given as coordinate arrays
+ * (port of the C-source from O'Rourke, Geometric Algorithms in C).
+ * It works on primitive arrays and writes the result into scratch buffers,
+ * so no objects are created per call. Used by {@link FPolygon#intersect(FPolygon)}.
+ *
+ * An instance is not thread safe; use one intersector per thread.
+ */
+public class ConvexIntersector
+{
+    /** the polygons don't intersect */
+    public static final int DISJOINT      = -1;
+    /** the first polygon lies inside the second one */
+    public static final int FIRST_INSIDE  = -2;
+    /** the second polygon lies inside the first one */
+    public static final int SECOND_INSIDE = -3;
+
+    private static final double EPSILON = FSegment.EPSILON;
+
+    // result buffers
+    private double[] resX, resY;
+
+    // result of the last segment intersection (see FSegment.intersection)
+    private char    code;
+    private double  ipX, ipY, iqX, iqY;
+
+    public ConvexIntersector()
+    {
+        resX = new double[0];
+        resY = new double[0];
+    }
+
+    /**
+     *
+     * @param n number of points of the first polygon
+     * @param m number of points of the second polygon
+     * @return The minimum size of the result buffers for {@link #intersect(double[], double[], int, double[], double[], int, double[], double[])}.
+     */
+    public static int capacity(int n, int m)
+    {
+        return 4*(n+m) + 2;
+    }
+
+    /**
+     * Intersects the polygons using the internal result buffers ({@link #getX()}, {@link #getY()}).
+     *
+     * @see #intersect(double[], double[], int, double[], double[], int, double[], double[])
+     */
+    public int intersect(double[] px, double[] py, int n, double[] qx, double[] qy, int m)
+    {
+        int cap = capacity(n,m);
+        if( resX.length < cap )
+        {
+            resX = new double[cap];
+            resY = new double[cap];
+        }
+        return intersect(px,py,n,qx,qy,m,resX,resY);
+    }
+
+    /**
+     * Intersection of two convex polygons. The polygons must be
+     * counterclockwise, both must have at least two points.
+     *
+     * @param px x-coordinates of the first polygon
+     * @param py y-coordinates of the first polygon
+     * @param n number of points of the first polygon
+     * @param qx x-coordinates of the second polygon
+     * @param qy y-coordinates of the second polygon
+     * @param m number of points of the second polygon
+     * @param rx buffer for the x-coordinates of the result (at least {@link #capacity(int, int)})
+     * @param ry buffer for the y-coordinates of the result (at least {@link #capacity(int, int)})
+     * @return The number of points of the intersection polygon written to rx, ry
+     * or {@link #DISJOINT}, {@link #FIRST_INSIDE}, {@link #SECOND_INSIDE}.
+     */
+    public int intersect(double[] px, double[] py, int n, double[] qx, double[] qy, int m,
+                         double[] rx, double[] ry)
+    {
+        if( n < 2 || m < 2 )
+            return DISJOINT;
+
+        int i, j, i1, j1, ai, aj;
+        char inflag = '?'; // status 'p','q','?'
+        boolean firstpoint = true;
+        int aHB, bHA, cross;
+        int size = 0;
+
+        i = j = 0;
+        ai = aj = 0;
+
+        do
+        {
+            i = i % n;
+            j = j % m;
+            i1 = i - 1;
+            if( i1 < 0 )
+                i1 = n - 1;
+            j1 = j - 1;
+            if( j1 < 0 )
+                j1 = m - 1;
+
+            double  pax = px[i1], pay = py[i1], pbx = px[i], pby = py[i],
+                    qax = qx[j1], qay = qy[j1], qbx = qx[j], qby = qy[j];
+            double  Ax = pbx - pax, Ay = pby - pay,
+                    Bx = qbx - qax, By = qby - qay;
+
+            cross = sign(Ax*By - Bx*Ay);
+            aHB = sign(triangleArea(qax,qay,qbx,qby,pbx,pby));
+            bHA = sign(triangleArea(pax,pay,pbx,pby,qbx,qby));
+
+            if( segmentIntersection(pax,pay,pbx,pby,qax,qay,qbx,qby) )
+            {
+                if( code == IntersectionPoint.INTERSECTION
+                        || code == IntersectionPoint.ENDPOINT )
+                {
+                    if( inflag == '?' && firstpoint )
+                    {
+                        ai = aj = 0;
+                        firstpoint = false;
+                    }
+                    // update inflag
+                    if( aHB > 0 )
+                    {
+                        inflag = 'p';
+                    }
+                    else
+                    {
+                        if( bHA > 0 )
+                            inflag = 'q';
+                    }
+                    size = add(rx,ry,size,ipX,ipY);
+                }
+
+                // ADVANCE
+                if( (code == IntersectionPoint.COLLINEAR)
+                        && (Ax*Bx + Ay*By < 0) )
+                { // A and B overlap (oppositely directed)
+                    size = add(rx,ry,size,ipX,ipY);
+                    size = add(rx,ry,size,iqX,iqY);
+                    return size;
+                }
+            }
+
+            if( (cross == 0) && (aHB < 0) && (bHA < 0) )
+            { // A and B parallel and separated
+                return DISJOINT;
+            }
+
+            if( (cross == 0) && (aHB == 0) && (bHA == 0) )
+            { // collinear
+                if( inflag == 'p' )
+                {
+                    ++j;
+                    ++aj;
+                }
+                else
+                {
+                    ++i;
+                    ++ai;
+                }
+            }
+            else
+            { // generic case
+                if( cross >= 0 )
+                {
+                    if( bHA > 0 )
+                    {
+                        ++i;
+                        ++ai;
+                        if( inflag == 'p' )
+                            size = add(rx,ry,size,pbx,pby);
+                    }
+                    else
+                    {
+                        ++j;
+                        ++aj;
+                        if( inflag == 'q' )
+                            size = add(rx,ry,size,qbx,qby);
+                    }
+                }
+                else
+                { // cross < 0
+                    if( aHB > 0 )
+                    {
+                        ++j;
+                        ++aj;
+                        if( inflag == 'q' )
+                            size = add(rx,ry,size,qbx,qby);
+                    }
+                    else
+                    {
+                        ++i;
+                        ++ai;
+                        if( inflag == 'p' )
+                            size = add(rx,ry,size,pbx,pby);
+                    }
+                }
+            }
+        }
+        while( ((ai < n) || (aj < m)) && (ai < 2 * n) && (aj < 2 * m) );
+
+        if( inflag == '?' )
+        {
+            if( polyContains(qx,qy,m,px[0],py[0]) == 'i' )
+            { // the first polygon is contained in the second
+                return FIRST_INSIDE;
+            }
+            if( polyContains(px,py,n,qx[0],qy[0]) == 'i' )
+            { // the second polygon is contained in the first
+                return SECOND_INSIDE;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     *
+     * @return The x-coordinates of the last result computed with the internal buffers.
+     */
+    public double[] getX()
+    {
+        return resX;
+    }
+
+    /**
+     *
+     * @return The y-coordinates of the last result computed with the internal buffers.
+     */
+    public double[] getY()
+    {
+        return resY;
+    }
+
+    /**
+     * Adds a point if it is not equal to the last one.
+     * @return The new size.
+     */
+    private static int add(double[] rx, double[] ry, int size, double x, double y)
+    {
+        if( size > 0 && rx[size-1] == x && ry[size-1] == y )
+            return size;
+        rx[size] = x;
+        ry[size] = y;
+        return size+1;
+    }
+
+    private static int sign(double area)
+    {
+        if( area < -EPSILON )
+            return -1;
+        if( area > EPSILON )
+            return +1;
+        return 0;
+    }
+
+    private static double triangleArea(double ax, double ay, double bx, double by, double cx, double cy)
+    {
+        return (bx-ax)*(cy-ay) - (cx-ax)*(by-ay);
+    }
+
+    private static boolean between(double ax, double ay, double bx, double by, double cx, double cy)
+    {
+        if( ax != bx )
+        { // not vertical
+            return ((ax <= cx) && (cx <= bx))
+                || ((ax >= cx) && (cx >= bx));
+        }
+        else
+        { // vertical
+            return ((ay <= cy) && (cy <= by))
+                || ((ay >= cy) && (cy >= by));
+        }
+    }
+
+    /**
+     * Intersection of the segments (a,b) and (c,d), see {@link FSegment#intersection(FSegment)}.
+     * The result is stored in code, ipX, ipY (and iqX, iqY for collinear overlaps).
+     *
+     * @return false if there is no intersection point
+     */
+    private boolean segmentIntersection(double ax, double ay, double bx, double by,
+                                        double cx, double cy, double dx, double dy)
+    {
+        double denom = (by - ay) * (dx - cx) + (ax - bx) * (dy - cy);
+
+        if( Math.abs(denom) <= EPSILON )
+        {
+            return parallelIntersection(ax,ay,bx,by,cx,cy,dx,dy);
+        }
+
+        double num = (cy - ay) * (dx - cx) + (ax - cx) * (dy - cy);
+        code = IntersectionPoint.UNKNOWN;
+
+        if( Math.abs(num) <= EPSILON || Math.abs(num - denom) <= EPSILON )
+        {
+            code = IntersectionPoint.ENDPOINT;
+        }
+        double s = num / denom;
+
+        num = -((ay - cy) * (bx - ax) + (cx - ax) * (by - ay));
+        double t = num / denom;
+
+        if( Math.abs(num) <= EPSILON || Math.abs(num - denom) <= EPSILON )
+            code = IntersectionPoint.ENDPOINT;
+
+        if( code == IntersectionPoint.UNKNOWN )
+        {
+            if( (0.0 <= s) && (s <= 1.0) && (0.0 <= t) && (t <= 1.0) )
+            {
+                code = IntersectionPoint.INTERSECTION;
+            }
+            else
+            {
+                if( (0.0 > s) || (s > 1.0) || (0.0 > t) || (t > 1.0) )
+                    code = IntersectionPoint.NOINTERSECTION;
+            }
+        }
+
+        ipX = ax + s * (bx - ax);
+        ipY = ay + s * (by - ay);
+        return true;
+    }
+
+    /**
+     * @see FSegment#parallelIntersection(FSegment)
+     */
+    private boolean parallelIntersection(double ax, double ay, double bx, double by,
+                                         double cx, double cy, double dx, double dy)
+    {
+        if( Math.abs(triangleArea(ax,ay,bx,by,cx,cy)) > EPSILON )
+            return false;
+
+        code = IntersectionPoint.COLLINEAR;
+
+        boolean abC = between(ax,ay,bx,by,cx,cy),
+                abD = between(ax,ay,bx,by,dx,dy),
+                cdA = between(cx,cy,dx,dy,ax,ay),
+                cdB = between(cx,cy,dx,dy,bx,by);
+
+        if( abC && abD )
+            return setCollinear(cx,cy,dx,dy);
+        if( cdA && cdB )
+            return setCollinear(ax,ay,bx,by);
+        if( abC && cdB )
+            return setCollinear(cx,cy,bx,by);
+        if( abC && cdA )
+            return setCollinear(cx,cy,ax,ay);
+        if( abD && cdB )
+            return setCollinear(dx,dy,bx,by);
+        if( abD && cdA )
+            return setCollinear(dx,dy,ax,ay);
+
+        return false;
+    }
+
+    private boolean setCollinear(double x1, double y1, double x2, double y2)
+    {
+        ipX = x1;
+        ipY = y1;
+        iqX = x2;
+        iqY = y2;
+        return true;
+    }
+
+    /**
+     *
+     * @return The signed area of the polygon. Will be positive on countercycled polygons.
+     */
+    public static double area(double[] xs, double[] ys, int n)
+    {
+        double a = 0.0;
+        int j;
+        for( int i=0; i<n; ++i )
+        {
+            j = (i+1)%n;
+            a += (xs[j] + xs[i]) * (ys[j] - ys[i]);
+        }
+        return 0.5*a;
+    }
+
+    /**
+     * Point in polygon test by counting ray crossings, see {@link FPolygon#polyContains(FPoint)}.
+     *
+     * @return 'i' if the point (x,y) lies in the polygon, 'o' if its outside,
+     * 'v' if it is a vertex and 'e' if it lies on an edge.
+     */
+    public static char polyContains(double[] xs, double[] ys, int n, double x, double y)
+    {
+        if( n < 3 )
+            return 'o';
+
+        int i, i1;      /* point index; i1 = i-1 mod n */
+        double cx;      /* x intersection of e with ray */
+        int Rcross = 0; /* number of right edge/ray crossings */
+        int Lcross = 0; /* number of left edge/ray crossings */
+
+        for( i = 0; i < n; i++ )
+        {
+            /* First see if q=(x,y) is a vertex. */
+            if( xs[i] == x && ys[i] == y )
+                return 'v';
+
+            i1 = (i + n - 1) % n;
+
+            /* if e "straddles" the x-axis... */
+            if( (ys[i] > y) != (ys[i1] > y) )
+            {
+                /* e straddles ray, so compute intersection with ray. */
+                cx = ((xs[i] - x) * (ys[i1] - y) - (xs[i1] - x) * (ys[i] - y))
+                        / (ys[i1] - ys[i]);
+
+                /* crosses ray if strictly positive intersection. */
+                if( cx > 0 )
+                    Rcross++;
+            }
+
+            /* if e straddles the x-axis when reversed... */
+            if( (ys[i] < y) != (ys[i1] < y) )
+            {
+                /* e straddles ray, so compute intersection with ray. */
+                cx = ((xs[i] - x) * (ys[i1] - y) - (xs[i1] - x) * (ys[i] - y))
+                        / (ys[i1] - ys[i]);
+
+                /* crosses ray if strictly positive intersection. */
+                if( cx < 0 )
+                    Lcross++;
+            }
+        }
+
+        /* q on the edge if left and right cross are not the same parity. */
+        if( (Rcross % 2) != (Lcross % 2) )
+            return 'e';
+
+        /* q inside iff an odd number of crossings. */
+        if( (Rcross % 2) == 1 )
+            return 'i';
+        else
+            return 'o';
+    }
+}
@@ -22,14 +22,24 @@ implements FGeometricObject
      */
     private static final long serialVersionUID = 1L;
     private int numOfPoints;
-	private FPoint[] points;
+	// coordinates of the points (struct of arrays), the capacity may exceed numOfPoints
+	private double[] xs, ys;
 	private FPoint offset;
 	
 	private boolean areaValid;
 	private double cachedArea;
 	private boolean boundingBoxValid;
+	private double minX, minY, maxX, maxY;
 	private FRectangle cachedBoundingBox;
 	
+	// scratch buffers for intersect(FPolygon), one per thread
+	private static final ThreadLocal<ConvexIntersector> intersectors = new ThreadLocal<ConvexIntersector>() {
+		protected ConvexIntersector initialValue()
+		{
+			return new ConvexIntersector();
+		}
+	};
+	
 	public FPolygon()
 	{
 		areaValid = false;
@@ -43,22 +53,32 @@ implements FGeometricObject
 		reserve(numOfPoints);
 	}
 	
+	/**
+	 * Creates a polygon from the first n coordinates of the given arrays (which are copied).
+	 * 
+	 * @param xs
+	 * @param ys
+	 * @param n
+	 */
+	public FPolygon(double[] xs, double[] ys, int n)
+	{
+		this.xs = new double[n];
+		this.ys = new double[n];
+		System.arraycopy(xs,0,this.xs,0,n);
+		System.arraycopy(ys,0,this.ys,0,n);
+		numOfPoints = n;
+	}
+	
 	public Object clone()
 	{
-		FPolygon tmp = new FPolygon();
-		tmp.resize(numOfPoints);
-		for(int i=0; i<numOfPoints; ++i)
-		{
-			tmp.points[i] = points[i];
-		}
-		
-		return tmp;
+		return new FPolygon(xs,ys,numOfPoints);
 	}
 	
 	public void invalidate()
 	{
 		areaValid = false;
 		boundingBoxValid = false;
+		cachedBoundingBox = null;
 	}
 	
 	public void translate(FPoint diff)
@@ -66,7 +86,8 @@ implements FGeometricObject
 		invalidate();
 		for(int i=0; i<numOfPoints;++i)
 		{
-			points[i] = points[i].add(diff);
+			xs[i] += diff.x;
+			ys[i] += diff.y;
 		}
 	}
 	
@@ -75,7 +96,8 @@ implements FGeometricObject
 		invalidate();
 		for(int i=0; i<numOfPoints;++i)
 		{
-			points[i] = points[i].multiply(s);
+			xs[i] *= s;
+			ys[i] *= s;
 		}				
 	}
 	
@@ -84,7 +106,8 @@ implements FGeometricObject
         invalidate();
         for(int i=0; i<numOfPoints;++i)
         {
-            points[i] = points[i].sub(center).multiply(s).add(center);
+            xs[i] = (xs[i] - center.x) * s + center.x;
+            ys[i] = (ys[i] - center.y) * s + center.y;
         }               
     }
     
@@ -93,7 +116,8 @@ implements FGeometricObject
 		invalidate();
 		for(int i=0; i<numOfPoints;++i)
 		{
-			points[i] = points[i].scale(s);
+			xs[i] *= s.x;
+			ys[i] *= s.y;
 		}		
 	}
 	
@@ -102,34 +126,36 @@ implements FGeometricObject
 		invalidate();
 		for(int i=0, j=numOfPoints-1; i<numOfPoints/2; ++i, --j)
 		{
-			FPoint tmp;
-			tmp = points[i];
-			points[i] = points[j];
-			points[j] = tmp;
-			
+			double tmp;
+			tmp = xs[i];
+			xs[i] = xs[j];
+			xs[j] = tmp;
+			tmp = ys[i];
+			ys[i] = ys[j];
+			ys[j] = tmp;
 		}
 	}
 	
 	public void reserve(int num)
 	{
-		if( points==null || num > points.length )
+		if( xs==null || num > xs.length )
 		{
-			FPoint[] tmp = new FPoint[num];
+			double[] tmpX = new double[num],
+					 tmpY = new double[num];
 				
-			if( points != null )
+			if( xs != null )
 			{
-				for(int i=0; i<numOfPoints;++i)
-				{
-					tmp[i] = points[i];
-				}
+				System.arraycopy(xs,0,tmpX,0,numOfPoints);
+				System.arraycopy(ys,0,tmpY,0,numOfPoints);
 			}
-			points = tmp;
+			xs = tmpX;
+			ys = tmpY;
 		}
 	}
 
 	public void resize(int num)
 	{
-		if( points == null || num >= numOfPoints )
+		if( xs == null || num >= numOfPoints )
 		{
 			reserve((1+num)*2);
 		}
@@ -157,11 +183,29 @@ implements FGeometricObject
 		if( numOfPoints > 0 )
 		{
 			// check last point
-			if( points[numOfPoints-1].equals(p) )
+			if( xs[numOfPoints-1] == p.x && ys[numOfPoints-1] == p.y )
 				return;
 		}
 		resize(numOfPoints+1);
-		points[idx] = p;
+		xs[idx] = p.x;
+		ys[idx] = p.y;
+	}
+	
+	/**
+	 * Sets the coordinates of the i-th point.
+	 * 
+	 * @param i
+	 * @param x
+	 * @param y
+	 */
+	public void set(int i, double x, double y)
+	{
+		if( i < 0 || i >= numOfPoints )
+			throw new IndexOutOfBoundsException("no point " + i);
+		
+		invalidate();
+		xs[i] = x;
+		ys[i] = y;
 	}
 	
 	/**
@@ -173,15 +217,7 @@ implements FGeometricObject
 		if( areaValid )
 			return cachedArea;
 		
-		double a = 0.0;
-		int j;
-		for( int i=0; i<numOfPoints; ++i)
-		{
-			j = (i+1)%numOfPoints;
-			a += (points[j].x + points[i].x) * (points[j].y - points[i].y);
-		}
-		
-		cachedArea = 0.5*a;
+		cachedArea = ConvexIntersector.area(xs,ys,numOfPoints);
 		areaValid = true;
 		return cachedArea;
 	}
@@ -192,45 +228,74 @@ implements FGeometricObject
 	 */
 	public FRectangle getBoundingBox()
 	{
-		if( points == null || points.length == 0 )
+		if( ! validateBoundingBox() )
             return null;
 			// throw new IllegalStateException("no points");
 		
+		if( cachedBoundingBox == null )
+		{
+			cachedBoundingBox = new FRectangle(minX,minY,maxX,maxY);
+		}
+		return cachedBoundingBox;
+	}
+	
+	/**
+	 * Tests the bounding boxes of both polygons without creating any objects.
+	 * 
+	 * @param poly
+	 * @return False if the bounding boxes are disjoint (so the polygons are disjoint as well).
+	 */
+	public boolean intersectsBoundingBox(FPolygon poly)
+	{
+		if( ! validateBoundingBox() || ! poly.validateBoundingBox() )
+			return false;
+		
+		return (poly.minX <= maxX) && (minX <= poly.maxX) &&
+				(poly.minY <= maxY) && (minY <= poly.maxY);
+	}
+	
+	/**
+	 * Computes the bounds of the points (if they are not valid).
+	 * 
+	 * @return False if there are no points.
+	 */
+	private boolean validateBoundingBox()
+	{
+		if( xs == null || numOfPoints == 0 )
+            return false;
+		
 		if( boundingBoxValid )
-			return cachedBoundingBox;
-			
-		double minX,minY,maxX,maxY;
+			return true;
 		
-		minX = points[0].x;
+		minX = xs[0];
 		maxX = minX;
-		minY = points[0].y;
+		minY = ys[0];
 		maxY = minY;
 		for(int i=1; i<numOfPoints; ++i)
 		{
-			if( points[i].x < minX )
+			if( xs[i] < minX )
 			{
-				minX = points[i].x;
+				minX = xs[i];
 			}
 			else
 			{
-				if( points[i].x > maxX )
-					maxX = points[i].x;
+				if( xs[i] > maxX )
+					maxX = xs[i];
 			}
 			
-			if( points[i].y < minY )
+			if( ys[i] < minY )
 			{
-				minY = points[i].y;
+				minY = ys[i];
 			}
 			else
 			{
-				if( points[i].y > maxY )
-					maxY = points[i].y;
+				if( ys[i] > maxY )
+					maxY = ys[i];
 			}
 		}
 		
-		cachedBoundingBox = new FRectangle(minX,minY,maxX,maxY);
 		boundingBoxValid = true;
-		return cachedBoundingBox;
+		return true;
 	}
 	
 	public void clear()
@@ -243,11 +308,48 @@ implements FGeometricObject
 		return numOfPoints; 
 	}
 	
+	/**
+	 * 
+	 * @return A new array with the points of this polygon.
+	 */
 	public FPoint[] getPoints()
 	{
+		FPoint[] points = new FPoint[numOfPoints];
+		for(int i=0; i<numOfPoints; ++i)
+		{
+			points[i] = new FPoint(xs[i],ys[i]);
+		}
 		return points;
 	}
 	
+	public FPoint getPoint(int i)
+	{
+		if( i < 0 || i >= numOfPoints )
+			throw new IndexOutOfBoundsException("no point " + i);
+		
+		return new FPoint(xs[i],ys[i]);
+	}
+	
+	/**
+	 * 
+	 * @return The x-coordinates of the points (the array may be larger than getSize()).
+	 * The array must not be modified.
+	 */
+	public double[] getXs()
+	{
+		return xs;
+	}
+	
+	/**
+	 * 
+	 * @return The y-coordinates of the points (the array may be larger than getSize()).
+	 * The array must not be modified.
+	 */
+	public double[] getYs()
+	{
+		return ys;
+	}
+	
 	public FPoint getOffset()
 	{
 		return offset;
@@ -268,15 +370,15 @@ implements FGeometricObject
 	 */
 	public FPoint center()
 	{
-		if( numOfPoints <= 0 | points == null )
+		if( numOfPoints <= 0 | xs == null )
 			throw new IllegalStateException("polygon is empty");
 		
 		double sx = 0.0, sy = 0.0;
 		
 		for(int i=0; i<numOfPoints; ++i)
 		{
-			sx += points[i].x;
-			sy += points[i].y;
+			sx += xs[i];
+			sy += ys[i];
 		}
 		sx /= (double)numOfPoints;
 		sy /= (double)numOfPoints;
@@ -298,81 +400,7 @@ implements FGeometricObject
 		if( !getBoundingBox().contains(q) )
 			return 'o';
 
-		int i, i1; /* point index; i1 = i-1 mod n */
-		double x; /* x intersection of e with ray */
-		int Rcross = 0; /* number of right edge/ray crossings */
-		int Lcross = 0; /* number of left edge/ray crossings */
-
-		/*
-		 * Shift so that q is the origin. Note this destroys the polygon. This
-		 * is done for pedogical clarity.
-		 */
-		//Polygon poly = (Polygon)clone();
-		//poly.translate(q.negate());
-		/* For each edge e=(i-1,i), see if crosses ray. */
-		for( i = 0; i < getSize(); i++ )
-		{
-			/* First see if q=(0,0) is a vertex. */
-			if( points[i].equals(q) )
-				return 'v';
-
-			i1 = (i + getSize() - 1) % getSize();
-			/* printf("e=(%d,%d)\t", i1, i); */
-
-			/* if e "straddles" the x-axis... */
-			/*
-			 * The commented-out statement is logically equivalent to the one
-			 * following.
-			 */
-			/*
-			 * if( ( ( P[i][Y] > 0 ) && ( P[i1][Y] <= 0 ) ) || ( ( P[i1][Y] > 0 ) && (
-			 * P[i] [Y] <= 0 ) ) ) {
-			 */
-
-			if( (points[i].y > q.y) != (points[i1].y > q.y) )
-			{
-				/* e straddles ray, so compute intersection with ray. */
-				x = ((points[i].x - q.x) * (points[i1].y - q.y) - (points[i1].x - q.x)
-						* (points[i].y - q.y))
-						/ (points[i1].y - points[i].y);
-				/* printf("straddles: x = %g\t", x); */
-
-				/* crosses ray if strictly positive intersection. */
-				if( x > 0 )
-					Rcross++;
-			}
-			/* printf("Right cross=%d\t", Rcross); */
-
-			/* if e straddles the x-axis when reversed... */
-			/*
-			 * if( ( ( P[i] [Y] < 0 ) && ( P[i1][Y] >= 0 ) ) || ( ( P[i1][Y] < 0 ) && (
-			 * P[i] [Y] >= 0 ) ) ) {
-			 */
-
-			if( (points[i].y < q.y) != (points[i1].y < q.y) )
-			{
-				/* e straddles ray, so compute intersection with ray. */
-				x = ((points[i].x - q.x) * (points[i1].y - q.y) - (points[i1].x - q.x)
-						* (points[i].y - q.y))
-						/ (points[i1].y - points[i].y);
-				/* printf("straddles: x = %g\t", x); */
-
-				/* crosses ray if strictly positive intersection. */
-				if( x < 0 )
-					Lcross++;
-			}
-			/* printf("Left cross=%d\n", Lcross); */
-		}
-
-		/* q on the edge if left and right cross are not the same parity. */
-		if( (Rcross % 2) != (Lcross % 2) )
-			return 'e';
-
-		/* q inside iff an odd number of crossings. */
-		if( (Rcross % 2) == 1 )
-			return 'i';
-		else
-			return 'o';
+		return ConvexIntersector.polyContains(xs,ys,numOfPoints,q.x,q.y);
 	}
 
 	public boolean contains(FPoint p)
@@ -388,7 +416,7 @@ implements FGeometricObject
 	 * counterclockwise (so area() > 0) otherwise no intersection will be found.
 	 * 
 	 * This algorithm is a port of the C-source from O'Rourke (Geometric
-	 * Algorithms in C).
+	 * Algorithms in C), see {@link ConvexIntersector}.
 	 * 
 	 * @param poly
 	 * @return The intersection polygon or null if the polygons don't intersect.
@@ -402,180 +430,27 @@ implements FGeometricObject
         if( this.numOfPoints == 0 || poly.numOfPoints == 0 )
             return null;
         
-		if( ! getBoundingBox().intersects(poly.getBoundingBox()) )
+		if( ! intersectsBoundingBox(poly) )
 			return null;
 		
-		int i, j, i1, j1, ai, aj;
-		char inflag = '?'; // status 'p','q','?'
-		boolean firstpoint = true;
-		FSegment sP = new FSegment(), sQ = new FSegment();
-		FPoint origin = new FPoint(0, 0);
-		int aHB, bHA, cross;
-		FPolygon result = new FPolygon();
-
 		if( getSize() < 2 || poly.getSize() < 2 )
 			return null;
 
-		i = j = 0;
-		ai = aj = 0;
-
-		do
+		ConvexIntersector intersector = intersectors.get();
+		int size = intersector.intersect(xs,ys,numOfPoints,poly.xs,poly.ys,poly.numOfPoints);
+		switch( size )
 		{
-			i = i % getSize();
-			j = j % poly.getSize();
-			i1 = i - 1;
-			if( i1 < 0 )
-				i1 = getSize() - 1;
-			j1 = j - 1;
-			if( j1 < 0 )
-				j1 = poly.getSize() - 1;
-
-			sP.set(points[i1], points[i]);
-			sQ.set(poly.points[j1], poly.points[j]);
-			FPoint A = sP.b.sub(sP.a), B = sQ.b.sub(sQ.a);
-
-			cross = FPoint.areaSign(origin, A, B);
-			aHB = FPoint.areaSign(sQ.a, sQ.b, sP.b);
-			bHA = FPoint.areaSign(sP.a, sP.b, sQ.b);
-
-			IntersectionPoint isp = sP.intersection(sQ);
-
-			/*
-			 * System.out.println("Before Advance a="+i+" b="+j+" "+sP+" "+sQ+"
-			 * inflag="+inflag); System.out.println("A "+sP+" B "+sQ);
-			 * System.out.println("cross = "+cross+" aHB = "+aHB+" bHA = "+bHA);
-			 * System.out.println(i+"," +j+" intersection " + isp);
-			 */
-			if( isp != null )
-			{
-				if( isp.code == IntersectionPoint.INTERSECTION
-						|| isp.code == IntersectionPoint.ENDPOINT )
-				{
-					if( inflag == '?' && firstpoint )
-					{
-						ai = aj = 0;
-						firstpoint = false;
-					}
-					// update inflag
-					if( aHB > 0 )
-					{
-						inflag = 'p';
-					}
-					else
-					{
-						if( bHA > 0 )
-							inflag = 'q';
-					}
-					//System.out.println("lineto "+isp.p);
-					result.add(isp.p);
-				}
-
-				// ADVANCE
-				if( (isp.code == IntersectionPoint.COLLINEAR)
-						&& (A.scalarProduct(B) < 0) )
-				{ // A and B overlap (oppositely directed)
-					// System.out.println("lineto "+isp.p + " lineto "+isp.q);
-					result.add(isp.p);
-					result.add(isp.q);
-					return result;
-				}
-			}
-
-			if( (cross == 0) && (aHB < 0) && (bHA < 0) )
-			{ // A and B parallel and separated
-				// System.out.println("disjoint!!");
+			case ConvexIntersector.DISJOINT:
 				return null;
-			}
-
-			if( (cross == 0) && (aHB == 0) && (bHA == 0) )
-			{ // collinear
-				if( inflag == 'p' )
-				{
-					++j;
-					++aj;
-				}
-				else
-				{
-					++i;
-					++ai;
-				}
-			}
-			else
-			{ // generic case
-				if( cross >= 0 )
-				{
-					if( bHA > 0 )
-					{
-						++i;
-						++ai;
-						if( inflag == 'p' )
-						{
-							//	System.out.println("lineto "+sP.b);
-							result.add(sP.b);
-						}
-					}
-					else
-					{
-						++j;
-						++aj;
-						if( inflag == 'q' )
-						{
-							// 	System.out.println("lineto "+sQ.b);
-							result.add(sQ.b);
-						}
-					}
-				}
-				else
-				{ // cross < 0
-					if( aHB > 0 )
-					{
-						++j;
-						++aj;
-						if( inflag == 'q' )
-						{
-							// 	System.out.println("lineto " + sQ.b);
-							result.add(sQ.b);
-						}
-					}
-					else
-					{
-						++i;
-						++ai;
-						if( inflag == 'p' )
-						{
-							//	System.out.println("lineto " + sP.b);
-							result.add(sP.b);
-						}
-					}
-				}
-			}
-			// System.out.println("After Advance a="+i+" b="+j+"
-			// inflag="+inflag);
-		}
-		while( ((ai < getSize()) || (aj < poly.getSize()))
-				&& (ai < 2 * getSize()) && (aj < 2 * poly.getSize()) );
-
-		/*
-		 * if( p0 != null && ! firstpoint ) System.out.println("lineto " + p0);
-		 */
-
-		if( inflag == '?' )
-		{
-			// System.out.println("no crossing!!");
-			if( poly.polyContains(points[0]) == 'i' )
-			{ // this polygon is contained in poly
+			case ConvexIntersector.FIRST_INSIDE:
+				// this polygon is contained in poly
 				return this;
-			}
-			else
-			{ // poly is contained in this polygon
-				if( polyContains(poly.points[0]) == 'i' )
-				{
-					return poly;
-				}
-			}
+			case ConvexIntersector.SECOND_INSIDE:
+				// poly is contained in this polygon
+				return poly;
+			default:
+				return new FPolygon(intersector.getX(),intersector.getY(),size);
 		}
-
-		return result;
 	}
 
 	public void paint(Graphics g, ITransformer t)
@@ -596,7 +471,7 @@ implements FGeometricObject
 
 		for( int i = 0; i < getSize(); ++i )
 		{
-			java.awt.Point p = t.transform(points[i]);
+			java.awt.Point p = t.transform(new FPoint(xs[i],ys[i]));
 			poly.addPoint(p.x, p.y);
 		}
 
@@ -613,7 +488,7 @@ implements FGeometricObject
 		StringBuffer buf = new StringBuffer();
 		for( int i = 0; i < getSize(); ++i )
 		{
-			buf.append(points[i].toString());
+			buf.append(getPoint(i).toString());
 		}
 		return buf.toString();
 	}
@@ -627,13 +502,13 @@ implements FGeometricObject
 
 		if( getSize() != poly.getSize() )
 			return false;
-		if( poly.points == null && points == null )
+		if( poly.xs == null && xs == null )
 			return true;
 
 		for( int i = 0; i < getSize(); ++i )
 		{
 
-			if( !points[i].equals(poly.points[i]) )
+			if( xs[i] != poly.xs[i] || ys[i] != poly.ys[i] )
 				return false;
 		}
 
@@ -660,8 +535,8 @@ implements FGeometricObject
 		for( int i = 0; i < poly.getSize(); ++i )
 		{
 			double phi = 2 * Math.PI * i / (double) poly.getSize();
-			poly.getPoints()[i] = new FPoint(r * Math.cos(phi), r
-					* Math.sin(phi));
+			poly.xs[i] = r * Math.cos(phi);
+			poly.ys[i] = r * Math.sin(phi);
 		}
 		return poly;
 	}
@@ -753,14 +628,14 @@ implements FGeometricObject
 	public FPoint intersect(FSegment seg)
 	{
         Assert.assertNotNull( seg );
-        Assert.assertNotNull( points );
-        Assert.assertTrue( points.length >= getSize() );
+        Assert.assertNotNull( xs );
+        Assert.assertTrue( xs.length >= getSize() );
 		FSegment tmp = new FSegment();
 		IntersectionPoint point;
 		
 		for( int i=0; i<getSize(); ++i )
 		{
-			tmp.set(points[i],points[(i+1)%getSize()]);
+			tmp.set(getPoint(i),getPoint((i+1)%getSize()));
 			point = seg.intersection( tmp );
             if( point == null )
                 return null;
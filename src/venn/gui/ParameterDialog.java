@@ -31,6 +31,7 @@ import venn.AllParameters;
 import venn.Constants;
 import venn.optim.EvolutionaryOptimizer;
 import venn.optim.EvolutionaryOptimizerV1;
+import venn.optim.CMAESOptimizer;
 import venn.optim.ParallelSwarmOptimizer;
 import venn.optim.SwarmOptimizer;
 
@@ -69,6 +70,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
     private JCheckBox			glob_colorMode,
     							glob_logNElements;
     
+    private JComboBox<String>   glob_view;
+    
     
     //////////////////////////////////////////////////////////////////////////								
 	// ErrorFunction.Parameters
@@ -81,12 +84,20 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                                 errf_gamma,
                                 errf_delta,
                                 errf_minScale,
-                                errf_maxScale;
+                                errf_maxScale,
+                                errf_cacheSize;
+    private JCheckBox           errf_sparseTree;
                                 
     //////////////////////////////////////////////////////////////////////////
     // OPTIMIZER
     private JPanel              opt_panel;
     private JComboBox           opt_optimizer;
+    private JCheckBox           opt_polish;
+    private JFormattedTextField opt_polishMaxIterations;
+    private JCheckBox           opt_coarseToFine;
+    private JFormattedTextField opt_coarseMinEdges,
+                                opt_timeLimit,
+                                opt_targetCost;
     
     // EvolutionaryOptimizerV1.Parameters
     private JPanel              opt_evo_panel;
@@ -96,7 +107,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                                 evo_minMutation,
                                 evo_maxMutation,
                                 evo_numIndividuals,
-                                evo_cloneFraction;
+                                evo_cloneFraction,
+                                evo_seedFraction;
 
     // EvolutionaryOptimizer.Parameters
     private JPanel              opt_evo2_panel;
@@ -108,7 +120,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                                 evo2_minMutation,
                                 evo2_maxMutation,
                                 evo2_numIndividuals,
-                                evo2_cloneFraction;
+                                evo2_cloneFraction,
+                                evo2_seedFraction;
     
 
     // SwarmOptimizer.Parameters
@@ -118,7 +131,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                                 swarm_cLocal,
                                 swarm_maxV,
                                 swarm_maxIterations,
-                                swarm_maxConstIterations;
+                                swarm_maxConstIterations,
+                                swarm_seedFraction;
 
     private JCheckBox           swarm_reflect;
 
@@ -129,13 +143,22 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                                 p_swarm_cLocal,
                                 p_swarm_maxV,
                                 p_swarm_maxIterations,
-                                p_swarm_maxConstIterations;
+                                p_swarm_maxConstIterations,
+                                p_swarm_seedFraction;
     
     private JCheckBox           p_swarm_reflect;
 
+    // CMAESOptimizer.Parameters
+    private JPanel              opt_cmaes_panel;
+    private JFormattedTextField cmaes_populationSize,
+                                cmaes_sigma,
+                                cmaes_maxIterations,
+                                cmaes_maxConstIterations,
+                                cmaes_seedFraction;
+
     
 
-	LinkedList					fields;
+	LinkedList<JComponent>				fields;
 	
 	private boolean	checking;
 	private boolean	initialized;
@@ -162,7 +185,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
 		DecimalFormat floatFormat = new DecimalFormat("0.0000"),
 						intFormat = new DecimalFormat("0");
 		
-		fields = new LinkedList();
+		fields = new LinkedList<JComponent>();
 		
         JPanel panel = null;
 
@@ -170,7 +193,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         // GLOBAL PANEL
         glob_panel = new JPanel();
         panel = glob_panel;
-        panel.setLayout(new GridLayout(7,2));
+        panel.setLayout(new GridLayout(8,2));
         
 
         panel.add(new JLabel("Size factor"));
@@ -179,6 +202,14 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         panel.add(glob_sizeFactor);
 
         
+        panel.add(new JLabel("Shape"));
+        glob_view = new JComboBox<String>(AllParameters.Views);
+        glob_view.setEditable(false);
+        glob_view.setToolTipText("circles give exact intersection areas");
+        fields.add(glob_view);
+        glob_view.addItemListener(this);
+        panel.add(glob_view);
+        
         panel.add(new JLabel("Number of Edges"));
         glob_numEdges = new JFormattedTextField(intFormat);
         fields.add(glob_numEdges);
@@ -225,7 +256,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         // ErrorFunction.Parameters
         errf_panel = new JPanel();
         panel = errf_panel;
-        panel.setLayout(new GridLayout(9,2));
+        panel.setLayout(new GridLayout(11,2));
         
         panel.add(new JLabel("Error function type"));
         errf_errorFuncID = new JFormattedTextField(intFormat);
@@ -239,6 +270,13 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         fields.add(errf_maxIntersections);
         panel.add(errf_maxIntersections);
         
+        panel.add(new JLabel("Sparse intersections"));
+        errf_sparseTree = new JCheckBox();
+        errf_sparseTree.setToolTipText("Only intersections which contain elements or overlap in the plane are computed.");
+        fields.add(errf_sparseTree);
+        errf_sparseTree.addItemListener(this);
+        panel.add(errf_sparseTree);
+        
         panel.add(new JLabel("Eta"));
         errf_eta = new JFormattedTextField(floatFormat);
         errf_eta.setToolTipText("Eta: weight area deviations of the single sets.");
@@ -280,6 +318,12 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         fields.add(errf_maxScale);
         panel.add(errf_maxScale);
         
+        panel.add(new JLabel("Cache size"));
+        errf_cacheSize = new JFormattedTextField(intFormat);
+        errf_cacheSize.setToolTipText("Number of error values which are remembered for repeated inputs (0: no cache).");
+        fields.add(errf_cacheSize);
+        panel.add(errf_cacheSize);
+        
         panel = new JPanel(new BorderLayout());
         panel.add(errf_panel, BorderLayout.NORTH);        
         tabbed_pane.addTab("Error Function",panel);
@@ -289,7 +333,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         opt_panel = new JPanel(new BorderLayout());
         
         // common parameters
-        panel = new JPanel(new GridLayout(1,2));
+        panel = new JPanel(new GridLayout(7,2));
         
         panel.add(new JLabel("Optimizer"));
         opt_optimizer = new JComboBox(AllParameters.Optimizers);
@@ -298,12 +342,48 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         opt_optimizer.addActionListener(this);
         panel.add(opt_optimizer);
         
+        panel.add(new JLabel("local polish"));
+        opt_polish = new JCheckBox();
+        opt_polish.setToolTipText("Refines the result with a bounded quasi-Newton method.");
+        fields.add(opt_polish);
+        opt_polish.addItemListener(this);
+        panel.add(opt_polish);
+        
+        panel.add(new JLabel("polish iterations"));
+        opt_polishMaxIterations = new JFormattedTextField(intFormat);
+        fields.add(opt_polishMaxIterations);
+        panel.add(opt_polishMaxIterations);
+        
+        panel.add(new JLabel("coarse to fine"));
+        opt_coarseToFine = new JCheckBox();
+        opt_coarseToFine.setToolTipText("Starts with polygons with less edges and raises the number of edges in stages.");
+        fields.add(opt_coarseToFine);
+        opt_coarseToFine.addItemListener(this);
+        panel.add(opt_coarseToFine);
+        
+        panel.add(new JLabel("edges of the first stage"));
+        opt_coarseMinEdges = new JFormattedTextField(intFormat);
+        fields.add(opt_coarseMinEdges);
+        panel.add(opt_coarseMinEdges);
+        
+        panel.add(new JLabel("time limit [s]"));
+        opt_timeLimit = new JFormattedTextField(floatFormat);
+        opt_timeLimit.setToolTipText("Seconds for the optimization of all diagrams (0: no limit).");
+        fields.add(opt_timeLimit);
+        panel.add(opt_timeLimit);
+        
+        panel.add(new JLabel("target error"));
+        opt_targetCost = new JFormattedTextField(floatFormat);
+        opt_targetCost.setToolTipText("A diagram is finished if its error is below this value (0: no target).");
+        fields.add(opt_targetCost);
+        panel.add(opt_targetCost);
+        
         opt_panel.add(panel,BorderLayout.NORTH);
         
 		// EvolutionaryOptimizerV1.Parameters
         opt_evo_panel = new JPanel();
         panel = opt_evo_panel;
-        panel.setLayout(new GridLayout(7,2));
+        panel.setLayout(new GridLayout(8,2));
         
 		panel.add(new JLabel("tau"));		
 		evo_tau = new JFormattedTextField(floatFormat);
@@ -341,11 +421,17 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
 		evo_maxConstantSteps = new JFormattedTextField(intFormat);
 		fields.add(evo_maxConstantSteps);
 		panel.add(evo_maxConstantSteps);
+
+		panel.add(new JLabel("seed fraction"));
+		evo_seedFraction = new JFormattedTextField(floatFormat);
+		evo_seedFraction.setToolTipText("Part of the population starting at a layout computed from the pairwise overlaps.");
+		fields.add(evo_seedFraction);
+		panel.add(evo_seedFraction);
         
         // EvolutionaryOptimizer.Parameters
         opt_evo2_panel = new JPanel();
         panel = opt_evo2_panel;
-        panel.setLayout(new GridLayout(9,2));
+        panel.setLayout(new GridLayout(10,2));
         
         panel.add(new JLabel("tau"));
         evo2_tau = new JFormattedTextField(floatFormat);
@@ -394,11 +480,17 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         fields.add(evo2_maxConstantSteps);
         panel.add(evo2_maxConstantSteps);
 
+        panel.add(new JLabel("seed fraction"));
+        evo2_seedFraction = new JFormattedTextField(floatFormat);
+        evo2_seedFraction.setToolTipText("Part of the population starting at a layout computed from the pairwise overlaps.");
+        fields.add(evo2_seedFraction);
+        panel.add(evo2_seedFraction);
+
 
         // SwarmOptimizer
         opt_swarm_panel = new JPanel();
         panel = opt_swarm_panel;
-        panel.setLayout(new GridLayout(7,2));
+        panel.setLayout(new GridLayout(8,2));
         
         panel.add(new JLabel("numParticles"));
         swarm_numParticles = new JFormattedTextField(intFormat);
@@ -429,6 +521,12 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         swarm_maxConstIterations = new JFormattedTextField(intFormat);
         fields.add(swarm_maxConstIterations);
         panel.add(swarm_maxConstIterations);
+
+        panel.add(new JLabel("seed fraction"));
+        swarm_seedFraction = new JFormattedTextField(floatFormat);
+        swarm_seedFraction.setToolTipText("Part of the population starting at a layout computed from the pairwise overlaps.");
+        fields.add(swarm_seedFraction);
+        panel.add(swarm_seedFraction);
         
         
         panel.add(new JLabel("reflect"));
@@ -442,7 +540,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         // ParllelSwarmOptimizer
         opt_p_swarm_panel = new JPanel();
         panel = opt_p_swarm_panel;
-        panel.setLayout(new GridLayout(7,2));
+        panel.setLayout(new GridLayout(8,2));
         
         panel.add(new JLabel("numParticles"));
         p_swarm_numParticles = new JFormattedTextField(intFormat);
@@ -473,6 +571,12 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         p_swarm_maxConstIterations = new JFormattedTextField(intFormat);
         fields.add(p_swarm_maxConstIterations);
         panel.add(p_swarm_maxConstIterations);
+
+        panel.add(new JLabel("seed fraction"));
+        p_swarm_seedFraction = new JFormattedTextField(floatFormat);
+        p_swarm_seedFraction.setToolTipText("Part of the population starting at a layout computed from the pairwise overlaps.");
+        fields.add(p_swarm_seedFraction);
+        panel.add(p_swarm_seedFraction);
         
         
         panel.add(new JLabel("reflect"));
@@ -482,6 +586,38 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         p_swarm_reflect.addItemListener(this);
         panel.add(p_swarm_reflect);
         
+        // CMAESOptimizer
+        opt_cmaes_panel = new JPanel();
+        panel = opt_cmaes_panel;
+        panel.setLayout(new GridLayout(5,2));
+        
+        panel.add(new JLabel("populationSize"));
+        cmaes_populationSize = new JFormattedTextField(intFormat);
+        cmaes_populationSize.setToolTipText("0 chooses the population size from the problem dimension.");
+        fields.add(cmaes_populationSize);
+        panel.add(cmaes_populationSize);
+        
+        panel.add(new JLabel("sigma"));
+        cmaes_sigma = new JFormattedTextField(floatFormat);
+        fields.add(cmaes_sigma);
+        panel.add(cmaes_sigma);
+        
+        panel.add(new JLabel("maxIterations"));
+        cmaes_maxIterations = new JFormattedTextField(intFormat);
+        fields.add(cmaes_maxIterations);
+        panel.add(cmaes_maxIterations);
+        
+        panel.add(new JLabel("maxConstIterations"));
+        cmaes_maxConstIterations = new JFormattedTextField(intFormat);
+        fields.add(cmaes_maxConstIterations);
+        panel.add(cmaes_maxConstIterations);
+
+        panel.add(new JLabel("seed fraction"));
+        cmaes_seedFraction = new JFormattedTextField(floatFormat);
+        cmaes_seedFraction.setToolTipText("Probability that the search starts at a layout computed from the pairwise overlaps.");
+        fields.add(cmaes_seedFraction);
+        panel.add(cmaes_seedFraction);
+        
         //opt_panel.add(opt_swarm_panel,BorderLayout.CENTER);
         
         tabbed_pane.addTab("Optimizer",opt_panel);
@@ -620,6 +756,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
 	{        
         // global Parameters
         glob_sizeFactor.setValue(new Double(parameters.sizeFactor));
+        glob_view.setSelectedIndex(parameters.view);
         glob_numEdges.setValue(new Integer(parameters.numEdges));
         glob_randomSeed.setValue(new Long(parameters.randomSeed));
         glob_updateInterval.setValue(new Integer(parameters.updateInterval));
@@ -632,6 +769,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         errf_maxScale.setValue(new Double(parameters.errorFunction.maxScale));        
         errf_errorFuncID.setValue(new Integer(parameters.errorFunction.errorFunc));
         errf_maxIntersections.setValue(new Integer(parameters.errorFunction.maxIntersections));
+        errf_sparseTree.setSelected(parameters.errorFunction.sparseTree);
+        errf_cacheSize.setValue(new Integer(parameters.errorFunction.cacheSize));
         errf_eta.setValue(new Double(parameters.errorFunction.eta));
         errf_alpha.setValue(new Double(parameters.errorFunction.alpha));
         errf_beta.setValue(new Double(parameters.errorFunction.beta));
@@ -640,11 +779,18 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         
         // OPTIMIZER
         opt_optimizer.setSelectedIndex( parameters.optimizer );
+        opt_polish.setSelected(parameters.polish.enabled);
+        opt_polishMaxIterations.setValue(new Integer(parameters.polish.maxIterations));
+        opt_coarseToFine.setSelected(parameters.coarseToFine.enabled);
+        opt_coarseMinEdges.setValue(new Integer(parameters.coarseToFine.minEdges));
+        opt_timeLimit.setValue(new Double(parameters.timeLimit));
+        opt_targetCost.setValue(new Double(parameters.targetCost));
         opt_optimizerLastSelection = parameters.optimizer;
         
         // EvolutionaryOptimizerV1
         evo_maxOptimizationSteps.setValue(new Integer(parameters.optEvo.maxIterations));
         evo_maxConstantSteps.setValue(new Integer(parameters.optEvo.maxConstIterations));
+        evo_seedFraction.setValue(new Double(parameters.optEvo.seedFraction));
 		evo_tau.setValue(new Double(parameters.optEvo.tau));
 		evo_minMutation.setValue(new Double(parameters.optEvo.minMutation));
 		evo_maxMutation.setValue(new Double(parameters.optEvo.maxMutation));
@@ -654,6 +800,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         // EvolutionaryOptimizerV1
         evo2_maxOptimizationSteps.setValue(new Integer(parameters.optEvo2.maxIterations));
         evo2_maxConstantSteps.setValue(new Integer(parameters.optEvo2.maxConstIterations));
+        evo2_seedFraction.setValue(new Double(parameters.optEvo2.seedFraction));
         evo2_tau.setValue(new Double(parameters.optEvo2.tau));
         evo2_tau1.setValue(new Double(parameters.optEvo2.tau1));
         evo2_beta.setValue(new Double(parameters.optEvo2.beta));
@@ -669,6 +816,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         swarm_maxV.setValue(new Double(parameters.optSwarm.maxV));
         swarm_maxIterations.setValue(new Integer(parameters.optSwarm.maxIterations));
         swarm_maxConstIterations.setValue(new Integer(parameters.optSwarm.maxConstIterations));
+        swarm_seedFraction.setValue(new Double(parameters.optSwarm.seedFraction));
         swarm_reflect.setSelected(parameters.optSwarm.reflect);
 
         // SwarmOptimizer
@@ -678,12 +826,21 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         p_swarm_maxV.setValue(new Double(parameters.optPSwarm.maxV));
         p_swarm_maxIterations.setValue(new Integer(parameters.optPSwarm.maxIterations));
         p_swarm_maxConstIterations.setValue(new Integer(parameters.optPSwarm.maxConstIterations));
+        p_swarm_seedFraction.setValue(new Double(parameters.optPSwarm.seedFraction));
         p_swarm_reflect.setSelected(parameters.optPSwarm.reflect);
         
+        // CMAESOptimizer
+        cmaes_populationSize.setValue(new Integer(parameters.optCmaes.populationSize));
+        cmaes_sigma.setValue(new Double(parameters.optCmaes.sigma));
+        cmaes_maxIterations.setValue(new Integer(parameters.optCmaes.maxIterations));
+        cmaes_maxConstIterations.setValue(new Integer(parameters.optCmaes.maxConstIterations));
+        cmaes_seedFraction.setValue(new Double(parameters.optCmaes.seedFraction));
+        
         opt_panel.remove(opt_evo_panel);
         opt_panel.remove(opt_evo2_panel);
         opt_panel.remove(opt_swarm_panel);
         opt_panel.remove(opt_p_swarm_panel);
+        opt_panel.remove(opt_cmaes_panel);
         
         switch( parameters.optimizer )
         {
@@ -706,6 +863,11 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
                 opt_p_swarm_panel.setVisible( true );
                 opt_panel.add(opt_p_swarm_panel,BorderLayout.CENTER);
                 break;
+
+            case CMAESOptimizer.Parameters.ID:
+                opt_cmaes_panel.setVisible( true );
+                opt_panel.add(opt_cmaes_panel,BorderLayout.CENTER);
+                break;
                 
             default:
                 // Assert.fail("illegal value of params.optimizer");
@@ -722,6 +884,8 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         if( glob_sizeFactor.getValue() != null )
             param.sizeFactor = ((Number)glob_sizeFactor.getValue()).doubleValue();
         
+        param.view = glob_view.getSelectedIndex();
+        
         if( glob_numEdges.getValue() != null )
             param.numEdges = ((Number)glob_numEdges.getValue()).intValue();        
         
@@ -745,6 +909,7 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         
         if( errf_maxIntersections.getValue() != null )
             param.errorFunction.maxIntersections = ((Number)errf_maxIntersections.getValue()).intValue();
+        param.errorFunction.sparseTree = errf_sparseTree.isSelected();
         
         if( errf_eta.getValue() != null )
             param.errorFunction.eta = ((Number)errf_eta.getValue()).doubleValue();
@@ -767,10 +932,23 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         if( errf_maxScale.getValue() != null )
             param.errorFunction.maxScale = ((Number)errf_maxScale.getValue()).doubleValue();        
         
+        if( errf_cacheSize.getValue() != null )
+            param.errorFunction.cacheSize = ((Number)errf_cacheSize.getValue()).intValue();
+        
         param.errorFunction.logCardinalities = param.logNumElements;
         
         // OPTIMIZER
         param.optimizer = opt_optimizer.getSelectedIndex();
+        param.polish.enabled = opt_polish.isSelected();
+        if( opt_polishMaxIterations.getValue() != null )
+            param.polish.maxIterations = ((Number)opt_polishMaxIterations.getValue()).intValue();
+        param.coarseToFine.enabled = opt_coarseToFine.isSelected();
+        if( opt_coarseMinEdges.getValue() != null )
+            param.coarseToFine.minEdges = ((Number)opt_coarseMinEdges.getValue()).intValue();
+        if( opt_timeLimit.getValue() != null )
+            param.timeLimit = ((Number)opt_timeLimit.getValue()).doubleValue();
+        if( opt_targetCost.getValue() != null )
+            param.targetCost = ((Number)opt_targetCost.getValue()).doubleValue();
         
 		// EvolutionaryOptimizerV1
 		if( evo_tau.getValue() != null )
@@ -794,6 +972,9 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
 		if( evo_maxConstantSteps.getValue() != null )
 			param.optEvo.maxConstIterations = ((Number)evo_maxConstantSteps.getValue()).intValue();
 		
+		if( evo_seedFraction.getValue() != null )
+			param.optEvo.seedFraction = ((Number)evo_seedFraction.getValue()).doubleValue();
+		
         // EvolutionaryOptimizer
         if( evo2_tau.getValue() != null )
             param.optEvo2.tau = ((Number)evo2_tau.getValue()).doubleValue();
@@ -821,6 +1002,9 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         
         if( evo2_maxConstantSteps.getValue() != null )
             param.optEvo2.maxConstIterations = ((Number)evo2_maxConstantSteps.getValue()).intValue();
+        
+        if( evo2_seedFraction.getValue() != null )
+            param.optEvo2.seedFraction = ((Number)evo2_seedFraction.getValue()).doubleValue();
 
         
         // SwarmOptimizer
@@ -842,6 +1026,9 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         if( swarm_maxConstIterations.getValue() != null )
             param.optSwarm.maxConstIterations = ((Number)swarm_maxConstIterations.getValue()).intValue();
         
+        if( swarm_seedFraction.getValue() != null )
+            param.optSwarm.seedFraction = ((Number)swarm_seedFraction.getValue()).doubleValue();
+        
         param.optSwarm.reflect = swarm_reflect.isSelected();
         
 
@@ -865,8 +1052,27 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
         if( p_swarm_maxConstIterations.getValue() != null )
             param.optPSwarm.maxConstIterations = ((Number)p_swarm_maxConstIterations.getValue()).intValue();
         
+        if( p_swarm_seedFraction.getValue() != null )
+            param.optPSwarm.seedFraction = ((Number)p_swarm_seedFraction.getValue()).doubleValue();
+        
         param.optPSwarm.reflect = p_swarm_reflect.isSelected();
         
+        // CMAESOptimizer
+        if( cmaes_populationSize.getValue() != null )
+            param.optCmaes.populationSize = ((Number)cmaes_populationSize.getValue()).intValue();
+        
+        if( cmaes_sigma.getValue() != null )
+            param.optCmaes.sigma = ((Number)cmaes_sigma.getValue()).doubleValue();
+        
+        if( cmaes_maxIterations.getValue() != null )
+            param.optCmaes.maxIterations = ((Number)cmaes_maxIterations.getValue()).intValue();
+        
+        if( cmaes_maxConstIterations.getValue() != null )
+            param.optCmaes.maxConstIterations = ((Number)cmaes_maxConstIterations.getValue()).intValue();
+        
+        if( cmaes_seedFraction.getValue() != null )
+            param.optCmaes.seedFraction = ((Number)cmaes_seedFraction.getValue()).doubleValue();
+        
         
 		return param;
 	}
@@ -959,7 +1165,9 @@ implements java.awt.event.ActionListener, java.awt.event.KeyListener, PropertyCh
 
     public void itemStateChanged(ItemEvent e) 
     {
-        if (e.getSource() == glob_colorMode || e.getSource() == swarm_reflect || e.getSource() == glob_logNElements) {
+        if (e.getSource() == glob_colorMode || e.getSource() == swarm_reflect || e.getSource() == glob_logNElements
+        		|| e.getSource() == glob_view || e.getSource() == opt_polish
+        		|| e.getSource() == opt_coarseToFine || e.getSource() == errf_sparseTree) {
         	// selection state changed
         	if (! userSeen) {
         		Toolkit.getDefaultToolkit().beep();
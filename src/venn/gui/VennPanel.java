@@ -303,7 +303,7 @@ implements ChangeListener, ResultAvailableListener, HasLabelsListener
                         ((double)params.numEdges*
                         Math.sin(2.0*Math.PI/(double)params.numEdges))/(radius*radius);
 
-        VennObjectFactory factory = new VennObjectFactory();
+        VennObjectFactory factory = new VennObjectFactory( params.view );
         factory.setPolygonParameters( params.numEdges, factor );
         
         
@@ -372,7 +372,7 @@ implements ChangeListener, ResultAvailableListener, HasLabelsListener
                         ((double)params.numEdges*
                         Math.sin(2.0*Math.PI/(double)params.numEdges))/(radius*radius);
 
-        VennObjectFactory factory = new VennObjectFactory();
+        VennObjectFactory factory = new VennObjectFactory( params.view );
         factory.setPolygonParameters( params.numEdges, factor );
         
         
@@ -6,6 +6,7 @@ package venn.optim;
 
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Random;
 
 public abstract class AbstractOptimizer 
 implements IOptimizer
@@ -13,6 +14,11 @@ implements IOptimizer
     
     private LinkedList observers;
     private int id;
+    
+    // limits which stop the optimization before the end condition is met
+    private volatile boolean hasDeadline;
+    private volatile long deadline;         // System.nanoTime()
+    private volatile double targetCost;     // <= 0: no target
 
     public AbstractOptimizer()
     {
@@ -65,13 +71,68 @@ implements IOptimizer
      */
     abstract protected void performOptimization();
     
+    /**
+     * Performs a single optimization step unless a limit has been reached
+     * (see {@link #limitReached()}).
+     */
     public void optimize()
     {
+        if( limitReached() )
+            return;
+        
         performOptimization();
         
         notifyObservers();
     }
+    
+    public void setDeadline( long deadline )
+    {
+        this.deadline = deadline;
+        hasDeadline = true;
+    }
+    
+    public void clearDeadline()
+    {
+        hasDeadline = false;
+    }
+    
+    public void setTargetCost( double cost )
+    {
+        targetCost = cost;
+    }
+    
+    public boolean limitReached()
+    {
+        return deadlinePassed() || targetReached();
+    }
+    
+    protected boolean deadlinePassed()
+    {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+    
+    protected boolean targetReached()
+    {
+        return targetCost > 0.0 && -getValue() < targetCost;
+    }
  
+    /**
+     * 
+     * @param func
+     * @param random
+     * @param fraction probability of a seed
+     * @return A seed of the function (see ISeedFunction) with the given probability,
+     * otherwise null. Draws no random numbers if <code>fraction</code> is 0.
+     */
+    protected static double[] createSeed( IFunction func, Random random, double fraction )
+    {
+        if( fraction <= 0.0 || ! (func instanceof ISeedFunction) )
+            return null;
+        if( random.nextDouble() >= fraction )
+            return null;
+        return ((ISeedFunction)func).getSeed(random);
+    }
+    
     public void setID(int id )
     {
         this.id = id;
@@ -0,0 +1,541 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import venn.utility.ArrayUtility;
+import venn.utility.MathUtility;
+import venn.utility.SystemUtility;
+
+/**
+ * Covariance matrix adaptation evolution strategy (CMA-ES) after N. Hansen,
+ * "The CMA Evolution Strategy: A Tutorial".
+ *
+ * The search runs on the free parameters (upper bound > lower bound) scaled to [0,1].
+ * Samples outside the box are projected onto it. Each generation is evaluated with
+ * IFunction.getOutputs(), i.e. in parallel.
+ */
+public class CMAESOptimizer
+extends AbstractOptimizer
+{
+    private static final double TOLERANCE = 1E-12; // smallest step size (scaled space)
+
+    private final Random    random;
+    private Parameters      params;
+    private IFunction       func;
+    private int             numIterations,
+                            numConstIterations;
+    private boolean         valid;
+
+    // search space
+    private int[]           free;           // indices of the free parameters
+    private int             n;              // number of free parameters
+
+    // strategy parameters
+    private int             lambda,         // population size
+                            mu;             // number of selected individuals
+    private double[]        weights;
+    private double          mueff, cc, cs, c1, cmu, damps, chiN;
+
+    // state
+    private double[]        mean,           // scaled
+                            pc, ps,         // evolution paths
+                            D;              // square roots of the eigenvalues of C
+    private double[][]      B,              // eigenvectors of C
+                            C,
+                            invsqrtC;
+    private double          sigma;
+    private int             numEvaluations,
+                            lastEigen;      // numEvaluations at the last decomposition
+
+    private double[][]      samples,        // last generation (scaled)
+                            inputs;         // last generation (function input)
+    private double[]        fitness;
+
+    private double[]        bestInput;
+    private double          bestFitness;
+
+
+    public CMAESOptimizer( Random random, IFunction errf, Parameters params )
+    {
+        if( random == null )
+            throw new IllegalArgumentException("Random must not be null");
+        if( errf == null )
+            throw new IllegalArgumentException("ErrorFunction must not be null");
+        if( params == null )
+            throw new IllegalArgumentException("Parameters must not be null");
+
+        this.random = random;
+        this.params = params;
+        valid = false;
+        setFunction( errf );
+        reset();
+    }
+
+    public void setParameters( Parameters params )
+    {
+        this.params = params;
+        invalidate();
+    }
+
+    public Parameters getParameters()
+    {
+        return params;
+    }
+
+    public void setFunction(IFunction function)
+    {
+        func = function;
+        invalidate();
+    }
+
+    public IFunction getFunction()
+    {
+        return func;
+    }
+
+    public void invalidate()
+    {
+        valid = false;
+    }
+
+    /**
+     * Sets up the strategy with a random start point.
+     */
+    public void validate()
+    {
+        if( valid )
+            return;
+
+        if( func == null )
+            throw new IllegalStateException("function must be set before calling validate()");
+
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+
+        int[] tmp = new int[L.length];
+        n = 0;
+        for( int i=0; i<L.length; ++i )
+        {
+            if( U[i] > L[i] )
+                tmp[n++] = i;
+        }
+        free = Arrays.copyOf(tmp,n);
+
+        // default strategy parameters
+        lambda = params.populationSize > 0 ? params.populationSize
+                                           : 4 + (int)Math.floor(3.0*Math.log(Math.max(1,n)));
+        lambda = Math.max(2,lambda);
+        mu = lambda / 2;
+        weights = new double[mu];
+        double sum = 0.0, sumSq = 0.0;
+        for( int i=0; i<mu; ++i )
+        {
+            weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+            sum += weights[i];
+        }
+        for( int i=0; i<mu; ++i )
+        {
+            weights[i] /= sum;
+            sumSq += weights[i] * weights[i];
+        }
+        mueff = 1.0 / sumSq;
+
+        cc = (4.0 + mueff/n) / (n + 4.0 + 2.0*mueff/n);
+        cs = (mueff + 2.0) / (n + mueff + 5.0);
+        c1 = 2.0 / ((n + 1.3)*(n + 1.3) + mueff);
+        cmu = Math.min(1.0 - c1, 2.0*(mueff - 2.0 + 1.0/mueff) / ((n + 2.0)*(n + 2.0) + mueff));
+        damps = 1.0 + 2.0*Math.max(0.0, Math.sqrt((mueff - 1.0)/(n + 1.0)) - 1.0) + cs;
+        chiN = Math.sqrt(n) * (1.0 - 1.0/(4.0*n) + 1.0/(21.0*n*n));
+
+        // start at a seed layout or at a random point
+        double[] seed = createSeed(func, random, params.seedFraction);
+        mean = new double[n];
+        for( int i=0; i<n; ++i )
+        {
+            int k = free[i];
+            mean[i] = seed != null ? (seed[k] - L[k]) / (U[k] - L[k]) : random.nextDouble();
+        }
+        restart();
+
+        samples = new double[lambda][n];
+        inputs = new double[lambda][];
+        fitness = new double[lambda];
+
+        bestInput = toInput(mean);
+        bestFitness = func.getOutputs(new double[][]{ bestInput })[0];
+        numEvaluations = 1;
+        lastEigen = 0;
+
+        valid = true;
+    }
+
+    /**
+     * Resets the step size, the evolution paths and the covariance matrix.
+     */
+    private void restart()
+    {
+        sigma = params.sigma;
+        pc = new double[n];
+        ps = new double[n];
+        D = new double[n];
+        Arrays.fill(D,1.0);
+        B = new double[n][n];
+        C = new double[n][n];
+        invsqrtC = new double[n][n];
+        MathUtility.unitMatrix(B);
+        MathUtility.unitMatrix(C);
+        MathUtility.unitMatrix(invsqrtC);
+    }
+
+    /**
+     *
+     * @param y scaled free parameters
+     * @return The input of the function (fixed parameters at their lower bound).
+     */
+    private double[] toInput(double[] y)
+    {
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+        double[] x = L.clone();
+        for( int i=0; i<n; ++i )
+        {
+            int k = free[i];
+            x[k] = L[k] + y[i] * (U[k] - L[k]);
+        }
+        return x;
+    }
+
+    protected synchronized void performOptimization()
+    {
+        validate();
+
+        Assert.assertFalse( endCondition() );
+
+        ++numIterations;
+
+        // sample a new generation: mean + sigma * B * D * N(0,I), projected onto the box
+        double[] z = new double[n];
+        for( int k=0; k<lambda; ++k )
+        {
+            for( int j=0; j<n; ++j )
+            {
+                z[j] = D[j] * random.nextGaussian();
+            }
+            for( int i=0; i<n; ++i )
+            {
+                double y = 0.0;
+                for( int j=0; j<n; ++j )
+                {
+                    y += B[i][j] * z[j];
+                }
+                samples[k][i] = MathUtility.restrict( mean[i] + sigma * y, 0.0, 1.0 );
+            }
+            inputs[k] = toInput(samples[k]);
+        }
+
+        fitness = func.getOutputs(inputs);
+        numEvaluations += lambda;
+
+        // rank by fitness (descending)
+        Integer[] order = new Integer[lambda];
+        for( int k=0; k<lambda; ++k )
+        {
+            order[k] = Integer.valueOf(k);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(fitness[b.intValue()], fitness[a.intValue()]);
+            }
+        });
+
+        int best = order[0].intValue();
+        if( fitness[best] > bestFitness )
+        {
+            bestFitness = fitness[best];
+            bestInput = inputs[best].clone();
+            numConstIterations = 0;
+        }
+        else
+        {
+            ++numConstIterations;
+        }
+
+        if( n > 0 )
+            adapt(order);
+    }
+
+    /**
+     * Moves the mean to the selected samples and adapts the evolution paths,
+     * the covariance matrix and the step size.
+     */
+    private void adapt(Integer[] order)
+    {
+        double[] oldMean = mean;
+        mean = new double[n];
+        for( int s=0; s<mu; ++s )
+        {
+            double[] y = samples[order[s].intValue()];
+            for( int i=0; i<n; ++i )
+            {
+                mean[i] += weights[s] * y[i];
+            }
+        }
+
+        double[] step = new double[n];
+        for( int i=0; i<n; ++i )
+        {
+            step[i] = (mean[i] - oldMean[i]) / sigma;
+        }
+
+        // cumulation for sigma
+        double norm = 0.0,
+               f = Math.sqrt(cs * (2.0 - cs) * mueff);
+        for( int i=0; i<n; ++i )
+        {
+            double v = 0.0;
+            for( int j=0; j<n; ++j )
+            {
+                v += invsqrtC[i][j] * step[j];
+            }
+            ps[i] = (1.0 - cs) * ps[i] + f * v;
+            norm += ps[i] * ps[i];
+        }
+        norm = Math.sqrt(norm);
+
+        // cumulation for C (stalled if the step size path is long)
+        boolean hsig = norm / Math.sqrt(1.0 - Math.pow(1.0 - cs, 2.0 * numEvaluations / lambda)) / chiN
+                        < 1.4 + 2.0 / (n + 1.0);
+        f = hsig ? Math.sqrt(cc * (2.0 - cc) * mueff) : 0.0;
+        for( int i=0; i<n; ++i )
+        {
+            pc[i] = (1.0 - cc) * pc[i] + f * step[i];
+        }
+
+        // rank-one and rank-mu update
+        double oldFactor = 1.0 - c1 - cmu + (hsig ? 0.0 : c1 * cc * (2.0 - cc));
+        double[][] a = new double[mu][n];
+        for( int s=0; s<mu; ++s )
+        {
+            double[] y = samples[order[s].intValue()];
+            for( int i=0; i<n; ++i )
+            {
+                a[s][i] = (y[i] - oldMean[i]) / sigma;
+            }
+        }
+        for( int i=0; i<n; ++i )
+        {
+            for( int j=0; j<=i; ++j )
+            {
+                double rankMu = 0.0;
+                for( int s=0; s<mu; ++s )
+                {
+                    rankMu += weights[s] * a[s][i] * a[s][j];
+                }
+                C[i][j] = oldFactor * C[i][j] + c1 * pc[i] * pc[j] + cmu * rankMu;
+                C[j][i] = C[i][j];
+            }
+        }
+
+        // step size
+        sigma *= Math.exp((cs / damps) * (norm / chiN - 1.0));
+
+        // the decomposition is needed only every few generations
+        if( numEvaluations - lastEigen > lambda / (c1 + cmu) / n / 10.0 )
+        {
+            lastEigen = numEvaluations;
+            decompose();
+        }
+    }
+
+    /**
+     * C = B * diag(D^2) * B'
+     */
+    private void decompose()
+    {
+        EigenDecomposition eigen = new EigenDecomposition(new Array2DRowRealMatrix(C,false));
+        RealMatrix V = eigen.getV();
+        double[] ev = eigen.getRealEigenvalues();
+
+        for( int i=0; i<n; ++i )
+        {
+            D[i] = Math.sqrt(Math.max(ev[i],TOLERANCE*TOLERANCE));
+            for( int j=0; j<n; ++j )
+            {
+                B[j][i] = V.getEntry(j,i);
+            }
+        }
+        for( int i=0; i<n; ++i )
+        {
+            for( int j=0; j<n; ++j )
+            {
+                double v = 0.0;
+                for( int k=0; k<n; ++k )
+                {
+                    v += B[i][k] * B[j][k] / D[k];
+                }
+                invsqrtC[i][j] = v;
+            }
+        }
+    }
+
+    /**
+     *
+     * @return True if the step size became too small to make progress.
+     */
+    private boolean converged()
+    {
+        if( ! valid || n == 0 )
+            return false;
+
+        double maxD = 0.0;
+        for( int i=0; i<n; ++i )
+        {
+            maxD = Math.max(maxD,D[i]);
+        }
+        return sigma * maxD < TOLERANCE;
+    }
+
+    public int getMaxProgress()
+    {
+        return params.maxIterations;
+    }
+
+    public int getProgress()
+    {
+        return numIterations;
+    }
+
+    public boolean endCondition()
+    {
+        return (numIterations >= params.maxIterations) || (numConstIterations >= params.maxConstIterations)
+                || converged();
+    }
+
+    public double[] getOptimum()
+    {
+        validate();
+        return bestInput;
+    }
+
+    public double getValue()
+    {
+        validate();
+        return bestFitness;
+    }
+
+    /**
+     *
+     * @return The number of function evaluations so far.
+     */
+    public int getNumEvaluations()
+    {
+        return numEvaluations;
+    }
+
+    public void reset()
+    {
+        numIterations = 0;
+        numConstIterations = 0;
+        if( converged() )
+            restart();
+    }
+
+    public synchronized void reevaluate()
+    {
+        if( ! valid )
+            return;
+
+        bestFitness = func.getOutputs(new double[][]{ bestInput })[0];
+        ++numEvaluations;
+    }
+
+    public void writeState( Writer writer ) throws IOException
+    {
+        if( ! valid )
+            return;
+
+        for( int k=0; k<lambda; ++k )
+        {
+            if( inputs[k] == null )
+                continue;
+            writer.write(k+"\t"+(-fitness[k]) +"\t" );
+            ArrayUtility.doubleVectorToStream(writer,inputs[k],"\t");
+            writer.write("\n");
+        }
+    }
+
+
+    /**
+     * Parameter structure for this optimization algorithm.
+     *
+     */
+    public static class Parameters implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        public static final int ID = 4;
+
+        public int      populationSize;     // 0: 4 + 3 ln(n)
+        public double   sigma;              // initial step size (relative to the bounds)
+        public int      maxIterations,      // maximum number of generations
+                        maxConstIterations; // maximum number of generations without improvement
+        public double   seedFraction;       // probability of starting at a seed (see ISeedFunction)
+
+        public Parameters()
+        {
+            populationSize = 0;
+            sigma = 0.3;
+            maxIterations = 300;
+            maxConstIterations = 50;
+            seedFraction = 1.0;
+        }
+
+        public Object clone()
+        {
+            return SystemUtility.serialClone(this);
+        }
+
+        /**
+         *
+         * @return true if nothing changed
+         */
+        public boolean check()
+        {
+            boolean changed = false;
+            int oldint;
+            double olddouble;
+
+            oldint = populationSize;
+            if (oldint != (populationSize = MathUtility.restrict(populationSize,0,1000))) changed = true;
+
+            olddouble = sigma;
+            if (olddouble != (sigma = MathUtility.restrict(sigma,0.001,1.0))) changed = true;
+
+            oldint = maxIterations;
+            if (oldint != (maxIterations = MathUtility.restrict(maxIterations,1,100000))) changed = true;
+
+            oldint = maxConstIterations;
+            if (oldint != (maxConstIterations = MathUtility.restrict(maxConstIterations,1,100000))) changed = true;
+
+            olddouble = seedFraction;
+            if (olddouble != (seedFraction = MathUtility.restrict(seedFraction,0.0,1.0))) changed = true;
+
+            return ! changed;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+
+import venn.utility.MathUtility;
+import venn.utility.SystemUtility;
+
+/**
+ * Runs an optimizer on a function with a coarse resolution first and raises the
+ * resolution in stages (see IResolutionFunction). For Venn diagrams the sets start
+ * as n-gons with few edges, the number of edges is doubled in each stage up to the
+ * number of edges the sets were created with.
+ *
+ * A stage ends if the optimum did not improve for a number of iterations or if the
+ * optimizer met its end condition. The optimizer keeps its search state, only the
+ * cached function values are computed again. The last stage runs at the full
+ * resolution until the end condition of the optimizer is met.
+ */
+public class CoarseToFineOptimizer
+extends AbstractOptimizer
+{
+    private final IOptimizer    inner;
+    private Parameters          params;
+
+    private int[]               stages;         // resolution of each stage, the last one is 0 (full)
+    private int                 stage,
+                                numConstIterations,
+                                previousProgress;   // progress of the optimizer before its last reset
+    private double              lastValue;
+
+
+    public CoarseToFineOptimizer( IOptimizer inner, Parameters params )
+    {
+        if( inner == null )
+            throw new IllegalArgumentException("Optimizer must not be null");
+        if( params == null )
+            throw new IllegalArgumentException("Parameters must not be null");
+
+        this.inner = inner;
+        this.params = params;
+        start();
+    }
+
+    /**
+     *
+     * @return The optimizer which runs in the stages.
+     */
+    public IOptimizer getInnerOptimizer()
+    {
+        return inner;
+    }
+
+    public void setParameters( Parameters params )
+    {
+        this.params = params;
+        start();
+    }
+
+    public Parameters getParameters()
+    {
+        return params;
+    }
+
+    public void setFunction(IFunction function)
+    {
+        inner.setFunction(function);
+        start();
+    }
+
+    public IFunction getFunction()
+    {
+        return inner.getFunction();
+    }
+
+    public void setID(int id)
+    {
+        super.setID(id);
+        inner.setID(id);
+    }
+
+    /**
+     * Builds the schedule and switches the function to the first stage.
+     */
+    private void start()
+    {
+        int max = 0;
+        IFunction func = inner.getFunction();
+        if( func instanceof IResolutionFunction )
+            max = ((IResolutionFunction)func).getMaxResolution();
+
+        int num = 1;
+        for( int n=params.minEdges; n<max; n*=2 )
+        {
+            ++num;
+        }
+        stages = new int[num];
+        for( int i=0, n=params.minEdges; i<num-1; ++i, n*=2 )
+        {
+            stages[i] = n;
+        }
+        stages[num-1] = 0;
+
+        stage = 0;
+        previousProgress = 0;
+        numConstIterations = 0;
+        lastValue = Double.NEGATIVE_INFINITY;
+        setResolution(stages[0]);
+    }
+
+    private void setResolution( int resolution )
+    {
+        IFunction func = inner.getFunction();
+        if( func instanceof IResolutionFunction )
+            ((IResolutionFunction)func).setResolution(resolution);
+    }
+
+    protected synchronized void performOptimization()
+    {
+        if( ! inner.endCondition() )
+        {
+            inner.optimize();
+
+            double value = inner.getValue();
+            if( value > lastValue )
+            {
+                lastValue = value;
+                numConstIterations = 0;
+            }
+            else
+            {
+                ++numConstIterations;
+            }
+        }
+
+        if( ! isLastStage() && (inner.endCondition() || numConstIterations >= params.stageIterations) )
+            nextStage();
+    }
+
+    /**
+     * Raises the resolution, the optimizer continues with its current state.
+     */
+    private void nextStage()
+    {
+        ++stage;
+        setResolution(stages[stage]);
+        inner.reevaluate();
+
+        if( inner.endCondition() )
+        {
+            previousProgress += inner.getProgress();
+            inner.reset();
+        }
+        lastValue = inner.getValue();
+        numConstIterations = 0;
+    }
+
+    private boolean isLastStage()
+    {
+        return stage >= stages.length - 1;
+    }
+
+    /**
+     *
+     * @return The current stage (the last one runs at the full resolution).
+     */
+    public int getStage()
+    {
+        return stage;
+    }
+
+    /**
+     *
+     * @return The number of stages.
+     */
+    public int getNumStages()
+    {
+        return stages.length;
+    }
+
+    public int getMaxProgress()
+    {
+        return previousProgress + inner.getMaxProgress();
+    }
+
+    public int getProgress()
+    {
+        return previousProgress + inner.getProgress();
+    }
+
+    public boolean endCondition()
+    {
+        return isLastStage() && inner.endCondition();
+    }
+
+    /**
+     * The target cost only counts at the full resolution.
+     */
+    public boolean limitReached()
+    {
+        return deadlinePassed() || (isLastStage() && targetReached());
+    }
+
+    public double[] getOptimum()
+    {
+        return inner.getOptimum();
+    }
+
+    public double getValue()
+    {
+        return inner.getValue();
+    }
+
+    /**
+     * Switches to the full resolution if the optimization was interrupted.
+     */
+    public synchronized void finished()
+    {
+        if( ! isLastStage() )
+        {
+            stage = stages.length - 1;
+            setResolution(stages[stage]);
+            inner.reevaluate();
+        }
+        inner.finished();
+        super.finished();
+    }
+
+    /**
+     * The optimizer is restarted at the full resolution.
+     */
+    public void reset()
+    {
+        inner.reset();
+        previousProgress = 0;
+        numConstIterations = 0;
+    }
+
+    public synchronized void reevaluate()
+    {
+        inner.reevaluate();
+        lastValue = inner.getValue();
+    }
+
+    public void writeState( Writer writer ) throws IOException
+    {
+        inner.writeState(writer);
+    }
+
+
+    /**
+     * Parameter structure of the resolution schedule.
+     *
+     */
+    public static class Parameters implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        public boolean  enabled;            // start with coarse polygons
+        public int      minEdges,           // number of edges in the first stage
+                        stageIterations;    // iterations without improvement which end a stage
+
+        public Parameters()
+        {
+            enabled = false;
+            minEdges = 8;
+            stageIterations = 10;
+        }
+
+        public Object clone()
+        {
+            return SystemUtility.serialClone(this);
+        }
+
+        /**
+         *
+         * @return true if nothing changed
+         */
+        public boolean check()
+        {
+            boolean changed = false;
+            int oldint;
+
+            oldint = minEdges;
+            if (oldint != (minEdges = MathUtility.restrict(minEdges,3,128))) changed = true;
+
+            oldint = stageIterations;
+            if (oldint != (stageIterations = MathUtility.restrict(stageIterations,1,10000))) changed = true;
+
+            return ! changed;
+        }
+    }
+}
@@ -80,6 +80,32 @@ extends AbstractOptimizer
         }
     }
     
+    /**
+     * Computes the cost values of all individuals with an invalid cache at once.
+     *
+     */
+    public void evaluate()
+    {
+        Assert.assertNotNull(individuals);
+        int num = 0;
+        double[][] inputs = new double[individuals.length][];
+        for(int i=0; i<individuals.length; ++i)
+        {
+            if( ! individuals[i].valid )
+                inputs[num++] = individuals[i].value;
+        }
+        if( num == 0 )
+            return;
+        
+        double[] outputs = errf.getOutputs( Arrays.copyOf(inputs,num) );
+        num = 0;
+        for(int i=0; i<individuals.length; ++i)
+        {
+            if( ! individuals[i].valid )
+                individuals[i].setFitness( outputs[num++] );
+        }
+    }
+    
     /**
      * Updates and sorts individuals according to the cost value.
      *
@@ -247,6 +273,7 @@ extends AbstractOptimizer
             validate();
             
             mutate();
+            evaluate();
             sort();
                         
             // find the best
@@ -310,6 +337,21 @@ extends AbstractOptimizer
         numIterations = 0;
         numConstIterations = 0;
     }        
+    
+    public void reevaluate()
+    {
+        if( ! valid )
+            return;
+        
+        for(int i=0; i<individuals.length; ++i)
+        {
+            individuals[i].invalidate();
+        }
+        evaluate();
+        sort();
+        if( theVeryBest != null )
+            theVeryBest.invalidate();
+    }
 
     
     public void writeState( Writer writer ) throws IOException
@@ -333,7 +375,8 @@ extends AbstractOptimizer
         private final EvolutionaryOptimizer     parent;
         private double[]                        value,         // the origin
                                                 mutation,
-                                                alpha;         // rotation parameters
+                                                alpha,         // rotation parameters
+                                                step;          // work array of mutate()
         private boolean                         valid;      // is the function of cost valid ?        
         private double                          cacheOutput;        // current value of the cost function
                 
@@ -346,6 +389,7 @@ extends AbstractOptimizer
             value       = (double[])(src.value.clone());
             mutation    = (double[])(src.mutation.clone());
             alpha       = (double[])(src.alpha.clone());
+            step        = new double[value.length];
             
             valid = src.valid;
             cacheOutput = src.cacheOutput;
@@ -361,6 +405,7 @@ extends AbstractOptimizer
             value = new double[n];
             mutation = new double[n];
             alpha = new double[(n*(n-1))/2];
+            step = new double[n];
             
             valid = false;
             cacheOutput = 0.0;
@@ -379,6 +424,12 @@ extends AbstractOptimizer
             return cacheOutput;
         }
         
+        private void setFitness( double fitness )
+        {
+            cacheOutput = fitness;
+            valid = true;
+        }
+        
         public double[] getValue()
         {
             return value;
@@ -410,9 +461,10 @@ extends AbstractOptimizer
             double[] L = parent.errf.getLowerBounds(),
                      U = parent.errf.getUpperBounds();
             
+            double[] seed = createSeed( parent.errf, random, parent.params.seedFraction );
             for(int i=0; i<mutation.length; ++i )
             {
-                value[i]    = L[i] + random.nextDouble() * (U[i]-L[i]);
+                value[i]    = seed != null ? seed[i] : L[i] + random.nextDouble() * (U[i]-L[i]);
                 mutation[i] = parent.params.minMutation + 
                                 random.nextDouble()*(parent.params.maxMutation-parent.params.minMutation);
             }
@@ -459,49 +511,19 @@ extends AbstractOptimizer
                 MathUtility.fmod( alpha[i], 2.0*Math.PI );                
             }
             
-            // create rotation matrix
-            double[][] R = MathUtility.createMatrix(n,n),
-                        tmp = MathUtility.createMatrix(n,n),
-                        dst = MathUtility.createMatrix(n,n);
-            
-            MathUtility.unitMatrix( R );
-            
-            int k = 0;
-            for( int i = 0; i < n-1; ++i )
-            {
-                for( int j = (i+1); j < n; ++j )
-                {
-                    double  cos_ij = Math.cos( alpha[k] ),
-                            sin_ij = Math.sin( alpha[k] );
-                    
-                    MathUtility.unitMatrix(tmp);
-                    
-                    tmp[i][i] = cos_ij;
-                    tmp[j][j] = cos_ij;
-                    tmp[i][j] = -sin_ij;
-                    tmp[j][i] = sin_ij;
-                    
-                    MathUtility.matrixProduct(R,tmp,dst);
-                    MathUtility.matrixCopy(dst,R);
-                    
-                    ++k;
-                }
-            }
-            
-            double[][]  sigma_u = new double[n][1], // independent distributions
-                        sigma_c = new double[n][1]; // rotated distribution
-            
+            // independent distributions
             for( int i=0; i < n; ++i )
             {
-                sigma_u[i][0] = random.nextGaussian() * mutation[i];
+                step[i] = random.nextGaussian() * mutation[i];
             }
             
-            MathUtility.matrixProduct(R,sigma_u,sigma_c);
+            // correlate them by the rotation angles
+            MathUtility.givensRotate( alpha, step );
             
             // mutate parameters
             for( int i=0; i<n; ++i )
             {
-                value[i] += sigma_c[i][0];
+                value[i] += step[i];
 //              restrict to bounding box
                 MathUtility.restrict(value[i],L[i],U[i]);
             }
@@ -536,6 +558,7 @@ extends AbstractOptimizer
 
         public int      maxIterations,
                         maxConstIterations;
+        public double   seedFraction;       // fraction of the individuals starting at a seed (see ISeedFunction)
 
     
 
@@ -551,6 +574,7 @@ extends AbstractOptimizer
             beta        = 0.0873;
             maxIterations = 200;
             maxConstIterations = 25;
+            seedFraction = 0.25;
         }
         
         public Object clone()
@@ -594,6 +618,9 @@ extends AbstractOptimizer
             oldint = maxConstIterations;
             if (oldint != (maxConstIterations = MathUtility.restrict(maxConstIterations,1,maxIterations))) changed = true;            
             
+            olddouble = seedFraction;
+            if (olddouble != (seedFraction = MathUtility.restrict(seedFraction,0.0,1.0))) changed = true;
+            
             return ! changed;
         }
     }
@@ -79,6 +79,32 @@ extends AbstractOptimizer
 		}
 	}
 	
+	/**
+	 * Computes the cost values of all individuals with an invalid cache at once.
+	 *
+	 */
+	public void evaluate()
+	{
+        Assert.assertNotNull(individuals);
+		int num = 0;
+		double[][] inputs = new double[individuals.length][];
+		for(int i=0; i<individuals.length; ++i)
+		{
+			if( ! individuals[i].valid )
+				inputs[num++] = individuals[i].value;
+		}
+		if( num == 0 )
+			return;
+		
+		double[] outputs = errf.getOutputs( Arrays.copyOf(inputs,num) );
+		num = 0;
+		for(int i=0; i<individuals.length; ++i)
+		{
+			if( ! individuals[i].valid )
+				individuals[i].setFitness( outputs[num++] );
+		}
+	}
+	
 	/**
 	 * Updates and sorts individuals according to the cost value.
 	 *
@@ -248,6 +274,7 @@ extends AbstractOptimizer
             ++numIterations;            
             
             mutate();
+            evaluate();
             sort();
                         
             // find the best
@@ -314,6 +341,21 @@ extends AbstractOptimizer
         numConstIterations = 0;
     }
     
+    public void reevaluate()
+    {
+        if( ! valid )
+            return;
+        
+        for(int i=0; i<individuals.length; ++i)
+        {
+            individuals[i].invalidate();
+        }
+        evaluate();
+        sort();
+        if( theVeryBest != null )
+            theVeryBest.invalidate();
+    }
+    
     
     public void writeState( Writer writer ) throws IOException
     {
@@ -377,6 +419,12 @@ extends AbstractOptimizer
             return cacheOutput;
         }
         
+        private void setFitness( double fitness )
+        {
+            cacheOutput = fitness;
+            valid = true;
+        }
+        
         public double[] getValue()
         {
             return value;
@@ -408,9 +456,10 @@ extends AbstractOptimizer
             double[] L = parent.errf.getLowerBounds(),
                      U = parent.errf.getUpperBounds();
             
+            double[] seed = createSeed( parent.errf, random, parent.params.seedFraction );
             for(int i=0; i<mutation.length; ++i )
             {
-                value[i]    = L[i] + random.nextDouble() * (U[i]-L[i]);
+                value[i]    = seed != null ? seed[i] : L[i] + random.nextDouble() * (U[i]-L[i]);
                 mutation[i] = parent.params.minMutation + 
                                 random.nextDouble()*(parent.params.maxMutation-parent.params.minMutation);
             }
@@ -481,6 +530,7 @@ extends AbstractOptimizer
 
         public int      maxIterations,
                         maxConstIterations;
+        public double   seedFraction;       // fraction of the individuals starting at a seed (see ISeedFunction)
 
                
         public Parameters()
@@ -492,6 +542,7 @@ extends AbstractOptimizer
             tau         = 1.0;
             maxIterations = 200;
             maxConstIterations = 25;
+            seedFraction = 0.25;
         }
         
         public Object clone()
@@ -529,6 +580,9 @@ extends AbstractOptimizer
             oldint = maxConstIterations;
             if (oldint != (maxConstIterations = MathUtility.restrict(maxConstIterations,1,maxIterations))) changed = true;            
             
+            olddouble = seedFraction;
+            if (olddouble != (seedFraction = MathUtility.restrict(seedFraction,0.0,1.0))) changed = true;
+            
             return ! changed;
         }
     }
@@ -0,0 +1,127 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of function values with least recently used eviction.
+ * Inputs are compared exactly, so a cached value is only returned for the
+ * same input vector (e.g. coordinates clamped to the bounds or clones of
+ * the same individual).
+ *
+ * The cache may be shared by several copies of a function and by several threads.
+ */
+public class FitnessCache
+{
+    private final int                       capacity;
+    private final LinkedHashMap<Key,double[]> map;
+    private long                            hits,
+                                            misses;
+
+
+    /**
+     *
+     * @param capacity maximum number of cached inputs (&gt; 0)
+     */
+    public FitnessCache( int capacity )
+    {
+        if( capacity <= 0 )
+            throw new IllegalArgumentException("capacity must be > 0");
+
+        this.capacity = capacity;
+        map = new LinkedHashMap<Key,double[]>(16,0.75f,true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            protected boolean removeEldestEntry( Map.Entry<Key,double[]> eldest )
+            {
+                return size() > FitnessCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     *
+     * @param input
+     * @return The values stored for the input or null (counts a hit or a miss).
+     */
+    public synchronized double[] get( double[] input )
+    {
+        double[] values = map.get(new Key(input));
+        if( values != null )
+            ++hits;
+        else
+            ++misses;
+        return values;
+    }
+
+    /**
+     * Stores copies of the input and of the values.
+     *
+     * @param input
+     * @param values
+     */
+    public synchronized void put( double[] input, double[] values )
+    {
+        map.put(new Key(input.clone()),values.clone());
+    }
+
+    /**
+     * Removes all values (e.g. if the function changed), the counters are kept.
+     */
+    public synchronized void clear()
+    {
+        map.clear();
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public synchronized int size()
+    {
+        return map.size();
+    }
+
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+
+    /**
+     * Input vector with a precomputed hash code.
+     */
+    private static final class Key
+    {
+        private final double[]  input;
+        private final int       hash;
+
+        Key( double[] input )
+        {
+            this.input = input;
+            this.hash = Arrays.hashCode(input);
+        }
+
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        public boolean equals( Object obj )
+        {
+            return (obj instanceof Key) && Arrays.equals(input,((Key)obj).input);
+        }
+    }
+}
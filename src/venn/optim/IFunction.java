@@ -62,4 +62,13 @@ public interface IFunction
      */
     public double getOutput();
     
+    /**
+     * Evaluates the function for a whole population. This does not change the
+     * input set by <code>setInput()</code>. Implementations may evaluate the inputs in parallel.
+     * 
+     * @param inputs each row is an input as for <code>setInput()</code>
+     * @return The output for each row of inputs.
+     */
+    public double[] getOutputs( double[][] inputs );
+    
 }
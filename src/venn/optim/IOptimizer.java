@@ -91,6 +91,36 @@ public interface IOptimizer
      * The endCondition() should be false after calling reset.
      */
     public void reset();
+    
+    /**
+     * Computes all cached function values again, e.g. after the function has been
+     * changed (see IResolutionFunction). The state of the search is kept.
+     */
+    public void reevaluate();
+
+    /**
+     * The optimization stops at the given time, even if the end condition is not met.
+     * 
+     * @param deadline System.nanoTime() at which optimize() does nothing any more
+     * @see #clearDeadline()
+     */
+    public void setDeadline( long deadline );
+    
+    public void clearDeadline();
+    
+    /**
+     * The optimization stops if the error (-getValue()) is below the given cost.
+     * 
+     * @param cost target error, values &lt;= 0 disable the target
+     */
+    public void setTargetCost( double cost );
+    
+    /**
+     * 
+     * @return true if the deadline has passed or the target cost has been reached.
+     * In this case optimize() does nothing.
+     */
+    public boolean limitReached();
 
     public int getID();
     public void setID(int i);
@@ -0,0 +1,32 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+/**
+ * A function which can be evaluated at a coarser (cheaper) resolution,
+ * e.g. with polygons which have less edges.
+ * The resolution is shared by the function and all of its copies.
+ */
+public interface IResolutionFunction extends IFunction
+{
+    /**
+     *
+     * @return The full resolution or 0 if the resolution can not be changed.
+     */
+    public int getMaxResolution();
+
+    /**
+     * Changes the resolution of this function and of all its copies.
+     *
+     * @param resolution The new resolution, values &lt;= 0 select the full resolution.
+     */
+    public void setResolution( int resolution );
+
+    /**
+     *
+     * @return The current resolution (0 is the full resolution).
+     */
+    public int getResolution();
+}
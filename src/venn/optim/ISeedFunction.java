@@ -0,0 +1,22 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+import java.util.Random;
+
+/**
+ * A function which can propose start points near a good guess of the optimum
+ * (e.g. a layout derived from the problem data).
+ * Optimizers use these seeds for a part of their initial population.
+ */
+public interface ISeedFunction extends IFunction
+{
+    /**
+     * 
+     * @param random random generator for the variation of the seeds
+     * @return A start point within the bounds or null if there is no guess.
+     */
+    public double[] getSeed( Random random );
+}
@@ -29,7 +29,7 @@ implements IOptimizerObserver
         }
     }
 
-    public void notifyOptimization( IOptimizer source ) 
+    public synchronized void notifyOptimization( IOptimizer source ) 
     {
         Assert.assertNotNull( source );
                 
@@ -57,8 +57,34 @@ implements IOptimizerObserver
         }
     }
 
-    public void finished( IOptimizer source ) 
+    public synchronized void finished( IOptimizer source ) 
     {
+        if( writer != null && source instanceof PolishOptimizer && ((PolishOptimizer)source).isPolishing() )
+        {
+            // error recovered by the local refinement: #polish ProblemID CostBefore CostAfter Recovered
+            PolishOptimizer polish = (PolishOptimizer)source;
+            try {
+                writer.write( "#polish\t" + source.getID() + "\t" + polish.getStartError() + "\t" + polish.getError()
+                        + "\t" + (polish.getStartError() - polish.getError()) + "\n" );
+            }
+            catch( IOException e )
+            {
+            }
+        }
+        if( writer != null && source.getFunction() instanceof VennErrorFunction )
+        {
+            FitnessCache cache = ((VennErrorFunction)source.getFunction()).getCache();
+            if( cache != null )
+            {
+                // evaluations answered by the cache: #cache ProblemID Hits Misses
+                try {
+                    writer.write( "#cache\t" + source.getID() + "\t" + cache.getHits() + "\t" + cache.getMisses() + "\n" );
+                }
+                catch( IOException e )
+                {
+                }
+            }
+        }
         /*
         if( writer != null )
         {
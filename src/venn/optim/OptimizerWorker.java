@@ -6,13 +6,18 @@ package venn.optim;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.swing.BoundedRangeModel;
 import javax.swing.DefaultBoundedRangeModel;
 
 import venn.diagram.IntersectionTree.MemoryLowException;
+import venn.parallel.ExecutorServiceFactory;
 
 import junit.framework.Assert;
 
@@ -20,6 +25,8 @@ import junit.framework.Assert;
 /**
  * Implements a SwingWorker class for background calculations.
  * Without interruption it will optimize all given IOptimizers.
+ * The optimizers are independent, so they run concurrently on the shared executor
+ * (see ExecutorServiceFactory).
  * Add new optimizers with <code>addOptimizer( IOptimizer )</code>.
  * The whole thing is started with <code>worker.start()</code>.
  * 
@@ -36,6 +43,8 @@ public class OptimizerWorker extends SwingWorker
 	private volatile boolean finishedStarted;
 	private volatile boolean workerAborted;
 	private volatile boolean off;
+	private volatile boolean stopOptimizers;	// tells the running optimizers to stop
+	private double			timeLimit;		// seconds for all optimizers (0: no limit)
 	
 	public OptimizerWorker()
 	{
@@ -72,6 +81,14 @@ public class OptimizerWorker extends SwingWorker
     	return finishedComplete;
     }
     
+    /**
+     * 
+     * @return True if the optimizers are not (or no more) running.
+     */
+    public boolean optimizersStopped() {
+    	return constructEnded || off();
+    }
+    
     /**
      * abort worker, finished() won't be called
      */
@@ -91,6 +108,18 @@ public class OptimizerWorker extends SwingWorker
 	    optimizers.add(opt);
 	}
 	
+	/**
+	 * All optimizers together get the given time, the budget is shared fairly
+	 * between them (see TimeBudget). It starts when the worker starts.
+	 * 
+	 * @param seconds the time limit, values &lt;= 0 disable the limit
+	 */
+	public synchronized void setTimeLimit( double seconds )
+	{
+        Assert.assertFalse( constructStarted ); // race condition
+		timeLimit = seconds;
+	}
+	
 	/**
 	 * Subscribe a progress bar with e.g.
 	 * getModel().addChangeListener( progressBar )
@@ -199,45 +228,119 @@ public class OptimizerWorker extends SwingWorker
 
 		model.setRangeProperties(0,1,0,nrange,false);
 
-		// optimize each generation (independently solvable subset) separately
-		int iround = 0;
-		while( ! allFinished() )
-		{	
-			if (Thread.interrupted()) {
-				optFinished();
-				return "interrupted";
-			}
-
-			// find a non-terminated optimizer
-			while( ((IOptimizer)optimizers.get(iround)).endCondition() )
-			{
-				iround = (iround + 1) % optimizers.size();
-			}
+		// optimize each generation (independently solvable subset) in its own task
+		stopOptimizers = false;
+		ExecutorService executor = ExecutorServiceFactory.getExecutorService();
+		ArrayList<IOptimizer> running = new ArrayList<IOptimizer>();
+		for( int i=0; i<optimizers.size(); ++i )
+		{
+			IOptimizer opt = (IOptimizer)optimizers.get(i);
+			opt.clearDeadline();
+			if( ! opt.endCondition() )
+				running.add(opt);
+		}
+		final TimeBudget budget = timeLimit > 0.0 ? 
+				new TimeBudget(timeLimit,running.size(),ExecutorServiceFactory.getNumberOfThreads()) : null;
+		
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+		for( int i=0; i<running.size(); ++i )
+		{
+			final IOptimizer opt = running.get(i);
+			futures.add( executor.submit( new Runnable() {
+				public void run() {
+					if( budget != null )
+						opt.setDeadline(budget.start());
+					try {
+						while( ! stopOptimizers && ! opt.endCondition() && ! opt.limitReached() )
+						{
+							opt.optimize();
+							updateProgress();
+						}
+					}
+					finally {
+						if( budget != null )
+							budget.finished();
+					}
+				}
+			}));
+		}
+		
+		// wait for all optimizers
+		String state = "finished";
+		boolean interrupted = false;
+		for( int i=0; i<futures.size(); ++i )
+		{
 			try {
-				((IOptimizer)optimizers.get(iround)).optimize();
-			} catch (MemoryLowException e) {
-				e.printStackTrace();
-				optFinished();
-				return "error";
-			}
-			
-			// update progress
-			if( model != null )
-			{
-				int progress = 0;
-				for( int i=0; i<optimizers.size(); ++i )
+				futures.get(i).get();
+			} catch (InterruptedException e) {
+				// let the running optimizers finish their current step
+				interrupted = true;
+				stopOptimizers = true;
+				--i;
+			} catch (ExecutionException e) {
+				stopOptimizers = true;
+				if( e.getCause() instanceof MemoryLowException )
+				{
+					e.getCause().printStackTrace();
+					state = "error";
+				}
+				else
 				{
-					progress += ((IOptimizer)optimizers.get(i)).getProgress();
+					waitFor(futures);
+					if( e.getCause() instanceof RuntimeException )
+						throw (RuntimeException)e.getCause();
+					if( e.getCause() instanceof Error )
+						throw (Error)e.getCause();
+					throw new IllegalStateException(e.getCause());
 				}
-				model.setValue(progress);
 			}
-
-			// choose next optimizer
-			iround = (iround + 1) % optimizers.size();
 		}
 		
+		if( interrupted && state.equals("finished") )
+			state = "interrupted";
+		
 		optFinished();
-		return "finished";
+		return state;
+	}
+	
+	/**
+	 * Waits for all tasks without reporting their errors.
+	 */
+	private static void waitFor( ArrayList<Future<?>> futures )
+	{
+		boolean interrupted = false;
+		for( int i=0; i<futures.size(); ++i )
+		{
+			try {
+				futures.get(i).get();
+			} catch (InterruptedException e) {
+				interrupted = true;
+				--i;
+			} catch (ExecutionException e) {
+			}
+		}
+		if( interrupted )
+			Thread.currentThread().interrupt();
+	}
+	
+	/**
+	 * Sets the total progress of all optimizers (called by the optimizer tasks).
+	 */
+	private void updateProgress()
+	{
+		BoundedRangeModel m = model;
+		if( m == null )
+			return;
+		
+		synchronized( m )
+		{
+			int progress = 0;
+			for( int i=0; i<optimizers.size(); ++i )
+			{
+				progress += ((IOptimizer)optimizers.get(i)).getProgress();
+			}
+			m.setValue(progress);
+		}
 	}
 	
 	private synchronized void optFinished() {
@@ -9,31 +9,36 @@ package venn.optim;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.Writer;
-import java.util.ArrayList;
 import java.util.Random;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.Phaser;
 
 import junit.framework.Assert;
 import venn.parallel.ExecutorServiceFactory;
 import venn.utility.ArrayUtility;
 import venn.utility.MathUtility;
 
+/**
+ * Particle swarm optimizer which moves the particles in parallel.
+ * The swarm is partitioned into fixed slices, one per thread (see --cpus).
+ * The optimizer thread moves the first slice, each other slice is owned by a
+ * worker thread which lives as long as the optimization runs. All threads meet at
+ * a phaser at the start and at the end of each iteration.
+ */
 public class ParallelSwarmOptimizer extends AbstractOptimizer {
 	private final Random random;
-	private ExecutorService threadPool;
+	private SliceWorker[] workers;
+	private Phaser phaser;
+	private volatile Throwable workerError;
 	private Parameters params;
 	private IFunction func;
-	private Particle globalBest;
+	private IFunction[] sliceFuncs; // one copy of the function per slice
+	private double[] globalBest; // position of the best particle so far
+	private double globalBestFitness;
 	private Particle[] particles;
 	private int numIterations, numConstIterations;
 	private boolean valid;
 
 	ParallelSwarmOptimizer(Random random) {
-		threadPool=ExecutorServiceFactory.getExecutorService();
 		this.random = random;
 		params = new Parameters();
 		valid = false;
@@ -41,7 +46,6 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 
 	public ParallelSwarmOptimizer(Random random, IFunction errf,
 			Parameters params) {
-		threadPool=ExecutorServiceFactory.getExecutorService();
 		this.random = random;
 		this.params = params;
 		valid = false;
@@ -57,11 +61,6 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 		return params;
 	}
 
-	public Particle getGlobalBest() {
-		validate();
-		return globalBest;
-	}
-
 	public void setFunction(IFunction function) {
 		func = function;
 		invalidate();
@@ -78,15 +77,28 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 				throw new IllegalStateException(
 						"function must be set before calling validate()");
 
+			// the slices refer to the old particles
+			stopWorkers();
+
 			particles = new Particle[params.numParticles];
+			sliceFuncs = new IFunction[Math.max(1, Math.min(
+					ExecutorServiceFactory.getNumberOfThreads(), particles.length))];
+			for (int s = 0; s < sliceFuncs.length; ++s) {
+				sliceFuncs[s] = func.copy();
+			}
 			int iBest = 0;
-			for (int i = 0; i < particles.length; ++i) {
-				particles[i] = new Particle(new Random(random.nextLong()) , this);
-	            //a new random generator for each particle is necessary to maintain deterministic behavior.
-				if (particles[i].getFitness() > particles[iBest].getFitness())
-					iBest = i;
+			for (int s = 0, i = 0; s < sliceFuncs.length; ++s) {
+				// the particles of a slice are moved by the same thread, so they
+				// can share the function
+				for (; i < sliceEnd(s); ++i) {
+					particles[i] = new Particle(new Random(random.nextLong()) , this, sliceFuncs[s]);
+		            //a new random generator for each particle is necessary to maintain deterministic behavior.
+					if (particles[i].getFitness() > particles[iBest].getFitness())
+						iBest = i;
+				}
 			}
-			globalBest = new Particle(particles[iBest]);
+			globalBest = particles[iBest].getValue().clone();
+			globalBestFitness = particles[iBest].getFitness();
 			valid = true;
 
 			reset();
@@ -106,35 +118,41 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 
 		boolean improved = false;
 
-		// move the whole swarm
-
-		ArrayList<ParticleThread> runnables = new ArrayList<ParticleThread>();
-		ArrayList<Future> futures= new ArrayList<Future>();
-		for (Particle particle : particles) {
-
-			ParticleThread pThread = new ParticleThread(particle);
-			runnables.add(pThread);
-			futures.add(threadPool.submit(pThread));
-
+		if (workers == null)
+			startWorkers();
+
+		// move the whole swarm: start the workers, move the first slice and wait
+		// for the other slices
+		workerError = null;
+		if (workers.length > 0)
+			phaser.arriveAndAwaitAdvance();
+		int best = -1;
+		try {
+			best = moveSlice(0, sliceEnd(0));
+		} catch (Throwable e) {
+			// the workers wait for the end of the iteration
+			workerError = e;
 		}
-		
-		// wait for all threads to finish.
-		for (Future thread : futures) {
-				try {
-					thread.get();
-				} catch (InterruptedException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				} catch (ExecutionException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
+		if (workers.length > 0)
+			phaser.arriveAndAwaitAdvance();
+
+		if (workerError != null) {
+			Throwable e = workerError;
+			stopWorkers();
+			if (e instanceof RuntimeException)
+				throw (RuntimeException) e;
+			if (e instanceof Error)
+				throw (Error) e;
+			throw new IllegalStateException(e);
 		}
 
-		// assert results and get global best particle
-		for (Particle particle : particles) {
-			if (particle.getFitness() > globalBest.getFitness()) {
-				globalBest = new Particle(particle);
+		// reduce the best particles of the slices to the global best particle
+		for (int i = 0; i <= workers.length; ++i) {
+			int idx = (i == 0) ? best : workers[i - 1].best;
+			if (idx >= 0 && particles[idx].getFitness() > globalBestFitness) {
+				// a new array, the old optimum may still be in use
+				globalBest = particles[idx].getValue().clone();
+				globalBestFitness = particles[idx].getFitness();
 				improved = true;
 			}
 		}
@@ -143,6 +161,64 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 			numConstIterations = 0;
 		else
 			++numConstIterations;
+
+		if (endCondition())
+			stopWorkers();
+	}
+
+	/**
+	 * Moves the particles [from,to).
+	 * 
+	 * @return The index of the first best particle of the slice.
+	 */
+	private int moveSlice(int from, int to) {
+		int best = -1;
+		for (int i = from; i < to; ++i) {
+			particles[i].move();
+			if (best < 0 || particles[i].getFitness() > particles[best].getFitness())
+				best = i;
+		}
+		return best;
+	}
+
+	private int numSlices() {
+		return sliceFuncs.length;
+	}
+
+	/**
+	 * 
+	 * @return The end (exclusive) of the given slice.
+	 */
+	private int sliceEnd(int slice) {
+		int n = numSlices();
+		return (int) ((long) particles.length * (slice + 1) / n);
+	}
+
+	private void startWorkers() {
+		int n = numSlices();
+		workers = new SliceWorker[n - 1];
+		phaser = new Phaser(n);
+		for (int i = 0; i < workers.length; ++i) {
+			workers[i] = new SliceWorker(sliceEnd(i), sliceEnd(i + 1));
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Terminates the worker threads (they are started again on the next
+	 * optimization step).
+	 */
+	private void stopWorkers() {
+		if (phaser != null)
+			phaser.forceTermination();
+		phaser = null;
+		workers = null;
+	}
+
+	@Override
+	public synchronized void finished() {
+		stopWorkers();
+		super.finished();
 	}
 
 	public int getMaxProgress() {
@@ -159,17 +235,13 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 	}
 
 	public double[] getOptimum() {
-		Particle p = getGlobalBest();
-		if (p == null)
-			return null;
-		return p.getValue();
+		validate();
+		return globalBest;
 	}
 
 	public double getValue() {
-		Particle p = getGlobalBest();
-		if (p == null)
-			return 0.0;
-		return p.getFitness();
+		validate();
+		return globalBestFitness;
 	}
 
 	public void reset() {
@@ -177,6 +249,17 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 		numConstIterations = 0;
 	}
 
+	public synchronized void reevaluate() {
+		if (!valid)
+			return;
+
+		for (int i = 0; i < particles.length; ++i) {
+			particles[i].invalidate();
+			particles[i].bestValid = false;
+		}
+		globalBestFitness = func.getOutputs(new double[][] { globalBest })[0];
+	}
+
 	public void writeState(Writer writer) throws IOException {
 		for (int i = 0; i < particles.length; ++i) {
 			writer.write(i + "\t" + (-particles[i].getFitness()) + "\t");
@@ -199,6 +282,8 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 		 * Sebastian Behrens 2012-10-24
 		 * Added an IFunction instance for each particle,
 		 * needed for parallelisation.
+		 * 
+		 * The function is shared by the particles of a slice.
 		 */
 		private IFunction localFunc;
 		
@@ -206,33 +291,22 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 
 		private ParallelSwarmOptimizer swarm;
 		private double[] value, // current position in parameter space
-				velocity;
+				velocity,
+				bestValue; // best position of this particle
 		private boolean valid; // error value valid
-		private Particle localBest;
+		private boolean bestValid; // bestFitness valid
 
 		private transient double cacheOutput;
+		private transient double bestFitness;
 		private transient boolean outOfBox;
 
-		Particle(Random random, ParallelSwarmOptimizer swarm) {
-//			this.localFunc = new VennErrorFunction()
+		Particle(Random random, ParallelSwarmOptimizer swarm, IFunction func) {
 			this.random = random;
 			this.swarm = swarm;
-			localFunc = swarm.func.copy();
+			localFunc = func;
 			reset();
 		}
 
-		Particle(Particle other) {
-			random = other.random;
-			swarm = other.swarm;
-			localFunc = other.localFunc.copy();
-			value = (double[]) (other.value.clone());
-			velocity = (double[]) (other.velocity.clone());
-			cacheOutput = other.cacheOutput;
-			valid = other.valid;
-			localBest = null;
-			outOfBox = false;
-		}
-
 		public void reset() {
 			int N = localFunc.getNumInput();
 			double[] L = localFunc.getLowerBounds(), U = localFunc
@@ -241,9 +315,12 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 			value = new double[N];
 			velocity = new double[N];
 
-			// choose random start value
+			// start at a seed layout or at a random point
+			double[] seed = createSeed(localFunc, random,
+					swarm.params.seedFraction);
 			for (int i = 0; i < N; ++i) {
-				value[i] = L[i] + random.nextDouble() * (U[i] - L[i]);
+				value[i] = seed != null ? seed[i] : L[i] + random.nextDouble()
+						* (U[i] - L[i]);
 			}
 
 			// choose velocities
@@ -254,7 +331,8 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 
 			invalidate();
 
-			localBest = new Particle(this);
+			bestValue = value.clone();
+			bestValid = false;
 			outOfBox = false;
 		}
 
@@ -287,14 +365,29 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 
 		/**
 		 * 
-		 * @return the best instance of this particle
+		 * @return the best position of this particle
+		 */
+		public double[] getLocalBest() {
+			return bestValue;
+		}
+
+		/**
+		 * 
+		 * @return the fitness of the best position of this particle
 		 */
-		public Particle getLocalBest() {
-			return localBest;
+		public double getLocalBestFitness() {
+			if (!bestValid) {
+				localFunc.setInput(bestValue);
+				bestFitness = localFunc.getOutput();
+				bestValid = true;
+			}
+			return bestFitness;
 		}
 
-		private void setBest(Particle particle) {
-			localBest = new Particle(particle);
+		private void setBest() {
+			System.arraycopy(value, 0, bestValue, 0, value.length);
+			bestFitness = getFitness();
+			bestValid = true;
 		}
 
 		/**
@@ -313,9 +406,9 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 					velocity[i] = 0.0;
 				} else {
 					velocity[i] += (swarm.params.cGlobal * random.nextDouble()
-							* (swarm.getGlobalBest().value[i] - value[i]) + swarm.params.cLocal
+							* (swarm.globalBest[i] - value[i]) + swarm.params.cLocal
 							* random.nextDouble()
-							* (getLocalBest().value[i] - value[i]))
+							* (bestValue[i] - value[i]))
 							/ d;
 					// restrict velocities ?
 					velocity[i] = MathUtility.restrict(velocity[i],
@@ -348,8 +441,8 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 			invalidate();
 			// update the local best
 			if (!outOfBox) {
-				if (getFitness() > getLocalBest().getFitness()) {
-					setBest(this);
+				if (getFitness() > getLocalBestFitness()) {
+					setBest();
 				}
 			}
 		}
@@ -372,6 +465,8 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 				maxConstIterations; // maximum number of iterations where the
 									// optimum does not improve
 		public boolean reflect; // reflect at the bounding box
+		public double seedFraction; // fraction of the particles starting at a
+									// seed (see ISeedFunction)
 
 		public Parameters() {
 			numParticles = 30;
@@ -381,6 +476,7 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 			maxIterations = 200;
 			maxConstIterations = 25;
 			reflect = true;
+			seedFraction = 0.25;
 		}
 
 		public boolean check() {
@@ -415,21 +511,45 @@ public class ParallelSwarmOptimizer extends AbstractOptimizer {
 					maxConstIterations, 2, maxIterations)))
 				changed = true;
 
+			olddouble = seedFraction;
+			if (olddouble != (seedFraction = MathUtility.restrict(seedFraction,
+					0.0, 1.0)))
+				changed = true;
+
 			return !changed;
 		}
 	}
 
-	private class ParticleThread extends Thread {
-
-		private Particle particle;
-
-		public ParticleThread(Particle particle) {
-			this.particle = particle;
+	/**
+	 * Moves a fixed slice of the swarm in each iteration.
+	 */
+	private class SliceWorker extends Thread {
+
+		private final int from, to;
+		private final Phaser phaser;
+		private volatile int best; // best particle of the slice in the last iteration
+
+		public SliceWorker(int from, int to) {
+			super("ParallelSwarmOptimizer [" + from + "," + to + ")");
+			setDaemon(true);
+			this.from = from;
+			this.to = to;
+			this.phaser = ParallelSwarmOptimizer.this.phaser;
+			best = -1;
 		}
 
 		@Override
 		public void run() {
-			particle.move();
+			while (phaser.arriveAndAwaitAdvance() >= 0) { // start of an iteration
+				try {
+					best = moveSlice(from, to);
+				} catch (Throwable e) {
+					best = -1;
+					workerError = e;
+				}
+				if (phaser.arriveAndAwaitAdvance() < 0) // end of the iteration
+					return;
+			}
 		}
 
 	}
@@ -0,0 +1,524 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.LinkedList;
+
+import venn.utility.MathUtility;
+import venn.utility.SystemUtility;
+
+/**
+ * Runs a global optimizer until its end condition is met and refines the result
+ * with a bounded limited-memory quasi-Newton method (projected L-BFGS with an
+ * active set, in the spirit of L-BFGS-B).
+ *
+ * The gradient is approximated by central differences which are evaluated with
+ * IFunction.getOutputs(), i.e. in parallel. The candidates of each line search are
+ * evaluated in one batch as well.
+ *
+ * The function value is maximized (like in all optimizers), internally the error
+ * E = -value is minimized.
+ */
+public class PolishOptimizer
+extends AbstractOptimizer
+{
+    private static final int    NUM_STEPS = 8;      // line search candidates per iteration
+    private static final double ARMIJO = 1E-4,
+                                MAX_FIRST_STEP = 0.1; // relative to the bounds
+
+    private final IOptimizer    global;
+    private Parameters          params;
+
+    private boolean             started,
+                                done;
+    private int                 numIterations;
+    private double[]            x,                  // current point
+                                g;                  // gradient of E at x
+    private double              fx,                 // E(x)
+                                startError;         // E at the start of the refinement
+    private LinkedList<double[][]> history;         // double[][]{ s, y, {1/(s*y)} }
+
+    // best refined point (kept across reset())
+    private double[]            bestInput;
+    private double              bestFitness;
+
+
+    public PolishOptimizer( IOptimizer global, Parameters params )
+    {
+        if( global == null )
+            throw new IllegalArgumentException("Optimizer must not be null");
+        if( params == null )
+            throw new IllegalArgumentException("Parameters must not be null");
+
+        this.global = global;
+        this.params = params;
+        history = new LinkedList<double[][]>();
+        reset();
+    }
+
+    /**
+     *
+     * @return The global optimizer.
+     */
+    public IOptimizer getGlobalOptimizer()
+    {
+        return global;
+    }
+
+    public void setParameters( Parameters params )
+    {
+        this.params = params;
+    }
+
+    public Parameters getParameters()
+    {
+        return params;
+    }
+
+    public void setFunction(IFunction function)
+    {
+        global.setFunction(function);
+        bestInput = null;
+        reset();
+    }
+
+    public IFunction getFunction()
+    {
+        return global.getFunction();
+    }
+
+    public void setID(int id)
+    {
+        super.setID(id);
+        global.setID(id);
+    }
+
+    protected synchronized void performOptimization()
+    {
+        if( ! global.endCondition() )
+        {
+            global.optimize();
+            return;
+        }
+
+        if( ! started )
+        {
+            start();
+            return;
+        }
+
+        iterate();
+    }
+
+    /**
+     * Starts the refinement at the better of the global optimum and the last refined point.
+     */
+    private void start()
+    {
+        started = true;
+        numIterations = 0;
+        history.clear();
+
+        IFunction func = getFunction();
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+
+        double[] opt = global.getOptimum();
+        if( bestInput != null && bestFitness > global.getValue() )
+            opt = bestInput;
+
+        x = new double[opt.length];
+        for( int i=0; i<x.length; ++i )
+        {
+            x[i] = MathUtility.restrict(opt[i],L[i],U[i]);
+        }
+        fx = -func.getOutputs(new double[][]{ x })[0];
+        startError = fx;
+        g = gradient(x);
+        accept();
+
+        if( params.maxIterations <= 0 )
+            done = true;
+    }
+
+    /**
+     * One quasi-Newton step with a projected backtracking line search.
+     */
+    private void iterate()
+    {
+        IFunction func = getFunction();
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+
+        ++numIterations;
+        if( numIterations >= params.maxIterations )
+            done = true;
+
+        double[] d = direction();
+        double slope = project(d,L,U);
+        if( slope >= 0.0 )
+        {
+            // no descent direction, fall back to steepest descent
+            history.clear();
+            d = direction();
+            slope = project(d,L,U);
+            if( slope >= 0.0 )
+            {
+                // projected gradient vanishes
+                done = true;
+                return;
+            }
+        }
+
+        // the first step has no curvature information
+        double t = 1.0;
+        if( history.isEmpty() )
+        {
+            double max = 0.0;
+            for( int i=0; i<d.length; ++i )
+            {
+                if( U[i] > L[i] )
+                    max = Math.max(max, Math.abs(d[i]) / (U[i] - L[i]));
+            }
+            if( max > MAX_FIRST_STEP )
+                t = MAX_FIRST_STEP / max;
+        }
+
+        double[][] cand = new double[NUM_STEPS][];
+        for( int k=0; k<NUM_STEPS; ++k )
+        {
+            cand[k] = new double[x.length];
+            for( int i=0; i<x.length; ++i )
+            {
+                cand[k][i] = MathUtility.restrict(x[i] + t * d[i],L[i],U[i]);
+            }
+            t *= 0.5;
+        }
+        double[] out = func.getOutputs(cand);
+
+        int k = 0;
+        for( ; k<NUM_STEPS; ++k )
+        {
+            double decrease = 0.0;
+            for( int i=0; i<x.length; ++i )
+            {
+                decrease += g[i] * (cand[k][i] - x[i]);
+            }
+            if( -out[k] <= fx + ARMIJO * decrease && -out[k] < fx )
+                break;
+        }
+
+        if( k == NUM_STEPS )
+        {
+            // the curvature information was misleading, try again without it
+            if( history.isEmpty() )
+                done = true;
+            history.clear();
+            return;
+        }
+
+        double[] xnew = cand[k],
+                 gnew = gradient(xnew);
+        double fnew = -out[k];
+
+        double[] s = new double[x.length],
+                 y = new double[x.length];
+        double sy = 0.0;
+        for( int i=0; i<x.length; ++i )
+        {
+            s[i] = xnew[i] - x[i];
+            y[i] = gnew[i] - g[i];
+            sy += s[i] * y[i];
+        }
+        if( sy > 1E-12 )
+        {
+            history.addLast(new double[][]{ s, y, { 1.0 / sy } });
+            while( history.size() > params.memory )
+                history.removeFirst();
+        }
+
+        if( fx - fnew <= params.tolerance * Math.max(1.0, Math.abs(fx)) )
+            done = true;
+
+        x = xnew;
+        g = gnew;
+        fx = fnew;
+        accept();
+    }
+
+    private void accept()
+    {
+        if( bestInput == null || -fx > bestFitness )
+        {
+            bestInput = x.clone();
+            bestFitness = -fx;
+        }
+    }
+
+    /**
+     *
+     * @return -H*g (two-loop recursion over the stored pairs).
+     */
+    private double[] direction()
+    {
+        int m = history.size();
+        double[] q = g.clone();
+        double[] a = new double[m];
+
+        for( int j=m-1; j>=0; --j )
+        {
+            double[][] h = history.get(j);
+            a[j] = h[2][0] * dot(h[0],q);
+            add(q,h[1],-a[j]);
+        }
+        if( m > 0 )
+        {
+            double[][] h = history.getLast();
+            double yy = dot(h[1],h[1]);
+            double gamma = yy > 0.0 ? 1.0 / (h[2][0] * yy) : 1.0;
+            for( int i=0; i<q.length; ++i )
+            {
+                q[i] *= gamma;
+            }
+        }
+        for( int j=0; j<m; ++j )
+        {
+            double[][] h = history.get(j);
+            double b = h[2][0] * dot(h[1],q);
+            add(q,h[0],a[j] - b);
+        }
+        for( int i=0; i<q.length; ++i )
+        {
+            q[i] = -q[i];
+        }
+        return q;
+    }
+
+    /**
+     * Removes the components of d which point out of the box at active bounds.
+     *
+     * @return g*d
+     */
+    private double project( double[] d, double[] L, double[] U )
+    {
+        double slope = 0.0;
+        for( int i=0; i<d.length; ++i )
+        {
+            if( (U[i] <= L[i]) || (x[i] <= L[i] && d[i] < 0.0) || (x[i] >= U[i] && d[i] > 0.0) )
+                d[i] = 0.0;
+            slope += g[i] * d[i];
+        }
+        return slope;
+    }
+
+    /**
+     * Central differences, one-sided at the bounds.
+     *
+     * @return The gradient of the error at p.
+     */
+    private double[] gradient( double[] p )
+    {
+        IFunction func = getFunction();
+        double[] L = func.getLowerBounds(),
+                 U = func.getUpperBounds();
+
+        int[] free = new int[p.length];
+        int n = 0;
+        for( int i=0; i<p.length; ++i )
+        {
+            if( U[i] > L[i] )
+                free[n++] = i;
+        }
+
+        double[][] points = new double[2*n][];
+        for( int j=0; j<n; ++j )
+        {
+            int i = free[j];
+            double h = params.step * (U[i] - L[i]);
+            points[2*j] = p.clone();
+            points[2*j][i] = Math.min(U[i], p[i] + h);
+            points[2*j+1] = p.clone();
+            points[2*j+1][i] = Math.max(L[i], p[i] - h);
+        }
+        double[] out = func.getOutputs(points);
+
+        double[] grad = new double[p.length];
+        for( int j=0; j<n; ++j )
+        {
+            int i = free[j];
+            grad[i] = (out[2*j+1] - out[2*j]) / (points[2*j][i] - points[2*j+1][i]);
+        }
+        return grad;
+    }
+
+    private static double dot( double[] a, double[] b )
+    {
+        double sum = 0.0;
+        for( int i=0; i<a.length; ++i )
+        {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * a += f * b
+     */
+    private static void add( double[] a, double[] b, double f )
+    {
+        for( int i=0; i<a.length; ++i )
+        {
+            a[i] += f * b[i];
+        }
+    }
+
+    /**
+     *
+     * @return True if the refinement has started.
+     */
+    public boolean isPolishing()
+    {
+        return started;
+    }
+
+    /**
+     *
+     * @return The error at the start of the (last) refinement.
+     */
+    public double getStartError()
+    {
+        return startError;
+    }
+
+    /**
+     *
+     * @return The error of the refined point.
+     */
+    public double getError()
+    {
+        return fx;
+    }
+
+    public int getMaxProgress()
+    {
+        return global.getMaxProgress() + params.maxIterations;
+    }
+
+    public int getProgress()
+    {
+        return global.getProgress() + numIterations;
+    }
+
+    public boolean endCondition()
+    {
+        return global.endCondition() && done;
+    }
+
+    public double[] getOptimum()
+    {
+        if( bestInput != null && bestFitness > global.getValue() )
+            return bestInput;
+        return global.getOptimum();
+    }
+
+    public double getValue()
+    {
+        double value = global.getValue();
+        if( bestInput != null && bestFitness > value )
+            return bestFitness;
+        return value;
+    }
+
+    public synchronized void finished()
+    {
+        global.finished();
+        super.finished();
+    }
+
+    public void reset()
+    {
+        global.reset();
+        started = false;
+        done = false;
+        numIterations = 0;
+        history.clear();
+    }
+
+    public synchronized void reevaluate()
+    {
+        global.reevaluate();
+        if( bestInput != null )
+            bestFitness = getFunction().getOutputs(new double[][]{ bestInput })[0];
+        if( started && x != null )
+        {
+            fx = -getFunction().getOutputs(new double[][]{ x })[0];
+            g = gradient(x);
+            history.clear();
+        }
+    }
+
+    public void writeState( Writer writer ) throws IOException
+    {
+        global.writeState(writer);
+    }
+
+
+    /**
+     * Parameter structure of the refinement.
+     *
+     */
+    public static class Parameters implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        public boolean  enabled;        // run the refinement after the global optimizer
+        public int      maxIterations,  // maximum number of quasi-Newton steps
+                        memory;         // number of stored correction pairs
+        public double   step,           // finite difference step (relative to the bounds)
+                        tolerance;      // minimum relative decrease of the error per step
+
+        public Parameters()
+        {
+            enabled = false;
+            maxIterations = 50;
+            memory = 5;
+            step = 1E-4;
+            tolerance = 1E-6;
+        }
+
+        public Object clone()
+        {
+            return SystemUtility.serialClone(this);
+        }
+
+        /**
+         *
+         * @return true if nothing changed
+         */
+        public boolean check()
+        {
+            boolean changed = false;
+            int oldint;
+            double olddouble;
+
+            oldint = maxIterations;
+            if (oldint != (maxIterations = MathUtility.restrict(maxIterations,0,100000))) changed = true;
+
+            oldint = memory;
+            if (oldint != (memory = MathUtility.restrict(memory,1,100))) changed = true;
+
+            olddouble = step;
+            if (olddouble != (step = MathUtility.restrict(step,1E-10,0.1))) changed = true;
+
+            olddouble = tolerance;
+            if (olddouble != (tolerance = MathUtility.restrict(tolerance,0.0,1.0))) changed = true;
+
+            return ! changed;
+        }
+    }
+}
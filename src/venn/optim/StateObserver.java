@@ -24,7 +24,7 @@ implements IOptimizerObserver
         this.writer = writer;
     }
 
-    public void notifyOptimization( IOptimizer source ) 
+    public synchronized void notifyOptimization( IOptimizer source ) 
     {
         Assert.assertNotNull( source );
         
@@ -78,10 +78,15 @@ extends AbstractOptimizer
                 throw new IllegalStateException("function must be set before calling validate()");
             
             particles = new Particle[params.numParticles];
-            int iBest = 0;
             for( int i=0; i<particles.length; ++i )
             {
                 particles[i] = new Particle(random, this);
+            }
+            evaluate();
+            
+            int iBest = 0;
+            for( int i=0; i<particles.length; ++i )
+            {
                 if( particles[i].getFitness() > particles[iBest].getFitness() )
                     iBest = i;
             }
@@ -107,10 +112,16 @@ extends AbstractOptimizer
         
         boolean improved = false;
         
-        // move the whole swarm
+        // move the whole swarm and evaluate it at once
         for( int i=0; i<particles.length; ++i )
         {
             particles[i].move();
+        }
+        evaluate();
+        
+        for( int i=0; i<particles.length; ++i )
+        {
+            particles[i].updateLocalBest();
             
             // update global best
             if( particles[i].getFitness() > globalBest.getFitness() )
@@ -125,6 +136,36 @@ extends AbstractOptimizer
         else
             ++numConstIterations;        
     }
+    
+    /**
+     * Computes all invalid cost values of the particles and their local bests at once.
+     */
+    private void evaluate()
+    {
+        Particle[] todo = new Particle[2*particles.length];
+        int num = 0;
+        for( int i=0; i<particles.length; ++i )
+        {
+            if( ! particles[i].valid && ! particles[i].outOfBox )
+                todo[num++] = particles[i];
+            if( ! particles[i].localBest.valid )
+                todo[num++] = particles[i].localBest;
+        }
+        if( num == 0 )
+            return;
+        
+        double[][] inputs = new double[num][];
+        for( int i=0; i<num; ++i )
+        {
+            inputs[i] = todo[i].value;
+        }
+        double[] outputs = func.getOutputs( inputs );
+        for( int i=0; i<num; ++i )
+        {
+            todo[i].cacheOutput = outputs[i];
+            todo[i].valid = true;
+        }
+    }
 
     public int getMaxProgress() 
     {
@@ -163,6 +204,21 @@ extends AbstractOptimizer
         numConstIterations = 0;
     }
     
+    public synchronized void reevaluate()
+    {
+        if( ! valid )
+            return;
+        
+        for( int i=0; i<particles.length; ++i )
+        {
+            particles[i].invalidate();
+            particles[i].localBest.invalidate();
+        }
+        evaluate();
+        globalBest.invalidate();
+        globalBest.getFitness();
+    }
+    
     public void writeState( Writer writer ) throws IOException
     {
     		for( int i=0; i<particles.length; ++i )
@@ -222,10 +278,11 @@ extends AbstractOptimizer
             value    = new double[N];
             velocity = new double[N];
             
-            // choose random start value
+            // start at a seed layout or at a random point
+            double[] seed = createSeed( swarm.func, random, swarm.params.seedFraction );
             for( int i=0; i<N; ++i )
             {
-                value[i] = L[i] + random.nextDouble()*(U[i]-L[i]); 
+                value[i] = seed != null ? seed[i] : L[i] + random.nextDouble()*(U[i]-L[i]); 
             }
             
             // choose velocities
@@ -289,7 +346,7 @@ extends AbstractOptimizer
         
         
         /**
-         * Moves this particle and updates the cost value.
+         * Moves this particle. The cost value is computed by the swarm afterwards.
          *
          */
         public void move()
@@ -346,8 +403,13 @@ extends AbstractOptimizer
             }
                         
             invalidate();
-
-            // update the local best
+        }
+        
+        /**
+         * Updates the local best after a move.
+         */
+        public void updateLocalBest()
+        {
             if( ! outOfBox )
             {
                 if( getFitness() > getLocalBest().getFitness() )
@@ -376,6 +438,7 @@ extends AbstractOptimizer
         public int      maxIterations,          // maximum number of iterations
                         maxConstIterations;     // maximum number of iterations where the optimum does not improve
         public boolean  reflect;                // reflect at the bounding box
+        public double   seedFraction;           // fraction of the particles starting at a seed (see ISeedFunction)
 
         
         
@@ -388,6 +451,7 @@ extends AbstractOptimizer
             maxIterations   = 200;
             maxConstIterations = 25;
             reflect         = true;
+            seedFraction    = 0.25;
         }
         
         public boolean check()
@@ -414,6 +478,9 @@ extends AbstractOptimizer
             oldint = maxConstIterations;
             if (oldint != (maxConstIterations = MathUtility.restrict(maxConstIterations,2,maxIterations))) changed = true;
             
+            olddouble = seedFraction;
+            if (olddouble != (seedFraction = MathUtility.restrict(seedFraction,0.0,1.0))) changed = true;
+            
             return ! changed;
         }
     }
@@ -0,0 +1,74 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.optim;
+
+/**
+ * A wall-clock budget for several independent optimizations which run on a
+ * limited number of threads.
+ *
+ * Each optimization asks for its deadline when it starts. If there are more
+ * unfinished optimizations than threads, the remaining time is divided so that
+ * all of them can get the same share; otherwise the deadline is the end of the
+ * budget. Time which is left by optimizations which stop early is given to the
+ * ones started later.
+ */
+public class TimeBudget
+{
+    private final long  end;            // System.nanoTime() at the end of the budget
+    private final int   parallelism;
+    private int         unfinished;     // optimizations which did not finish yet
+
+
+    /**
+     *
+     * @param seconds the whole budget (starts now)
+     * @param numOptimizations number of optimizations which share the budget
+     * @param parallelism number of optimizations which run at the same time
+     */
+    public TimeBudget( double seconds, int numOptimizations, int parallelism )
+    {
+        if( seconds < 0.0 )
+            throw new IllegalArgumentException("seconds must be >= 0");
+
+        end = System.nanoTime() + (long)(seconds * 1E9);
+        this.unfinished = Math.max(1,numOptimizations);
+        this.parallelism = Math.max(1,parallelism);
+    }
+
+    /**
+     * Called when an optimization starts.
+     *
+     * @return The deadline (System.nanoTime()) of the optimization.
+     */
+    public synchronized long start()
+    {
+        long now = System.nanoTime(),
+             remaining = end - now;
+        if( remaining <= 0 )
+            return now;
+
+        int running = Math.min(parallelism,unfinished);
+        return now + (long)((double)remaining * running / unfinished);
+    }
+
+    /**
+     * Called when an optimization has finished (the deadlines of the following
+     * optimizations get longer).
+     */
+    public synchronized void finished()
+    {
+        if( unfinished > 1 )
+            --unfinished;
+    }
+
+    /**
+     *
+     * @return The end of the budget (System.nanoTime()).
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+}
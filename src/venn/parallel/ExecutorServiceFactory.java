@@ -2,6 +2,7 @@ package venn.parallel;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 /**
  * 
  * @author behrens
@@ -13,6 +14,8 @@ public class ExecutorServiceFactory {
 	private static int numberThreads=0;
 	
 	private static ExecutorService execService;
+	
+	private static ForkJoinPool forkJoinPool;
 
 	public static ExecutorService getExecutorService(){
 		
@@ -22,6 +25,19 @@ public class ExecutorServiceFactory {
 		return execService;
 	}
 
+	/**
+	 * 
+	 * @return A fork-join pool for fine grained parallel computations (e.g. the
+	 * fitness values of a population) with the same number of threads.
+	 */
+	public static synchronized ForkJoinPool getForkJoinPool(){
+		
+		if (forkJoinPool==null){
+			forkJoinPool = new ForkJoinPool(getNumberOfThreads());
+		}
+		return forkJoinPool;
+	}
+
 	private static ExecutorService getNewExecService(int numberThreads) {
 		if (numberThreads<=0){
 			numberThreads = Runtime.getRuntime().availableProcessors();
@@ -32,5 +48,16 @@ public class ExecutorServiceFactory {
 	public static void setNumberOfThreads(int numberOfThreads){
 		numberThreads=numberOfThreads;
 	}
+	
+	/**
+	 * 
+	 * @return The number of threads used for parallel computations.
+	 */
+	public static int getNumberOfThreads(){
+		if (numberThreads<=0){
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return numberThreads;
+	}
 
 }
@@ -17,6 +17,9 @@ public class AllTests {
         TestSuite suite = new TestSuite("Test for venn.tests");
         //$JUnit-BEGIN$
         suite.addTest(venn.tests.db.AllTestsDb.suite());
+        suite.addTest(venn.tests.diagram.AllTestsDiagram.suite());
+        suite.addTest(venn.tests.geometry.AllTestsGeometry.suite());
+        suite.addTest(venn.tests.optim.AllTestsOptim.suite());
         suite.addTest(venn.tests.utility.AllTestsUtility.suite());
         //$JUnit-END$
         return suite;
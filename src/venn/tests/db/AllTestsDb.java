@@ -17,6 +17,8 @@ public class AllTestsDb {
         TestSuite suite = new TestSuite("Test for venn.tests.db");
         //$JUnit-BEGIN$
         suite.addTestSuite(VennDataSplitterTest.class);
+        suite.addTestSuite(GoTreeTest.class);
+        suite.addTestSuite(GoDAGTest.class);
         //$JUnit-END$
         return suite;
     }
@@ -0,0 +1,156 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.db;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+import venn.db.GoDAG;
+import venn.db.GoTree;
+
+/**
+ * Checks the edges and the distance filter of the DAG induced by a few terms
+ * of a small GO tree.
+ */
+public class GoDAGTest extends TestCase
+{
+    // 3, 6 and 7 are not in the DAG: 4 reaches 1 over 3,
+    // 8 reaches 2 directly and over 7 and 6
+    private static final String OBO =
+        "GO:0000002\tGO:0000001\n" +
+        "GO:0000003\tGO:0000001\n" +
+        "GO:0000004\tGO:0000002\tGO:0000003\n" +
+        "GO:0000005\tGO:0000004\n" +
+        "GO:0000006\tGO:0000002\n" +
+        "GO:0000007\tGO:0000006\n" +
+        "GO:0000008\tGO:0000007\tGO:0000002\n" +
+        "GO:0000009\tGO:0000005\n" +
+        "GO:0000010\tGO:0000002\n" +
+        "GO:0000011\tGO:0000010\n" +
+        "GO:0000012\tGO:0000011\n" +
+        "GO:0000013\tGO:0000012\n";
+
+    private static final long[] TERMS = { 1, 2, 4, 5, 8, 9, 10, 11, 12, 13, 99 };
+
+    private GoDAG dag;
+
+    public GoDAGTest(String name)
+    {
+        super(name);
+    }
+
+    protected void setUp() throws Exception
+    {
+        GoTree tree = new GoTree();
+        tree.read(new StringReader(OBO));
+        dag = new GoDAG(tree,ids(TERMS));
+    }
+
+    private static Set<Long> ids( long[] ids )
+    {
+        Set<Long> res = new TreeSet<Long>();
+        for( int i=0; i<ids.length; ++i )
+        {
+            res.add(Long.valueOf(ids[i]));
+        }
+        return res;
+    }
+
+    /**
+     *
+     * @return The edges as "id=[distances] ..." in the order of the IDs.
+     */
+    private static String format( Set<GoDAG.Edge> edges )
+    {
+        StringBuffer buf = new StringBuffer();
+        for( GoDAG.Edge edge : edges )
+        {
+            if( buf.length() > 0 )
+                buf.append(' ');
+            buf.append(edge.otherNode.val).append('=').append(edge.distanceToOtherNode);
+        }
+        return buf.toString();
+    }
+
+    private void assertParents( String expected, long id )
+    {
+        assertEquals(expected,format(dag.getEdgesToParents(Long.valueOf(id))));
+    }
+
+    private void assertChildren( String expected, long id )
+    {
+        assertEquals(expected,format(dag.getEdgesToChildren(Long.valueOf(id))));
+    }
+
+    private void assertFiltered( long[] previous, int minDistance, long[] expected )
+    {
+        dag.filter(ids(previous),minDistance);
+        assertEquals(ids(expected),dag.getDistanceFiltered());
+    }
+
+    public void testEdgesToParents()
+    {
+        assertParents("",1);
+        assertParents("1=[1]",2);
+        assertParents("1=[2] 2=[1]",4);
+        assertParents("2=[1, 3]",8);     // several path lengths
+        assertParents("5=[1]",9);
+        assertParents("12=[1]",13);
+        assertParents("",99);            // not in the GO tree
+    }
+
+    public void testEdgesToChildren()
+    {
+        assertChildren("2=[1] 4=[2]",1);
+        assertChildren("4=[1] 8=[1] 10=[1]",2);   // only the shortest path to 8
+        assertChildren("5=[1]",4);
+        assertChildren("",8);
+        assertChildren("",99);
+    }
+
+    public void testRoots()
+    {
+        Set<Long> roots = new HashSet<Long>();
+        for( GoDAG.Node node : dag.getRoots() )
+        {
+            roots.add(node.val);
+        }
+        assertEquals(ids(new long[]{ 1, 99 }),roots);
+    }
+
+    /**
+     * A term is filtered if all its leaves are nearer than minDistance
+     * (the distance of a filtered child adds to the one of its parent).
+     */
+    public void testDistanceFiltered()
+    {
+        long[] none = {};
+        assertFiltered(none,1,none);
+        assertFiltered(none,2,new long[]{ 5, 10, 12 });
+        assertFiltered(none,3,new long[]{ 4, 5, 11, 12 });
+        assertFiltered(none,5,new long[]{ 2, 4, 5, 10, 11, 12 });
+        assertFiltered(none,6,new long[]{ 1, 2, 4, 5, 10, 11, 12 });
+        // the previous results are not kept
+        assertFiltered(none,2,new long[]{ 5, 10, 12 });
+    }
+
+    /**
+     * 2 reaches the leaf 13 over the filtered terms 10, 11 and 12 at distance 4.
+     */
+    public void testPreviousFiltered()
+    {
+        long[] chain = { 10, 11, 12 };
+        assertFiltered(chain,3,new long[]{ 4, 5 });
+        assertFiltered(chain,4,new long[]{ 4, 5 });
+        assertFiltered(chain,5,new long[]{ 2, 4, 5 });
+        assertFiltered(chain,6,new long[]{ 1, 2, 4, 5 });
+
+        // 4 passes its child 5 on to 2 and 1
+        assertFiltered(new long[]{ 4 },3,new long[]{ 5, 11, 12 });
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import venn.db.GoTree;
+import venn.geometry.FileFormatException;
+
+/**
+ * Compares the tree parsed from the text format with its binary index.
+ */
+public class GoTreeTest extends TestCase
+{
+    // 1 is the root, 4 has two parents, 5 is listed twice
+    private static final String OBO =
+        "GO:0000002\tGO:0000001\n" +
+        "GO:0000003\tGO:0000001\n" +
+        "GO:0000004\tGO:0000002\tGO:0000003\n" +
+        "GO:0000005\tGO:0000004\n" +
+        "GO:0000005\tGO:0000002\n" +
+        "\n" +
+        "GO:0000006\n";
+
+    private GoTree tree;
+
+    public GoTreeTest(String name)
+    {
+        super(name);
+    }
+
+    protected void setUp() throws Exception
+    {
+        tree = new GoTree();
+        tree.read(new StringReader(OBO));
+    }
+
+    private static void assertIDs( long[] expected, Set<Long> ids )
+    {
+        assertEquals(expected.length,ids.size());
+        Iterator<Long> it = ids.iterator();
+        for( int i=0; i<expected.length; ++i )
+        {
+            assertEquals(expected[i],it.next().longValue());
+        }
+    }
+
+    public void testRead()
+    {
+        assertEquals(5,tree.size());
+        assertNull(tree.getParentsOf(new Long(1)));
+        assertNull(tree.getParentsOf(new Long(6)));
+        assertIDs(new long[]{2,3},tree.getParentsOf(new Long(4)));
+        assertIDs(new long[]{2,4},tree.getParentsOf(new Long(5)));
+        assertTrue(tree.getParentsOf(new Long(5)).contains(new Long(4)));
+        assertFalse(tree.getParentsOf(new Long(5)).contains(new Long(3)));
+
+        int node = tree.indexOf(2);
+        assertEquals(2,tree.getID(node));
+        assertEquals(2,tree.getNumChildren(node));
+        assertEquals(4,tree.getID(tree.getChild(node,0)));
+        assertEquals(5,tree.getID(tree.getChild(node,1)));
+
+        assertEquals(1,tree.findDistanceBetweenNodes(4,2));
+        assertEquals(2,tree.findDistanceBetweenNodes(5,3));
+        assertEquals(-1,tree.findDistanceBetweenNodes(5,1));  // 1 has no parents
+        assertEquals(-1,tree.findDistanceBetweenNodes(5,7));  // 7 is no GO term
+
+        // 2 is a parent of 4
+        assertEquals(GoTree.WhichNode.NODE2,tree.findLessDistantNodeToSharedParent(4,2));
+        assertEquals(GoTree.WhichNode.NODE1,tree.findLessDistantNodeToSharedParent(2,4));
+        assertEquals(GoTree.WhichNode.NONE,tree.findLessDistantNodeToSharedParent(5,1));
+    }
+
+    public void testIndex() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeIndex(out);
+
+        GoTree copy = new GoTree();
+        copy.readIndex(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(tree.size(),copy.size());
+        for( int i=0; i<tree.size(); ++i )
+        {
+            assertEquals(tree.getID(i),copy.getID(i));
+            assertEquals(tree.getNumParents(i),copy.getNumParents(i));
+            for( int k=0; k<tree.getNumParents(i); ++k )
+                assertEquals(tree.getParent(i,k),copy.getParent(i,k));
+            assertEquals(tree.getNumChildren(i),copy.getNumChildren(i));
+            for( int k=0; k<tree.getNumChildren(i); ++k )
+                assertEquals(tree.getChild(i,k),copy.getChild(i,k));
+        }
+        for( long a=2; a<=5; ++a )
+        {
+            for( long b=2; b<=5; ++b )
+            {
+                assertEquals(tree.findDistanceBetweenNodes(a,b),copy.findDistanceBetweenNodes(a,b));
+                assertEquals(tree.findLessDistantNodeToSharedParent(a,b),copy.findLessDistantNodeToSharedParent(a,b));
+            }
+        }
+    }
+
+    public void testBadIndex() throws Exception
+    {
+        try
+        {
+            new GoTree().readIndex(new ByteArrayInputStream(OBO.getBytes()));
+            fail("text accepted as index");
+        }
+        catch( FileFormatException e )
+        {
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTestsDiagram {
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite("Test for venn.tests.diagram");
+        //$JUnit-BEGIN$
+        suite.addTestSuite(CardinalityTableTest.class);
+        suite.addTestSuite(IntersectionTreeTest.class);
+        suite.addTestSuite(MDSLayoutTest.class);
+        suite.addTestSuite(VennCircleObjectTest.class);
+        suite.addTestSuite(VennErrorFunctionTest.class);
+        //$JUnit-END$
+        return suite;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.CardinalityTable;
+
+/**
+ * Compares the cardinality table with explicit set intersections.
+ */
+public class CardinalityTableTest extends TestCase
+{
+    public static final int NUM_OF_ELEMENTS = 300;
+    
+    private Random random;
+    
+    public CardinalityTableTest(String name)
+    {
+        super(name);
+    }
+    
+    protected void setUp() throws Exception
+    {
+        random = new Random(42);
+    }
+    
+    private BitSet[] randomSets(int num)
+    {
+        BitSet[] sets = new BitSet[num];
+        for( int i=0; i<num; ++i )
+        {
+            sets[i] = new BitSet();
+            int n = 1 + random.nextInt(NUM_OF_ELEMENTS/2);
+            for( int j=0; j<n; ++j )
+            {
+                sets[i].set(random.nextInt(NUM_OF_ELEMENTS));
+            }
+        }
+        return sets;
+    }
+    
+    private void checkTable(BitSet[] sets, int numMasks)
+    {
+        CardinalityTable table = new CardinalityTable(sets);
+        
+        for( int k=0; k<numMasks; ++k )
+        {
+            int mask = (k == 0) ? 0 : random.nextInt(1 << sets.length);
+            
+            BitSet s = null;
+            for( int i=0; i<sets.length; ++i )
+            {
+                if( mask == 0 )
+                { // union
+                    if( s == null )
+                        s = new BitSet();
+                    s.or(sets[i]);
+                } else if( (mask & (1 << i)) != 0 )
+                {
+                    if( s == null )
+                        s = (BitSet)sets[i].clone();
+                    else
+                        s.and(sets[i]);
+                }
+            }
+            assertEquals(s.cardinality(),table.get(mask));
+        }
+    }
+    
+    public void testSmallTable()
+    {
+        checkTable(randomSets(6),1 << 6);
+    }
+    
+    public void testParallelTable()
+    {
+        checkTable(randomSets(16),2000);
+    }
+}
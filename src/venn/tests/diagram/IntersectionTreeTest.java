@@ -0,0 +1,187 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.IIntersectionTreeVisitor;
+import venn.diagram.IntersectionTree;
+import venn.diagram.IntersectionTreeNode;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennErrorFunction;
+
+/**
+ * Checks that incremental tree updates give the same result as a full rebuild.
+ */
+public class IntersectionTreeTest extends TestCase
+{
+    public static final int NUM_OF_SETS = 6;
+    public static final int NUM_OF_ELEMENTS = 200;
+    public static final double EPSILON = 1E-9;
+    
+    private Random random;
+    private VennArrangement arrangement;
+    private VennErrorFunction.Parameters params;
+    
+    public IntersectionTreeTest(String name)
+    {
+        super(name);
+    }
+    
+    protected void setUp() throws Exception
+    {
+        random = new Random(4711);
+        
+        params = new VennErrorFunction.Parameters();
+        params.maxIntersections = 4;
+        
+        arrangement = TestArrangements.createArrangement(
+                TestArrangements.randomSets(random,NUM_OF_SETS,NUM_OF_ELEMENTS),NUM_OF_ELEMENTS,16);
+    }
+    
+    protected void tearDown() throws Exception
+    {
+        arrangement = null;
+        super.tearDown();
+    }
+    
+    private double[] randomInput(VennErrorFunction errf)
+    {
+        double[] L = errf.getLowerBounds(),
+                 U = errf.getUpperBounds(),
+                 x = new double[errf.getNumInput()];
+        for( int i=0; i<x.length; ++i )
+        {
+            x[i] = L[i] + random.nextDouble()*(U[i]-L[i]);
+        }
+        return x;
+    }
+    
+    /**
+     * Moves single sets and compares the incrementally updated error value
+     * with the one of a freshly built tree.
+     */
+    public void testIncrementalUpdate()
+    {
+        VennErrorFunction incremental = new VennErrorFunction(new VennArrangement(arrangement),params);
+        
+        double[] x = randomInput(incremental);
+        incremental.setInput(x);
+        incremental.getOutput();
+        
+        for( int step=0; step<50; ++step )
+        {
+            // move a single set (or scale it)
+            double[] y = randomInput(incremental);
+            int k = random.nextInt(NUM_OF_SETS);
+            x[2*k] = y[2*k];
+            x[2*k+1] = y[2*k+1];
+            if( step % 5 == 0 )
+                x[2*NUM_OF_SETS+k] = y[2*NUM_OF_SETS+k];
+            
+            incremental.setInput(x);
+            
+            VennErrorFunction full = new VennErrorFunction(new VennArrangement(arrangement),params);
+            full.setInput(x);
+            
+            assertEquals(full.getOutput(),incremental.getOutput(),EPSILON);
+        }
+    }
+    
+    /**
+     * The sparse tree only leaves out empty intersections, so it gives the same
+     * error value as the full tree, also after incremental updates.
+     */
+    public void testSparseTree()
+    {
+        VennErrorFunction.Parameters fullParams = new VennErrorFunction.Parameters();
+        fullParams.maxIntersections = params.maxIntersections;
+        fullParams.sparseTree = false;
+        params.sparseTree = true;
+        
+        VennErrorFunction sparse = new VennErrorFunction(new VennArrangement(arrangement),params);
+        
+        double[] x = randomInput(sparse);
+        for( int step=0; step<50; ++step )
+        {
+            double[] y = randomInput(sparse);
+            int k = random.nextInt(NUM_OF_SETS);
+            x[2*k] = y[2*k];
+            x[2*k+1] = y[2*k+1];
+            
+            sparse.setInput(x);
+            
+            VennErrorFunction full = new VennErrorFunction(new VennArrangement(arrangement),fullParams);
+            full.setInput(x);
+            
+            assertEquals(full.getOutput(),sparse.getOutput(),EPSILON);
+        }
+    }
+    
+    /**
+     * Walks the tree like getByPath() did before the tree was indexed.
+     */
+    private static IntersectionTreeNode walk(IntersectionTreeNode root, long mask)
+    {
+        IntersectionTreeNode node = root;
+        for( int i=0; (mask >>> i) != 0L && node != null; ++i )
+        {
+            node = ((mask >>> i) & 1L) != 0L ? node.rightChild : node.leftChild;
+        }
+        return node;
+    }
+    
+    /**
+     * The index and the pair array find the same nodes as a walk through the tree,
+     * also after nodes have been cut off or appended by incremental updates.
+     */
+    public void testIndex()
+    {
+        for( int mode=0; mode<2; ++mode )
+        {
+            params.sparseTree = (mode == 1);
+            final IntersectionTree tree = new IntersectionTree(params.maxIntersections,false);
+            tree.setSparse(params.sparseTree);
+            tree.setArrangement(new VennArrangement(arrangement));
+            VennErrorFunction errf = new VennErrorFunction(tree,params);
+            
+            double[] x = randomInput(errf);
+            for( int step=0; step<30; ++step )
+            {
+                double[] y = randomInput(errf);
+                int k = random.nextInt(NUM_OF_SETS);
+                x[2*k] = y[2*k];
+                x[2*k+1] = y[2*k+1];
+                errf.setInput(x);
+                errf.getOutput();
+                
+                assertTrue(tree.isIndexed());
+                IntersectionTreeNode root = tree.getRoot();
+                for( long mask=0L; mask < (1L << NUM_OF_SETS); ++mask )
+                {
+                    assertSame(walk(root,mask),tree.getByMask(mask));
+                }
+                for( int i=0; i<NUM_OF_SETS; ++i )
+                {
+                    for( int j=0; j<NUM_OF_SETS; ++j )
+                    {
+                        if( i != j )
+                            assertSame(walk(root,(1L << i) | (1L << j)),tree.getPair(i,j));
+                    }
+                }
+                
+                // the path of each node leads to the node
+                tree.accept(new IIntersectionTreeVisitor() {
+                    public void visit(int depth, IntersectionTreeNode node)
+                    {
+                        if( !node.copy )
+                            assertSame(node,tree.getByPath(node.getPath()));
+                    }
+                });
+            }
+        }
+    }
+}
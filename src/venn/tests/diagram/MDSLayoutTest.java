@@ -0,0 +1,94 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.MDSLayout;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennErrorFunction;
+
+/**
+ * Checks the seed layout for two overlapping sets and a disjoint one.
+ */
+public class MDSLayoutTest extends TestCase
+{
+    private VennArrangement arrangement;
+    
+    public MDSLayoutTest(String name)
+    {
+        super(name);
+    }
+    
+    protected void setUp() throws Exception
+    {
+        // A = [0,40), B = [20,60), C = [100,120)
+        int[][] ranges = { {0,40}, {20,60}, {100,120} };
+        arrangement = TestArrangements.createArrangement(TestArrangements.rangeSets(ranges),120,32);
+    }
+    
+    private static double distance( double[] a, double[] b )
+    {
+        return Math.sqrt((a[0]-b[0])*(a[0]-b[0]) + (a[1]-b[1])*(a[1]-b[1]));
+    }
+    
+    public void testLayout()
+    {
+        MDSLayout layout = new MDSLayout(arrangement);
+        double[][] c = layout.getCenters();
+        double[] r = layout.getRadius();
+        
+        double mx = 0.0, my = 0.0;
+        for( int i=0; i<c.length; ++i )
+        {
+            mx += c[i][0];
+            my += c[i][1];
+        }
+        assertEquals(0.0,mx,1E-9);
+        assertEquals(0.0,my,1E-9);
+        
+        // A and B share half of their elements
+        double lens = MDSLayout.lensArea(r[0],r[1],distance(c[0],c[1]));
+        assertEquals(0.5,lens/(Math.PI*r[0]*r[0]),0.05);
+        
+        // C is disjoint to both
+        assertTrue( distance(c[0],c[2]) >= r[0]+r[2] );
+        assertTrue( distance(c[1],c[2]) >= r[1]+r[2] );
+    }
+    
+    public void testTargetDistance()
+    {
+        assertEquals(0.5,MDSLayout.targetDistance(1.0,0.5,40,10,10),1E-9);     // nested
+        assertEquals(1.05*1.5,MDSLayout.targetDistance(1.0,0.5,40,10,0),1E-9); // disjoint
+        
+        double d = MDSLayout.targetDistance(1.0,1.0,40,40,10);
+        assertEquals(0.25*Math.PI,MDSLayout.lensArea(1.0,1.0,d),1E-9);
+    }
+    
+    /**
+     * The seeds lie within the bounds and do not depend on the copy of the function.
+     */
+    public void testSeed()
+    {
+        VennErrorFunction errf = new VennErrorFunction(arrangement,new VennErrorFunction.Parameters());
+        VennErrorFunction copy = (VennErrorFunction)errf.copy();
+        double[] L = errf.getLowerBounds(),
+                 U = errf.getUpperBounds();
+        
+        Random a = new Random(7), b = new Random(7);
+        for( int k=0; k<20; ++k )
+        {
+            double[] seed = errf.getSeed(a);
+            double[] other = copy.getSeed(b);
+            assertEquals(L.length,seed.length);
+            for( int i=0; i<seed.length; ++i )
+            {
+                assertTrue( seed[i] >= L[i] && seed[i] <= U[i] );
+                assertEquals( seed[i], other[i], 0.0 );
+            }
+        }
+    }
+}
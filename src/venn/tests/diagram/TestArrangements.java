@@ -0,0 +1,92 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import venn.AllParameters;
+import venn.db.VennMemDataModel;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennObjectFactory;
+
+/**
+ * Builds the arrangements used by the diagram and optimizer tests.
+ */
+public class TestArrangements
+{
+    private TestArrangements()
+    {
+    }
+
+    /**
+     *
+     * @param random
+     * @param numSets
+     * @param numElements
+     * @return Sets with 1 to numElements/3 random elements each.
+     */
+    public static BitSet[] randomSets( Random random, int numSets, int numElements )
+    {
+        BitSet[] sets = new BitSet[numSets];
+        for( int i=0; i<numSets; ++i )
+        {
+            sets[i] = new BitSet();
+            int num = 1 + random.nextInt(numElements/3);
+            for( int j=0; j<num; ++j )
+            {
+                sets[i].set(random.nextInt(numElements));
+            }
+        }
+        return sets;
+    }
+
+    /**
+     *
+     * @param ranges the element range [from,to) of each set
+     * @return The sets.
+     */
+    public static BitSet[] rangeSets( int[][] ranges )
+    {
+        BitSet[] sets = new BitSet[ranges.length];
+        for( int i=0; i<ranges.length; ++i )
+        {
+            sets[i] = new BitSet();
+            sets[i].set(ranges[i][0],ranges[i][1]);
+        }
+        return sets;
+    }
+
+    /**
+     * Creates an arrangement of polygons for the sets "G0", "G1", ...
+     *
+     * @param sets
+     * @param numElements
+     * @param numEdges number of edges of the polygons
+     * @return The arrangement with default parameters.
+     */
+    public static VennArrangement createArrangement( BitSet[] sets, int numElements, int numEdges )
+    {
+        VennMemDataModel model = new VennMemDataModel(sets.length,numElements);
+        int maxCard = 0;
+        for( int i=0; i<sets.length; ++i )
+        {
+            model.setGroupElements(i,sets[i]);
+            model.setGroupName(i,"G"+i);
+            maxCard = Math.max(maxCard,sets[i].cardinality());
+        }
+
+        // same scaling as in VennPanel
+        double radius = 0.5/Math.max(2.0,Math.sqrt((double)sets.length));
+        double factor = 2.0*(double)maxCard /
+                        ((double)numEdges*Math.sin(2.0*Math.PI/(double)numEdges))/(radius*radius);
+
+        VennObjectFactory factory = new VennObjectFactory();
+        factory.setPolygonParameters(numEdges,factor);
+        VennArrangement arrangement = new VennArrangement(model,factory);
+        arrangement.setParameters(new AllParameters());
+        return arrangement;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.IVennObject;
+import venn.diagram.VennCircleObject;
+import venn.geometry.FPoint;
+import venn.geometry.FPolygon;
+
+/**
+ * Compares the exact circle intersections with fine polygonal approximations.
+ */
+public class VennCircleObjectTest extends TestCase
+{
+    public static final int NUM_OF_EDGES = 4096;
+    public static final double EPSILON = 1E-5;
+    
+    private Random random;
+    
+    public VennCircleObjectTest(String name)
+    {
+        super(name);
+    }
+    
+    protected void setUp() throws Exception
+    {
+        random = new Random(17);
+    }
+    
+    /**
+     * 
+     * @return A circle with the given center and radius (and an area factor of 1).
+     */
+    private VennCircleObject circle(double x, double y, double radius)
+    {
+        BitSet elements = new BitSet();
+        elements.set(0);
+        // a single element with area factor 1/pi gives the unit circle
+        VennCircleObject obj = new VennCircleObject(1.0/Math.PI,elements,false);
+        obj.setOffset(new FPoint(x,y));
+        obj.setScale(radius);
+        return obj;
+    }
+    
+    private FPolygon polygon(double x, double y, double radius)
+    {
+        FPolygon poly = FPolygon.createNgon(NUM_OF_EDGES,radius);
+        poly.translate(new FPoint(x,y));
+        return poly;
+    }
+    
+    public void testSingleCircle()
+    {
+        VennCircleObject c = circle(0.3,0.4,2.0);
+        assertEquals(Math.PI*4.0/Math.PI,c.area(),1E-12);
+        assertEquals(0.3,c.getCenter().x,1E-12);
+        assertTrue(c.contains(new FPoint(1.5,0.4)));
+        assertFalse(c.contains(new FPoint(2.5,0.4)));
+    }
+    
+    public void testLens()
+    {
+        VennCircleObject a = circle(-0.5,0.0,1.0),
+                         b = circle(0.5,0.0,1.0);
+        IVennObject ab = a.intersect(b);
+        
+        // area of a symmetric lens: 2 r^2 acos(d/2r) - d/2 sqrt(4r^2-d^2)
+        double area = 2.0*Math.acos(0.5) - 0.5*Math.sqrt(3.0);
+        assertEquals(area/Math.PI,ab.area(),1E-12);
+        assertEquals(0.0,ab.getCenter().x,1E-12);
+        assertEquals(0.0,ab.getCenter().y,1E-12);
+    }
+    
+    public void testContainedAndDisjoint()
+    {
+        VennCircleObject a = circle(0.0,0.0,1.0),
+                         b = circle(0.2,0.1,0.3),
+                         c = circle(3.0,0.0,1.0);
+        
+        assertEquals(b.area(),a.intersect(b).area(),1E-12);
+        assertEquals(b.area(),b.intersect(a).area(),1E-12);
+        assertTrue(a.intersect(c).isEmpty());
+        assertEquals(0.0,a.intersect(c).area(),0.0);
+        assertTrue(a.intersect(c).intersect(b).isEmpty());
+    }
+    
+    /**
+     * Random intersections of up to four circles.
+     */
+    public void testRandomIntersections()
+    {
+        for( int n=0; n<200; ++n )
+        {
+            int k = 2 + random.nextInt(3);
+            IVennObject obj = null;
+            FPolygon    poly = null;
+            for( int i=0; i<k; ++i )
+            {
+                double  x = random.nextDouble(),
+                        y = random.nextDouble(),
+                        r = 0.2 + random.nextDouble();
+                VennCircleObject c = circle(x,y,r);
+                FPolygon p = polygon(x,y,r);
+                
+                obj = (obj == null) ? c : obj.intersect(c,1);
+                poly = (poly == null) ? p : poly.intersect(p);
+                if( poly == null )
+                    break;
+            }
+            
+            double area = (poly == null) ? 0.0 : poly.area()/Math.PI;
+            assertEquals(area,obj.area(),EPSILON);
+            if( area > EPSILON )
+            {
+                assertFalse(obj.isEmpty());
+                assertTrue(obj.contains(obj.getCenter()));
+            }
+        }
+    }
+}
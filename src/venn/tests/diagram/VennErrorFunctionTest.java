@@ -0,0 +1,138 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.diagram;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennErrorFunction;
+
+/**
+ * Checks the batch evaluation of the error function.
+ */
+public class VennErrorFunctionTest extends TestCase
+{
+    public static final int NUM_OF_SETS = 6;
+    public static final int NUM_OF_ELEMENTS = 200;
+    
+    private Random random;
+    private VennErrorFunction errf;
+    
+    public VennErrorFunctionTest(String name)
+    {
+        super(name);
+    }
+    
+    protected void setUp() throws Exception
+    {
+        random = new Random(815);
+        
+        VennArrangement arrangement = TestArrangements.createArrangement(
+                TestArrangements.randomSets(random,NUM_OF_SETS,NUM_OF_ELEMENTS),NUM_OF_ELEMENTS,16);
+        
+        VennErrorFunction.Parameters params = new VennErrorFunction.Parameters();
+        params.maxIntersections = 4;
+        errf = new VennErrorFunction(arrangement,params);
+    }
+    
+    /**
+     * The batch outputs must equal the outputs of single evaluations and must
+     * not change the current input of the function.
+     */
+    public void testGetOutputs()
+    {
+        double[] L = errf.getLowerBounds(),
+                 U = errf.getUpperBounds();
+        double[][] inputs = new double[40][errf.getNumInput()];
+        for( int k=0; k<inputs.length; ++k )
+        {
+            for( int i=0; i<L.length; ++i )
+            {
+                inputs[k][i] = L[i] + random.nextDouble()*(U[i]-L[i]);
+            }
+        }
+        
+        errf.setInput(inputs[0]);
+        double current = errf.getOutput();
+        
+        double[] outputs = errf.getOutputs(inputs);
+        assertEquals(inputs.length,outputs.length);
+        assertEquals(current,errf.getOutput(),0.0);
+        
+        for( int k=0; k<inputs.length; ++k )
+        {
+            errf.setInput(inputs[k]);
+            assertEquals(errf.getOutput(),outputs[k],0.0);
+        }
+    }
+    
+    /**
+     * Changing the parameters switches the mode of the tree.
+     */
+    public void testSetSparse()
+    {
+        VennErrorFunction.Parameters params = new VennErrorFunction.Parameters();
+        params.maxIntersections = 4;
+        params.sparseTree = ! errf.getTree().isSparse();
+        errf.setParameters(params);
+        assertEquals(params.sparseTree,errf.getTree().isSparse());
+        
+        params = (VennErrorFunction.Parameters)params.clone();
+        params.sparseTree = ! params.sparseTree;
+        errf.setParameters(params);
+        assertEquals(params.sparseTree,errf.getTree().isSparse());
+    }
+    
+    /**
+     * The values cached with the old parameters are dropped, the copies
+     * keep sharing the cache.
+     */
+    public void testSetParametersCache()
+    {
+        VennErrorFunction.Parameters params = new VennErrorFunction.Parameters();
+        params.maxIntersections = 4;
+        params.cacheSize = 50;
+        errf.setParameters(params);
+        VennErrorFunction copy = (VennErrorFunction)errf.copy();
+        assertEquals(50,errf.getCache().getCapacity());
+        assertSame(errf.getCache(),copy.getCache());
+        
+        double[] L = errf.getLowerBounds(),
+                 U = errf.getUpperBounds(),
+                 x = new double[errf.getNumInput()];
+        for( int i=0; i<x.length; ++i )
+        {
+            x[i] = L[i] + random.nextDouble()*(U[i]-L[i]);
+        }
+        errf.setInput(x);
+        double before = errf.getOutput();
+        assertEquals(1,errf.getCache().size());
+        
+        params = (VennErrorFunction.Parameters)params.clone();
+        params.delta = 2.0 * params.delta;
+        errf.setParameters(params);
+        assertEquals(0,copy.getCache().size());
+        
+        VennErrorFunction expected = new VennErrorFunction(new VennArrangement(errf.getArrangement()),params);
+        expected.setInput(x);
+        errf.setInput(x);
+        assertEquals(expected.getOutput(),errf.getOutput(),0.0);
+        assertTrue(before != errf.getOutput());
+        
+        // a new size replaces the cache of all copies
+        params = (VennErrorFunction.Parameters)params.clone();
+        params.cacheSize = 20;
+        errf.setParameters(params);
+        assertEquals(20,errf.getCache().getCapacity());
+        assertSame(errf.getCache(),copy.getCache());
+        
+        params = (VennErrorFunction.Parameters)params.clone();
+        params.cacheSize = 0;
+        errf.setParameters(params);
+        assertNull(errf.getCache());
+        assertNull(copy.getCache());
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.geometry;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTestsGeometry {
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite("Test for venn.tests.geometry");
+        //$JUnit-BEGIN$
+        suite.addTestSuite(FPolygonTest.class);
+        //$JUnit-END$
+        return suite;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.geometry;
+
+import junit.framework.TestCase;
+import venn.geometry.ConvexIntersector;
+import venn.geometry.FPoint;
+import venn.geometry.FPolygon;
+
+/**
+ * Intersections of simple convex polygons with known results.
+ */
+public class FPolygonTest extends TestCase
+{
+    public static final double EPSILON = 1E-12;
+    
+    public FPolygonTest(String name)
+    {
+        super(name);
+    }
+    
+    private FPolygon square(double x, double y, double size)
+    {
+        FPolygon poly = new FPolygon();
+        poly.add(new FPoint(x,y));
+        poly.add(new FPoint(x+size,y));
+        poly.add(new FPoint(x+size,y+size));
+        poly.add(new FPoint(x,y+size));
+        return poly;
+    }
+    
+    public void testOverlappingSquares()
+    {
+        FPolygon p = square(0,0,1),
+                 q = square(0.5,0.5,1);
+        
+        FPolygon r = p.intersect(q);
+        assertNotNull(r);
+        assertEquals(4,r.getSize());
+        assertEquals(0.25,r.area(),EPSILON);
+        assertEquals(r.area(),q.intersect(p).area(),EPSILON);
+    }
+    
+    public void testDisjoint()
+    {
+        FPolygon p = square(0,0,1),
+                 q = square(2,0,1);
+        
+        assertNull(p.intersect(q));
+        assertNull(q.intersect(p));
+    }
+    
+    public void testContained()
+    {
+        FPolygon p = FPolygon.createNgon(8,1.0),
+                 q = FPolygon.createNgon(5,0.2);
+        
+        assertSame(q,p.intersect(q));
+        assertSame(q,q.intersect(p));
+    }
+    
+    public void testScratchBuffers()
+    {
+        FPolygon p = FPolygon.createNgon(12,1.0),
+                 q = FPolygon.createNgon(9,1.0);
+        q.translate(new FPoint(0.7,0.1));
+        
+        int cap = ConvexIntersector.capacity(p.getSize(),q.getSize());
+        double[] rx = new double[cap], ry = new double[cap];
+        
+        ConvexIntersector intersector = new ConvexIntersector();
+        int size = intersector.intersect(p.getXs(),p.getYs(),p.getSize(),
+                                         q.getXs(),q.getYs(),q.getSize(),rx,ry);
+        assertTrue(size > 2);
+        
+        FPolygon r = p.intersect(q);
+        assertEquals(r.getSize(),size);
+        assertEquals(r.area(),ConvexIntersector.area(rx,ry,size),EPSILON);
+        assertTrue(r.area() > 0.0);
+        assertTrue(r.area() < q.area());
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class AllTestsOptim {
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite("Test for venn.tests.optim");
+        //$JUnit-BEGIN$
+        suite.addTestSuite(CMAESOptimizerTest.class);
+        suite.addTestSuite(CoarseToFineOptimizerTest.class);
+        suite.addTestSuite(FitnessCacheTest.class);
+        suite.addTestSuite(OptimizerLimitsTest.class);
+        suite.addTestSuite(ParallelSwarmOptimizerTest.class);
+        suite.addTestSuite(PolishOptimizerTest.class);
+        //$JUnit-END$
+        return suite;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.optim.CMAESOptimizer;
+import venn.optim.IOptimizer;
+import venn.optim.SwarmOptimizer;
+
+/**
+ * Runs the CMA-ES on a shifted sphere whose optimum lies partly outside the bounds
+ * (see SphereFunction).
+ */
+public class CMAESOptimizerTest extends TestCase
+{
+    // value of SphereFunction at the optimum within the bounds
+    private static final double OPTIMUM = -0.25 - 0.36;
+    private static final double TARGET_ERROR = 1E-3;
+
+    public CMAESOptimizerTest(String name)
+    {
+        super(name);
+    }
+
+    public void testOptimum()
+    {
+        SphereFunction func = new SphereFunction();
+        CMAESOptimizer.Parameters params = new CMAESOptimizer.Parameters();
+        CMAESOptimizer opt = new CMAESOptimizer(new Random(4711), func, params);
+
+        while( ! opt.endCondition() )
+            opt.optimize();
+
+        double[] x = opt.getOptimum();
+        for( int i=0; i<SphereFunction.DIM; ++i )
+        {
+            assertTrue( x[i] >= SphereFunction.LOWER[i] && x[i] <= SphereFunction.UPPER[i] );
+        }
+        assertEquals( 0.5, x[4], 0.0 );     // fixed parameter
+        assertEquals( 0.2, x[5], 1E-4 );    // optimum on the upper bound
+        assertEquals( 0.3, x[0], 1E-4 );
+        assertEquals( 0.7, x[3], 1E-4 );
+        assertEquals( func.numEvaluations, opt.getNumEvaluations() );
+        assertEquals( opt.getValue(), func.copy().getOutputs(new double[][]{ x })[0], 0.0 );
+    }
+
+    /**
+     * Runs the optimizer until the distance to the optimal value is below
+     * TARGET_ERROR or the end condition is met.
+     *
+     * @return The number of function evaluations, -1 if the target was not reached.
+     */
+    private static int evaluationsToTarget( IOptimizer opt, SphereFunction func )
+    {
+        while( ! opt.endCondition() )
+        {
+            opt.optimize();
+            if( opt.getValue() >= OPTIMUM - TARGET_ERROR )
+                return func.numEvaluations;
+        }
+        return -1;
+    }
+
+    /**
+     * The CMA-ES needs fewer evaluations than the particle swarm to reach
+     * the same error (about 200 against 1000 with the default parameters).
+     */
+    public void testEvaluationsToTarget()
+    {
+        for( int seed=1; seed<=5; ++seed )
+        {
+            SphereFunction cmaFunc = new SphereFunction();
+            int cmaEvals = evaluationsToTarget(
+                    new CMAESOptimizer(new Random(seed), cmaFunc, new CMAESOptimizer.Parameters()), cmaFunc);
+            assertTrue( cmaEvals > 0 );
+
+            SwarmOptimizer.Parameters swarmParams = new SwarmOptimizer.Parameters();
+            swarmParams.maxIterations = 5000;
+            swarmParams.maxConstIterations = 5000;
+            SphereFunction swarmFunc = new SphereFunction();
+            int swarmEvals = evaluationsToTarget(
+                    new SwarmOptimizer(new Random(seed), swarmFunc, swarmParams), swarmFunc);
+            assertTrue( swarmEvals > 0 );
+            assertTrue( cmaEvals < swarmEvals );
+        }
+    }
+
+    public void testDeterminism()
+    {
+        CMAESOptimizer.Parameters params = new CMAESOptimizer.Parameters();
+        CMAESOptimizer a = new CMAESOptimizer(new Random(99), new SphereFunction(), params),
+                       b = new CMAESOptimizer(new Random(99), new SphereFunction(), params);
+        for( int i=0; i<20; ++i )
+        {
+            a.optimize();
+            b.optimize();
+        }
+        assertEquals( a.getValue(), b.getValue(), 0.0 );
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.diagram.VennArrangement;
+import venn.diagram.VennErrorFunction;
+import venn.diagram.VennPolygonObject;
+import venn.geometry.FPolygon;
+import venn.optim.CoarseToFineOptimizer;
+import venn.optim.IOptimizer;
+import venn.optim.ParallelSwarmOptimizer;
+import venn.tests.diagram.TestArrangements;
+
+/**
+ * Runs the resolution schedule on three overlapping polygons with 32 edges.
+ */
+public class CoarseToFineOptimizerTest extends TestCase
+{
+    private static final int NUM_EDGES = 32;
+
+    private VennErrorFunction func;
+
+    public CoarseToFineOptimizerTest(String name)
+    {
+        super(name);
+    }
+
+    protected void setUp() throws Exception
+    {
+        int[][] ranges = { {0,40}, {20,60}, {30,50} };
+        VennArrangement arrangement = TestArrangements.createArrangement(
+                TestArrangements.rangeSets(ranges),60,NUM_EDGES);
+
+        func = new VennErrorFunction(arrangement,new VennErrorFunction.Parameters());
+    }
+
+    private IOptimizer createOptimizer()
+    {
+        CoarseToFineOptimizer.Parameters params = new CoarseToFineOptimizer.Parameters();
+        params.minEdges = 8;
+        params.stageIterations = 5;
+        return new CoarseToFineOptimizer(
+                new ParallelSwarmOptimizer(new Random(1),func,new ParallelSwarmOptimizer.Parameters()), params);
+    }
+
+    /**
+     * The optimum is evaluated with polygons of the full resolution.
+     */
+    private void assertFullResolution( IOptimizer optim )
+    {
+        assertEquals(0,func.getResolution());
+        func.setInput(optim.getOptimum());
+        assertEquals(optim.getValue(),func.getOutput(),1E-9);
+
+        VennPolygonObject set = (VennPolygonObject)func.getArrangement().getVennObjects()[0];
+        assertEquals(NUM_EDGES,set.getNumEdges());
+        assertEquals(NUM_EDGES,set.getPolygon().getSize());
+    }
+
+    public void testSetNumEdges()
+    {
+        VennPolygonObject set = (VennPolygonObject)func.getArrangement().getVennObjects()[0];
+        FPolygon orig = (FPolygon)set.getPolygon().clone();
+        double area = set.area();
+
+        set.setNumEdges(6);
+        assertEquals(6,set.getPolygon().getSize());
+        assertEquals(area,set.area(),1E-9);
+
+        // the original n-gon is restored exactly
+        set.setNumEdges(0);
+        assertEquals(NUM_EDGES,set.getNumEdges());
+        FPolygon poly = set.getPolygon();
+        for( int i=0; i<NUM_EDGES; ++i )
+        {
+            assertEquals(orig.getPoint(i).x,poly.getPoint(i).x,0.0);
+            assertEquals(orig.getPoint(i).y,poly.getPoint(i).y,0.0);
+        }
+    }
+
+    public void testSchedule()
+    {
+        assertEquals(NUM_EDGES,func.getMaxResolution());
+
+        CoarseToFineOptimizer optim = (CoarseToFineOptimizer)createOptimizer();
+        assertEquals(3,optim.getNumStages());   // 8, 16, 32 edges
+        assertEquals(8,func.getResolution());
+
+        // the copies follow the resolution
+        func.setInput(func.getLowerBounds());
+        VennErrorFunction copy = (VennErrorFunction)func.copy();
+        copy.setInput(func.getLowerBounds());
+        assertEquals(func.getOutput(),copy.getOutput(),1E-12);
+
+        while( ! optim.endCondition() )
+            optim.optimize();
+        optim.finished();
+
+        assertEquals(2,optim.getStage());
+        assertFullResolution(optim);
+    }
+
+    public void testInterrupt()
+    {
+        IOptimizer optim = createOptimizer();
+        for( int i=0; i<3; ++i )
+            optim.optimize();
+        optim.finished();
+
+        assertFullResolution(optim);
+    }
+}
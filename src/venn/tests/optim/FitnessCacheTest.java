@@ -0,0 +1,56 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import junit.framework.TestCase;
+import venn.optim.FitnessCache;
+
+/**
+ * Lookups and least recently used eviction of the fitness cache.
+ */
+public class FitnessCacheTest extends TestCase
+{
+    public FitnessCacheTest(String name)
+    {
+        super(name);
+    }
+
+    public void testLookup()
+    {
+        FitnessCache cache = new FitnessCache(10);
+        double[] x = {0.25, 0.5};
+        assertNull(cache.get(x));
+
+        cache.put(x,new double[]{1.0});
+        x[0] = 0.75;    // the cache keeps a copy of the input
+        assertNull(cache.get(x));
+        assertEquals(1.0,cache.get(new double[]{0.25, 0.5})[0],0.0);
+
+        // inputs are compared exactly
+        assertNull(cache.get(new double[]{0.25, Math.nextUp(0.5)}));
+
+        assertEquals(1,cache.getHits());
+        assertEquals(3,cache.getMisses());
+    }
+
+    public void testEviction()
+    {
+        FitnessCache cache = new FitnessCache(2);
+        double[] a = {1.0}, b = {2.0}, c = {3.0};
+        cache.put(a,a);
+        cache.put(b,b);
+        assertNotNull(cache.get(a));    // b is now the least recently used input
+        cache.put(c,c);
+
+        assertEquals(2,cache.size());
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(a));
+        assertNotNull(cache.get(c));
+
+        cache.clear();
+        assertEquals(0,cache.size());
+        assertNull(cache.get(a));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.optim.CMAESOptimizer;
+import venn.optim.IOptimizer;
+import venn.optim.TimeBudget;
+
+/**
+ * Deadlines, target costs and the sharing of a time budget.
+ */
+public class OptimizerLimitsTest extends TestCase
+{
+    public OptimizerLimitsTest(String name)
+    {
+        super(name);
+    }
+
+    private IOptimizer createOptimizer(SphereFunction func)
+    {
+        CMAESOptimizer.Parameters params = new CMAESOptimizer.Parameters();
+        params.maxIterations = 1000;
+        return new CMAESOptimizer(new Random(4711), func, params);
+    }
+
+    public void testTargetCost()
+    {
+        SphereFunction func = new SphereFunction();
+
+        // smallest error within the bounds
+        double[] x = new double[SphereFunction.DIM];
+        for( int i=0; i<x.length; ++i )
+        {
+            x[i] = Math.max(SphereFunction.LOWER[i],
+                    Math.min(SphereFunction.UPPER[i], SphereFunction.CENTER[i]));
+        }
+        func.setInput(x);
+        double target = -func.getOutput() + 1E-3;
+
+        IOptimizer opt = createOptimizer(func);
+        opt.setTargetCost(target);
+        while( ! opt.endCondition() && ! opt.limitReached() )
+            opt.optimize();
+
+        assertTrue( opt.limitReached() );
+        assertTrue( -opt.getValue() < target );
+
+        // further steps do nothing
+        int progress = opt.getProgress();
+        opt.optimize();
+        assertEquals( progress, opt.getProgress() );
+
+        opt.setTargetCost(0.0);
+        assertFalse( opt.limitReached() );
+    }
+
+    public void testDeadline()
+    {
+        IOptimizer opt = createOptimizer(new SphereFunction());
+        opt.setDeadline(System.nanoTime() - 1);
+        assertTrue( opt.limitReached() );
+        opt.optimize();
+        assertEquals( 0, opt.getProgress() );
+
+        opt.clearDeadline();
+        assertFalse( opt.limitReached() );
+        opt.optimize();
+        assertTrue( opt.getProgress() > 0 );
+    }
+
+    public void testTimeBudget()
+    {
+        // six optimizations on two threads: each of the first ones gets a third of the time
+        TimeBudget budget = new TimeBudget(60.0,6,2);
+        long start = System.nanoTime();
+        long deadline = budget.start();
+        assertEquals( 20.0, (deadline - start) * 1E-9, 0.5 );
+
+        // the last two optimizations can use all of the remaining time
+        for( int i=0; i<4; ++i )
+            budget.finished();
+        assertTrue( budget.getEnd() - budget.start() < 1000000000L );
+    }
+}
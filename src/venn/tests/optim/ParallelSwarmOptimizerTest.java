@@ -0,0 +1,133 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import venn.optim.IFunction;
+import venn.optim.ParallelSwarmOptimizer;
+import venn.parallel.ExecutorServiceFactory;
+
+/**
+ * The slice workers are stopped if an optimization step fails.
+ */
+public class ParallelSwarmOptimizerTest extends TestCase
+{
+    private static final String WORKER_PREFIX = "ParallelSwarmOptimizer [";
+
+    private int numThreads;
+    private Set<Thread> otherThreads;   // e.g. workers left by other tests
+
+    public ParallelSwarmOptimizerTest(String name)
+    {
+        super(name);
+    }
+
+    protected void setUp() throws Exception
+    {
+        numThreads = ExecutorServiceFactory.getNumberOfThreads();
+        ExecutorServiceFactory.setNumberOfThreads(3);
+        otherThreads = new HashSet<Thread>(Thread.getAllStackTraces().keySet());
+    }
+
+    protected void tearDown() throws Exception
+    {
+        ExecutorServiceFactory.setNumberOfThreads(numThreads);
+        super.tearDown();
+    }
+
+    /**
+     * Fails on the optimizer thread or on the other threads.
+     */
+    private static class FailingFunction extends SphereFunction
+    {
+        private final Thread optimizerThread;
+        private final boolean[] fail;   // { on the optimizer thread, on the workers }, shared by the copies
+
+        FailingFunction( Thread optimizerThread, boolean[] fail )
+        {
+            this.optimizerThread = optimizerThread;
+            this.fail = fail;
+        }
+
+        public IFunction copy()
+        {
+            return new FailingFunction(optimizerThread,fail);
+        }
+
+        public double getOutput()
+        {
+            if( fail[Thread.currentThread() == optimizerThread ? 0 : 1] )
+                throw new IllegalStateException("failure");
+            return super.getOutput();
+        }
+    }
+
+    private boolean workersAlive()
+    {
+        for( Thread t : Thread.getAllStackTraces().keySet() )
+        {
+            if( t.getName().startsWith(WORKER_PREFIX) && t.isAlive() && ! otherThreads.contains(t) )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @return true if the workers of this test terminate within 5 seconds.
+     */
+    private boolean workersStopped() throws InterruptedException
+    {
+        for( int k=0; k<50 && workersAlive(); ++k )
+        {
+            Thread.sleep(100);
+        }
+        return ! workersAlive();
+    }
+
+    private void checkFailure( int thread ) throws InterruptedException
+    {
+        boolean[] failing = new boolean[2];
+        ParallelSwarmOptimizer.Parameters params = new ParallelSwarmOptimizer.Parameters();
+        params.numParticles = 12;
+        ParallelSwarmOptimizer opt = new ParallelSwarmOptimizer(new Random(5),
+                new FailingFunction(Thread.currentThread(),failing), params);
+        opt.optimize();
+        assertTrue( workersAlive() );
+
+        failing[thread] = true;
+        try
+        {
+            opt.optimize();
+            fail("exception expected");
+        }
+        catch( IllegalStateException e )
+        {
+            assertEquals("failure",e.getMessage());
+        }
+        assertTrue( workersStopped() );
+
+        // the next step starts the workers again
+        failing[thread] = false;
+        opt.optimize();
+        assertTrue( workersAlive() );
+        opt.finished();
+        assertTrue( workersStopped() );
+    }
+
+    public void testFailureOnOptimizerThread() throws InterruptedException
+    {
+        checkFailure(0);
+    }
+
+    public void testFailureOnWorker() throws InterruptedException
+    {
+        checkFailure(1);
+    }
+}
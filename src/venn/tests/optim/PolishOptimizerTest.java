@@ -0,0 +1,51 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import venn.optim.CMAESOptimizer;
+import venn.optim.PolishOptimizer;
+
+/**
+ * Refines a coarse CMA-ES result on SphereFunction.
+ */
+public class PolishOptimizerTest extends TestCase
+{
+    public PolishOptimizerTest(String name)
+    {
+        super(name);
+    }
+
+    public void testPolish()
+    {
+        SphereFunction func = new SphereFunction();
+        CMAESOptimizer.Parameters cmaes = new CMAESOptimizer.Parameters();
+        cmaes.maxIterations = 3;
+        CMAESOptimizer global = new CMAESOptimizer(new Random(4711), func, cmaes);
+        PolishOptimizer.Parameters params = new PolishOptimizer.Parameters();
+        params.enabled = true;
+        PolishOptimizer opt = new PolishOptimizer(global, params);
+
+        while( ! opt.endCondition() )
+            opt.optimize();
+
+        assertTrue( opt.isPolishing() );
+        assertEquals( -global.getValue(), opt.getStartError(), 0.0 );
+        assertTrue( opt.getError() < opt.getStartError() );
+        assertEquals( -opt.getValue(), opt.getError(), 0.0 );
+        assertTrue( opt.getProgress() <= opt.getMaxProgress() );
+
+        double[] x = opt.getOptimum();
+        for( int i=0; i<SphereFunction.DIM; ++i )
+        {
+            assertTrue( x[i] >= SphereFunction.LOWER[i] && x[i] <= SphereFunction.UPPER[i] );
+            double expected = Math.max(SphereFunction.LOWER[i],
+                    Math.min(SphereFunction.UPPER[i], SphereFunction.CENTER[i]));
+            assertEquals( expected, x[i], 1E-4 );
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.optim;
+
+import venn.optim.IFunction;
+
+/**
+ * f(x) = -|x - CENTER|^2 on a box which contains a fixed parameter
+ * and cuts off the unconstrained optimum in the last parameter.
+ */
+public class SphereFunction implements IFunction
+{
+    public static final int DIM = 6;
+
+    public static final double[] LOWER = { -1.0, -1.0, -1.0, -1.0, 0.5, -1.0 },
+                                 UPPER = {  1.0,  1.0,  1.0,  1.0, 0.5,  0.2 },
+                                 CENTER = { 0.3, -0.4, 0.1, 0.7, 0.0, 0.8 };
+
+    private double[] input;
+    int numEvaluations;
+
+    public IFunction copy()
+    {
+        return new SphereFunction();
+    }
+
+    public void setInput( double input[] )
+    {
+        this.input = input;
+    }
+
+    public double[] getLowerBounds()
+    {
+        return LOWER;
+    }
+
+    public double[] getUpperBounds()
+    {
+        return UPPER;
+    }
+
+    public int getNumInput()
+    {
+        return DIM;
+    }
+
+    public double getOutput()
+    {
+        ++numEvaluations;
+        double sum = 0.0;
+        for( int i=0; i<DIM; ++i )
+        {
+            double d = input[i] - CENTER[i];
+            sum += d * d;
+        }
+        return -sum;
+    }
+
+    public double[] getOutputs( double[][] inputs )
+    {
+        double[] out = new double[inputs.length];
+        for( int i=0; i<inputs.length; ++i )
+        {
+            setInput(inputs[i]);
+            out[i] = getOutput();
+        }
+        return out;
+    }
+}
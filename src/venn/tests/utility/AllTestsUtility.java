@@ -18,6 +18,7 @@ public class AllTestsUtility {
         //$JUnit-BEGIN$
         suite.addTestSuite(SetUtilityTest.class);
         suite.addTestSuite(SetUtilityTest1.class);
+        suite.addTestSuite(MathUtilityTest.class);
         //$JUnit-END$
         return suite;
     }
@@ -0,0 +1,70 @@
+/*
+ * Created on 16.10.2026
+ *
+ */
+package venn.tests.utility;
+
+import java.util.Random;
+
+import venn.utility.MathUtility;
+
+import junit.framework.TestCase;
+
+public class MathUtilityTest extends TestCase
+{
+    public MathUtilityTest(String name)
+    {
+        super(name);
+    }
+
+    /**
+     * Compares the in-place rotation with the product of the dense Givens matrices.
+     */
+    public void testGivensRotate()
+    {
+        Random random = new Random(17);
+        for( int n=1; n<=12; ++n )
+        {
+            double[] alpha = new double[(n*(n-1))/2];
+            for( int k=0; k<alpha.length; ++k )
+            {
+                alpha[k] = 2.0 * Math.PI * random.nextDouble();
+            }
+
+            double[][] R = MathUtility.createMatrix(n,n),
+                       tmp = MathUtility.createMatrix(n,n),
+                       dst = MathUtility.createMatrix(n,n);
+            MathUtility.unitMatrix(R);
+            int k = 0;
+            for( int i=0; i<n-1; ++i )
+            {
+                for( int j=i+1; j<n; ++j )
+                {
+                    MathUtility.unitMatrix(tmp);
+                    tmp[i][i] = Math.cos(alpha[k]);
+                    tmp[j][j] = Math.cos(alpha[k]);
+                    tmp[i][j] = -Math.sin(alpha[k]);
+                    tmp[j][i] = Math.sin(alpha[k]);
+                    MathUtility.matrixProduct(R,tmp,dst);
+                    MathUtility.matrixCopy(dst,R);
+                    ++k;
+                }
+            }
+
+            double[][] x = new double[n][1],
+                       y = new double[n][1];
+            double[] v = new double[n];
+            for( int i=0; i<n; ++i )
+            {
+                x[i][0] = v[i] = random.nextGaussian();
+            }
+            MathUtility.matrixProduct(R,x,y);
+            MathUtility.givensRotate(alpha,v);
+
+            for( int i=0; i<n; ++i )
+            {
+                assertEquals( y[i][0], v[i], 1e-12 );
+            }
+        }
+    }
+}
@@ -213,6 +213,38 @@ public class MathUtility
     }
     
 
+    /**
+     * Rotates the vector x in place by R = R_01 * R_02 * ... * R_(n-2)(n-1),
+     * where R_ij is the Givens rotation in the (i,j) plane by the angle
+     * alpha[k] and k enumerates the pairs i<j row by row.
+     * This is the same as multiplying x with the dense matrix R, but needs only O(n^2) operations.
+     * 
+     * @param alpha n(n-1)/2 rotation angles
+     * @param x vector of length n
+     */
+    public static void givensRotate( double[] alpha, double[] x )
+    {
+        int n = x.length;
+        Assert.assertEquals( (n*(n-1))/2, alpha.length );
+        
+        // R * x = R_01 * (R_02 * ( ... (R_(n-2)(n-1) * x))), so start with the last rotation
+        int k = alpha.length - 1;
+        for( int i = n-2; i >= 0; --i )
+        {
+            for( int j = n-1; j > i; --j )
+            {
+                double  c = Math.cos( alpha[k] ),
+                        s = Math.sin( alpha[k] ),
+                        xi = x[i],
+                        xj = x[j];
+                
+                x[i] = c * xi - s * xj;
+                x[j] = s * xi + c * xj;
+                --k;
+            }
+        }
+    }
+
     public static double[][] createMatrix(int nrows, int ncols) 
     {
         return new double[nrows][ncols];